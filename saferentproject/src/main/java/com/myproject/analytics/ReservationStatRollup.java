@@ -0,0 +1,99 @@
+package com.myproject.analytics;
+
+import com.myproject.domain.Reservation;
+import com.myproject.domain.ReservationDailyStat;
+import com.myproject.domain.ReservationDailyStatId;
+import com.myproject.repository.ReservationDailyStatRepository;
+import com.myproject.repository.ReservationRepository;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.Set;
+import java.util.TreeSet;
+
+@Component
+public class ReservationStatRollup {
+
+    // t_reservation_daily_stat özet tablosunu artımlı güncelliyor:
+    // rezervasyon yazan transaction etkiledigi (arac, gün) satırlarını isaretliyor,
+    // bu satırlar commit'ten hemen önce aynı transaction icinde rezervasyon tablosundan yeniden hesaplanıyor.
+    // Böylece özet tablo rezervasyonlarla birlikte commit/rollback oluyor.
+
+    private final ReservationRepository reservationRepository;
+    private final ReservationDailyStatRepository reservationDailyStatRepository;
+    private final TransactionTemplate transactionTemplate;
+
+    public ReservationStatRollup(ReservationRepository reservationRepository,
+                                 ReservationDailyStatRepository reservationDailyStatRepository,
+                                 TransactionTemplate transactionTemplate) {
+        this.reservationRepository = reservationRepository;
+        this.reservationDailyStatRepository = reservationDailyStatRepository;
+        this.transactionTemplate = transactionTemplate;
+    }
+
+    // güncellemelerde hem eski hem yeni hali isaretlenmeli (arac veya tarihler degismis olabilir).
+    // Kiralama süresi gün gün dagıtıldıgı icin rezervasyonun kapsadıgı her gün isaretleniyor
+    public void markDirty(Reservation reservation) {
+        LocalDate lastDay = reservation.getDropOfTime().toLocalDate();
+        for (LocalDate day = reservation.getPickUpTime().toLocalDate(); !day.isAfter(lastDay); day = day.plusDays(1)) {
+            markDirty(reservation.getCar().getId(), day);
+        }
+    }
+
+    public void markDirty(Long carId, LocalDate statDate) {
+        ReservationDailyStatId id = new ReservationDailyStatId(statDate, carId);
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            transactionTemplate.executeWithoutResult(txStatus -> refresh(Collections.singleton(id)));
+            return;
+        }
+
+        @SuppressWarnings("unchecked")
+        Set<ReservationDailyStatId> dirty = (Set<ReservationDailyStatId>) TransactionSynchronizationManager.getResource(this);
+        if (dirty == null) {
+            Set<ReservationDailyStatId> ids = new LinkedHashSet<>();
+            TransactionSynchronizationManager.bindResource(this, ids);
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void beforeCommit(boolean readOnly) {
+                    refresh(ids);
+                }
+
+                @Override
+                public void afterCompletion(int status) {
+                    TransactionSynchronizationManager.unbindResourceIfPossible(ReservationStatRollup.this);
+                }
+            });
+            dirty = ids;
+        }
+        dirty.add(id);
+    }
+
+    private void refresh(Set<ReservationDailyStatId> ids) {
+        // aynı aracın satırlarını hesaplayan transaction'lar rezervasyon kilidiyle sıraya giriyor,
+        // kilit alındıktan sonra digerinin commit ettigi rezervasyonlar da görülüyor
+        Set<Long> carIds = new TreeSet<>();
+        ids.forEach(id -> carIds.add(id.getCarId()));
+        carIds.forEach(reservationRepository::lockCarForBooking);
+
+        ids.forEach(this::refresh);
+    }
+
+    private void refresh(ReservationDailyStatId id) {
+        ReservationDailyStat stat = new ReservationDailyStat(id.getStatDate(), id.getCarId());
+        reservationRepository.findStatSamples(id.getCarId(),
+                        id.getStatDate().atStartOfDay(),
+                        id.getStatDate().plusDays(1).atStartOfDay()).
+                forEach(stat::add);
+
+        if (!stat.isEmpty()) {
+            reservationDailyStatRepository.save(stat);
+        } else if (reservationDailyStatRepository.existsById(id)) {
+            reservationDailyStatRepository.deleteById(id);
+        }
+    }
+}
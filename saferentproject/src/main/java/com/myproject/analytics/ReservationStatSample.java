@@ -0,0 +1,24 @@
+package com.myproject.analytics;
+
+import com.myproject.domain.enums.ReservationStatus;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.time.LocalDateTime;
+
+// ReservationDailyStat hesabı icin rezervasyonun gereken kolonları (entity ve iliskileri yüklenmeden)
+@Getter
+@AllArgsConstructor
+public class ReservationStatSample {
+
+    private final ReservationStatus status;
+
+    private final Double totalPrice;
+
+    private final LocalDateTime pickUpTime;
+
+    private final LocalDateTime dropOfTime;
+
+    private final LocalDateTime createdAt;
+
+}
@@ -0,0 +1,35 @@
+package com.myproject.analytics;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.temporal.TemporalAdjusters;
+
+// gelir raporunun gruplama periyodu, günlük özetler bu periyotların baslangıc gününe toplanıyor
+public enum StatPeriod {
+
+    DAY,
+    WEEK,
+    MONTH;
+
+    public LocalDate start(LocalDate date) {
+        switch (this) {
+            case WEEK:
+                return date.with(TemporalAdjusters.previousOrSame(DayOfWeek.MONDAY));
+            case MONTH:
+                return date.withDayOfMonth(1);
+            default:
+                return date;
+        }
+    }
+
+    public LocalDate next(LocalDate periodStart) {
+        switch (this) {
+            case WEEK:
+                return periodStart.plusWeeks(1);
+            case MONTH:
+                return periodStart.plusMonths(1);
+            default:
+                return periodStart.plusDays(1);
+        }
+    }
+}
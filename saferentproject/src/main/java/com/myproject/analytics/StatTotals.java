@@ -0,0 +1,69 @@
+package com.myproject.analytics;
+
+import lombok.Getter;
+
+import java.time.LocalDate;
+
+// ReservationDailyStat satırlarının gün veya arac bazında toplamı
+@Getter
+public class StatTotals {
+
+    private LocalDate statDate;
+
+    private Long carId;
+
+    private long reservationCount;
+
+    private long canceledCount;
+
+    private double revenue;
+
+    private long rentedMinutes;
+
+    private long leadTimeMinutes;
+
+    private long leadTimeCount;
+
+    public StatTotals() {
+    }
+
+    // JPQL group by s.statDate
+    public StatTotals(LocalDate statDate, Long reservationCount, Long canceledCount, Double revenue,
+                      Long rentedMinutes, Long leadTimeMinutes, Long leadTimeCount) {
+        this.statDate = statDate;
+        this.reservationCount = reservationCount;
+        this.canceledCount = canceledCount;
+        this.revenue = revenue;
+        this.rentedMinutes = rentedMinutes;
+        this.leadTimeMinutes = leadTimeMinutes;
+        this.leadTimeCount = leadTimeCount;
+    }
+
+    // JPQL group by s.carId
+    public StatTotals(Long carId, Long reservationCount, Long canceledCount, Double revenue,
+                      Long rentedMinutes, Long leadTimeMinutes, Long leadTimeCount) {
+        this((LocalDate) null, reservationCount, canceledCount, revenue, rentedMinutes, leadTimeMinutes, leadTimeCount);
+        this.carId = carId;
+    }
+
+    public void add(StatTotals other) {
+        reservationCount += other.reservationCount;
+        canceledCount += other.canceledCount;
+        revenue += other.revenue;
+        rentedMinutes += other.rentedMinutes;
+        leadTimeMinutes += other.leadTimeMinutes;
+        leadTimeCount += other.leadTimeCount;
+    }
+
+    public double getCancellationRate() {
+        return reservationCount == 0 ? 0 : (double) canceledCount / reservationCount;
+    }
+
+    public double getRentedHours() {
+        return rentedMinutes / 60.0;
+    }
+
+    public double getAverageLeadTimeHours() {
+        return leadTimeCount == 0 ? 0 : leadTimeMinutes / 60.0 / leadTimeCount;
+    }
+}
@@ -0,0 +1,110 @@
+package com.myproject.cache;
+
+import com.myproject.domain.CacheInvalidation;
+import com.myproject.repository.CacheInvalidationRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.Cache;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+@Component
+public class CacheInvalidationBus {
+
+    // Caffeine cache'leri her node'un kendi belleginde. Bir node'da eviction yapıldıgında
+    // t_cache_invalidation tablosunda cache'in version'ı arttırılıyor, her node tabloyu cacheInvalidationPollMs
+    // aralıklarla okuyup version'ı degisen cache'leri kendi belleginde tamamen temizliyor.
+    // Yani baska bir node'daki degisiklik en gec bu süre (+ replica gecikmesi) icinde görülüyor.
+    // Kendi eviction'ımız da bir sonraki okumada version degisikligi olarak görülüp cache bir kez daha temizleniyor.
+
+    private static final Logger logger = LoggerFactory.getLogger(CacheInvalidationBus.class);
+
+    // node'un kendi (yayın yapmayan) cache'leri
+    private final Map<String, Cache> localCaches = new ConcurrentHashMap<>();
+
+    private final Map<String, Long> seenVersions = new ConcurrentHashMap<>();
+
+    private volatile boolean initialized;
+
+    private final CacheInvalidationRepository cacheInvalidationRepository;
+
+    // eviction'lar commit sonrasında (afterCommit) yapıldıgı icin ayrı transaction
+    private final TransactionTemplate requiresNewTemplate;
+
+    private final long pollIntervalMs;
+
+    private final ScheduledExecutorService scheduler;
+
+    public CacheInvalidationBus(@Value("${saferentproject.app.cacheInvalidationPollMs:5000}") long pollIntervalMs,
+                                CacheInvalidationRepository cacheInvalidationRepository,
+                                TransactionTemplate transactionTemplate) {
+        this.cacheInvalidationRepository = cacheInvalidationRepository;
+        this.requiresNewTemplate = new TransactionTemplate(transactionTemplate.getTransactionManager());
+        this.requiresNewTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.pollIntervalMs = pollIntervalMs;
+        CustomizableThreadFactory threadFactory = new CustomizableThreadFactory("cache-invalidation-");
+        threadFactory.setDaemon(true);
+        this.scheduler = Executors.newSingleThreadScheduledExecutor(threadFactory);
+    }
+
+    // 0 ise tablo okunmuyor (tek instance). Ilk okuma istek almaya baslamadan yapılıyor,
+    // sonradan gelen her version degisikligi cache'i temizliyor
+    @PostConstruct
+    public void start() {
+        if (pollIntervalMs > 0) {
+            refresh();
+            scheduler.scheduleWithFixedDelay(this::refresh, pollIntervalMs, pollIntervalMs, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        scheduler.shutdownNow();
+    }
+
+    public void register(Cache localCache) {
+        localCaches.put(localCache.getName(), localCache);
+    }
+
+    // cache bu node'da temizlendikten sonra cagrılıyor, diger node'lara bildiriliyor
+    public void publish(String cacheName) {
+        try {
+            requiresNewTemplate.executeWithoutResult(status -> {
+                if (cacheInvalidationRepository.incrementVersion(cacheName) == 0) {
+                    cacheInvalidationRepository.save(new CacheInvalidation(cacheName, 1));
+                }
+            });
+        } catch (RuntimeException e) {
+            // diger node'lar bu degisikligi en gec cache'in expireAfterWrite süresi sonunda görür
+            logger.warn("Invalidation of cache {} could not be published: {}", cacheName, e.getMessage());
+        }
+    }
+
+    // diger node'larda yapılan eviction'lar tablodan okunup yerel cache'ler temizleniyor
+    public void refresh() {
+        try {
+            for (CacheInvalidation invalidation : cacheInvalidationRepository.findAll()) {
+                Long seen = seenVersions.put(invalidation.getCacheName(), invalidation.getVersion());
+                Cache localCache = localCaches.get(invalidation.getCacheName());
+                if (initialized && localCache != null && (seen == null || seen != invalidation.getVersion())) {
+                    localCache.clear();
+                }
+            }
+            initialized = true;
+        } catch (RuntimeException e) {
+            logger.warn("Cache invalidations could not be refreshed: {}", e.getMessage());
+        }
+    }
+
+}
@@ -0,0 +1,89 @@
+package com.myproject.cache;
+
+import org.springframework.cache.Cache;
+
+import java.util.concurrent.Callable;
+
+public class InvalidationBroadcastingCache implements Cache {
+
+    // Yerel cache'e yapılan eviction'lar CacheInvalidationBus ile diger node'lara da bildiriliyor.
+    // Okuma ve yazmalar sadece yerel cache'e gidiyor
+
+    private final Cache delegate;
+
+    private final CacheInvalidationBus cacheInvalidationBus;
+
+    public InvalidationBroadcastingCache(Cache delegate, CacheInvalidationBus cacheInvalidationBus) {
+        this.delegate = delegate;
+        this.cacheInvalidationBus = cacheInvalidationBus;
+        cacheInvalidationBus.register(delegate);
+    }
+
+    public Cache getDelegate() {
+        return delegate;
+    }
+
+    @Override
+    public String getName() {
+        return delegate.getName();
+    }
+
+    @Override
+    public Object getNativeCache() {
+        return delegate.getNativeCache();
+    }
+
+    @Override
+    public ValueWrapper get(Object key) {
+        return delegate.get(key);
+    }
+
+    @Override
+    public <T> T get(Object key, Class<T> type) {
+        return delegate.get(key, type);
+    }
+
+    @Override
+    public <T> T get(Object key, Callable<T> valueLoader) {
+        return delegate.get(key, valueLoader);
+    }
+
+    @Override
+    public void put(Object key, Object value) {
+        delegate.put(key, value);
+    }
+
+    @Override
+    public ValueWrapper putIfAbsent(Object key, Object value) {
+        return delegate.putIfAbsent(key, value);
+    }
+
+    // diger node'lar key bazında degil tüm cache'i temizliyor
+    @Override
+    public void evict(Object key) {
+        delegate.evict(key);
+        cacheInvalidationBus.publish(getName());
+    }
+
+    // key yerelde olmasa da diger node'larda cache'lenmiş olabilir
+    @Override
+    public boolean evictIfPresent(Object key) {
+        boolean evicted = delegate.evictIfPresent(key);
+        cacheInvalidationBus.publish(getName());
+        return evicted;
+    }
+
+    @Override
+    public void clear() {
+        delegate.clear();
+        cacheInvalidationBus.publish(getName());
+    }
+
+    @Override
+    public boolean invalidate() {
+        boolean invalidated = delegate.invalidate();
+        cacheInvalidationBus.publish(getName());
+        return invalidated;
+    }
+
+}
@@ -0,0 +1,42 @@
+package com.myproject.cache;
+
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.transaction.AbstractTransactionSupportingCacheManager;
+
+import java.util.Collection;
+import java.util.stream.Collectors;
+
+public class InvalidationBroadcastingCacheManager extends AbstractTransactionSupportingCacheManager {
+
+    // yerel cache manager'ın cache'leri InvalidationBroadcastingCache ile sarılıyor.
+    // transactionAware ise eviction (ve diger node'lara bildirim) commit sonrasına erteleniyor
+
+    private final CacheManager localCacheManager;
+
+    private final CacheInvalidationBus cacheInvalidationBus;
+
+    public InvalidationBroadcastingCacheManager(CacheManager localCacheManager, CacheInvalidationBus cacheInvalidationBus) {
+        this.localCacheManager = localCacheManager;
+        this.cacheInvalidationBus = cacheInvalidationBus;
+    }
+
+    @Override
+    protected Collection<? extends Cache> loadCaches() {
+        return localCacheManager.getCacheNames().stream().
+                map(localCacheManager::getCache).
+                collect(Collectors.toList());
+    }
+
+    // cache-names verilmemisse yerel cache manager cache'leri ilk kullanımda olusturuyor
+    @Override
+    protected Cache getMissingCache(String name) {
+        return localCacheManager.getCache(name);
+    }
+
+    @Override
+    protected Cache decorateCache(Cache cache) {
+        return super.decorateCache(new InvalidationBroadcastingCache(cache, cacheInvalidationBus));
+    }
+
+}
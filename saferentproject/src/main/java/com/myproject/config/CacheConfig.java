@@ -0,0 +1,63 @@
+package com.myproject.config;
+
+import com.myproject.cache.CacheInvalidationBus;
+import com.myproject.cache.InvalidationBroadcastingCache;
+import com.myproject.cache.InvalidationBroadcastingCacheManager;
+import io.micrometer.core.instrument.Tag;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.boot.actuate.metrics.cache.CacheMeterBinderProvider;
+import org.springframework.boot.actuate.metrics.cache.CaffeineCacheMeterBinderProvider;
+import org.springframework.boot.autoconfigure.cache.CacheProperties;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.caffeine.CaffeineCache;
+import org.springframework.cache.caffeine.CaffeineCacheManager;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.util.StringUtils;
+
+@Configuration
+@EnableConfigurationProperties(CacheProperties.class)
+public class CacheConfig {
+
+    // spring.cache ayarlarıyla Caffeine cache olusturuluyor. @CacheEvict'ler transaction icindeyse commit
+    // sonrasına erteleniyor, aksi halde eviction ile commit arasında gelen okuma eski satırı tekrar
+    // cache'e koyar ve TTL dolana kadar eski veri döner.
+    // Cache her node'un belleginde, eviction'lar CacheInvalidationBus ile diger node'lara da iletiliyor
+    @Bean
+    public CacheManager cacheManager(CacheProperties cacheProperties, CacheInvalidationBus cacheInvalidationBus) {
+        CaffeineCacheManager localCacheManager = new CaffeineCacheManager();
+        String spec = cacheProperties.getCaffeine().getSpec();
+        if (StringUtils.hasText(spec)) {
+            localCacheManager.setCacheSpecification(spec);
+        }
+        if (!cacheProperties.getCacheNames().isEmpty()) {
+            localCacheManager.setCacheNames(cacheProperties.getCacheNames());
+        }
+        InvalidationBroadcastingCacheManager cacheManager =
+                new InvalidationBroadcastingCacheManager(localCacheManager, cacheInvalidationBus);
+        cacheManager.setTransactionAware(true);
+        return cacheManager;
+    }
+
+    // cache.* metrikleri sarılmıs Caffeine cache'leri icin de yayınlanıyor
+    @Bean
+    public InvalidationBroadcastingCacheMeterBinderProvider invalidationBroadcastingCacheMeterBinderProvider() {
+        return new InvalidationBroadcastingCacheMeterBinderProvider();
+    }
+
+    static class InvalidationBroadcastingCacheMeterBinderProvider
+            implements CacheMeterBinderProvider<InvalidationBroadcastingCache> {
+
+        private final CaffeineCacheMeterBinderProvider caffeineProvider = new CaffeineCacheMeterBinderProvider();
+
+        @Override
+        public MeterBinder getMeterBinder(InvalidationBroadcastingCache cache, Iterable<Tag> tags) {
+            if (cache.getDelegate() instanceof CaffeineCache) {
+                return caffeineProvider.getMeterBinder((CaffeineCache) cache.getDelegate(), tags);
+            }
+            return null;
+        }
+    }
+
+}
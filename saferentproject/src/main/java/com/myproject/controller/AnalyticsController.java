@@ -0,0 +1,49 @@
+package com.myproject.controller;
+
+import com.myproject.analytics.StatPeriod;
+import com.myproject.dto.response.CarUtilizationResponse;
+import com.myproject.dto.response.RevenueStatResponse;
+import com.myproject.service.AnalyticsService;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.time.LocalDate;
+import java.util.List;
+
+@RestController
+@RequestMapping("/analytics")
+public class AnalyticsController {
+
+    private final AnalyticsService analyticsService;
+
+    public AnalyticsController(AnalyticsService analyticsService) {
+        this.analyticsService = analyticsService;
+    }
+
+    // gün/hafta/ay bazında gelir, iptal oranı ve ortalama rezervasyon öncesi süre
+    // ör: /analytics/revenue?from=01/01/2023&to=03/31/2023&period=MONTH
+    @GetMapping("/revenue")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<List<RevenueStatResponse>> getRevenue(
+            @RequestParam("from") @DateTimeFormat(pattern = "MM/dd/yyyy") LocalDate from,
+            @RequestParam("to") @DateTimeFormat(pattern = "MM/dd/yyyy") LocalDate to,
+            @RequestParam(value = "period", required = false, defaultValue = "DAY") StatPeriod period) {
+        List<RevenueStatResponse> revenue = analyticsService.getRevenue(from, to, period);
+        return ResponseEntity.ok(revenue);
+    }
+
+    // arac bazında kiralanan saat / toplam saat
+    @GetMapping("/utilization")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<List<CarUtilizationResponse>> getCarUtilization(
+            @RequestParam("from") @DateTimeFormat(pattern = "MM/dd/yyyy") LocalDate from,
+            @RequestParam("to") @DateTimeFormat(pattern = "MM/dd/yyyy") LocalDate to) {
+        List<CarUtilizationResponse> utilization = analyticsService.getCarUtilization(from, to);
+        return ResponseEntity.ok(utilization);
+    }
+}
@@ -2,18 +2,28 @@ package com.myproject.controller;
 
 import com.myproject.dto.CarDTO;
 import com.myproject.dto.request.CarRequest;
+import com.myproject.dto.response.ImportResponse;
+import com.myproject.dto.response.KeysetPage;
 import com.myproject.dto.response.ResponseMessage;
 import com.myproject.dto.response.SfResponse;
+import com.myproject.pagination.KeysetCursor;
 import com.myproject.service.CarService;
+import com.myproject.streaming.JsonStreamWriter;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.domain.Sort;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import javax.validation.Valid;
+import java.time.LocalDateTime;
 import java.util.List;
 
 @RestController
@@ -21,10 +31,12 @@ import java.util.List;
 public class CarController {
 
     private final CarService carService;
+    private final JsonStreamWriter jsonStreamWriter;
 
 
-    public CarController(CarService carService) {
+    public CarController(CarService carService, JsonStreamWriter jsonStreamWriter) {
         this.carService = carService;
+        this.jsonStreamWriter = jsonStreamWriter;
     }
 
     // SaveCar
@@ -38,28 +50,52 @@ public class CarController {
         return ResponseEntity.ok(response);
     }
 
+    // CSV veya xlsx dosyasından toplu arac ekleme
+    @PostMapping("/admin/import")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<ImportResponse> importCars(@RequestParam("file") MultipartFile file) {
+        ImportResponse response = carService.importCars(file);
+        return ResponseEntity.ok(response);
+    }
+
     // getAll
+    // katalog cache'ten okunup JSON array (veya NDJSON) olarak stream ediliyor
     @GetMapping("/visitors/all")
-    public ResponseEntity<List<CarDTO>> getAllCars() {
+    public ResponseEntity<StreamingResponseBody> getAllCars(@RequestHeader(value = HttpHeaders.ACCEPT, required = false) String accept) {
         List<CarDTO> allCars = carService.getAllCars();
-        return ResponseEntity.ok(allCars);
+        return jsonStreamWriter.stream(accept, allCars::forEach);
     }
 
     // getAllWithPage
     @GetMapping("/visitors/pages")
-    public ResponseEntity<Page<CarDTO>> getAllCarsWithPage(
+    public ResponseEntity<Slice<CarDTO>> getAllCarsWithPage(
             @RequestParam("page") int page,
             @RequestParam("size") int size,
             @RequestParam("sort") String prop,
             @RequestParam(value = "direction",
                     required = false,
-                    defaultValue = "DESC") Sort.Direction direction) {
+                    defaultValue = "DESC") Sort.Direction direction,
+            @RequestParam(value = "count",
+                    required = false,
+                    defaultValue = "true") boolean count) { // false ise toplam sayı hesaplanmıyor
         Pageable pageable = PageRequest.of(page, size, Sort.by(direction, prop));
 
-        Page<CarDTO> pageDTO = carService.findAllWithPage(pageable);
+        Slice<CarDTO> pageDTO = count ? carService.findAllWithPage(pageable) : carService.findAllWithSlice(pageable);
         return ResponseEntity.ok(pageDTO);
     }
 
+    // getAllWithCursor (keyset sayfalama)
+    @GetMapping("/visitors/cursor")
+    public ResponseEntity<KeysetPage<CarDTO>> getAllCarsWithCursor(
+            @RequestParam(value = "cursor", required = false) String cursor, // ilk sayfa icin gönderilmez
+            @RequestParam("size") int size,
+            @RequestParam(value = "direction",
+                    required = false,
+                    defaultValue = "DESC") Sort.Direction direction) {
+        KeysetPage<CarDTO> keysetPage = carService.findAllByCursor(KeysetCursor.decode(cursor, direction), size);
+        return ResponseEntity.ok(keysetPage);
+    }
+
     // getCarById
     @GetMapping("/visitors/{id}")
     public ResponseEntity<CarDTO> getCarById(@PathVariable Long id){
@@ -67,6 +103,33 @@ public class CarController {
         return ResponseEntity.ok(carDTO);
     }
 
+    // verilen tarihler arasında musait olan araclar (filtreler opsiyonel), sayfalı
+    @GetMapping("/auth/available")
+    @PreAuthorize("hasRole('ADMIN') or hasRole('CUSTOMER')")
+    public ResponseEntity<Page<CarDTO>> getAvailableCars(
+            @RequestParam("pickUpTime")
+                @DateTimeFormat(pattern = "MM/dd/yyyy HH:mm:ss") LocalDateTime pickUpTime,
+            @RequestParam("dropOffTime")
+                @DateTimeFormat(pattern = "MM/dd/yyyy HH:mm:ss") LocalDateTime dropOffTime,
+            @RequestParam(value = "seats", required = false) Integer seats,
+            @RequestParam(value = "transmission", required = false) String transmission,
+            @RequestParam(value = "fuelType", required = false) String fuelType,
+            @RequestParam(value = "minPrice", required = false) Double minPrice,
+            @RequestParam(value = "maxPrice", required = false) Double maxPrice,
+            @RequestParam("page") int page,
+            @RequestParam("size") int size,
+            @RequestParam(value = "sort",
+                    required = false,
+                    defaultValue = "pricePerHour") String prop,
+            @RequestParam(value = "direction",
+                    required = false,
+                    defaultValue = "ASC") Sort.Direction direction) {
+        Pageable pageable = PageRequest.of(page, size, Sort.by(direction, prop));
+        Page<CarDTO> availableCars = carService.findAvailableCars(pickUpTime, dropOffTime, seats,
+                transmission, fuelType, minPrice, maxPrice, pageable);
+        return ResponseEntity.ok(availableCars);
+    }
+
     // Update Car With ImageId
     @PutMapping("/admin/auth")
     @PreAuthorize("hasRole('ADMIN')")
@@ -2,21 +2,25 @@ package com.myproject.controller;
 
 import com.myproject.dto.ContactMessageDTO;
 import com.myproject.dto.request.ContactMessageRequest;
+import com.myproject.dto.response.KeysetPage;
 import com.myproject.dto.response.ResponseMessage;
 import com.myproject.dto.response.SfResponse;
 import com.myproject.mapper.ContactMessageMapper;
+import com.myproject.pagination.KeysetCursor;
 import com.myproject.service.ContactMessageService;
-import org.springframework.data.domain.Page;
+import com.myproject.streaming.JsonStreamWriter;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.domain.Sort;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import javax.validation.Valid;
-import java.util.List;
 
 @RestController
 @RequestMapping("/contactmessage")
@@ -29,11 +33,15 @@ public class ContactMessageController {
     //@Autowired
     private final ContactMessageService contactMessageService;
 
+    private final JsonStreamWriter jsonStreamWriter;
+
     public ContactMessageController(ContactMessageMapper contactMessageMapper,
-                                    ContactMessageService contactMessageService) {
+                                    ContactMessageService contactMessageService,
+                                    JsonStreamWriter jsonStreamWriter) {
 
         this.contactMessageMapper = contactMessageMapper;
         this.contactMessageService = contactMessageService;
+        this.jsonStreamWriter = jsonStreamWriter;
     }
 
 
@@ -50,32 +58,49 @@ public class ContactMessageController {
     }
 
         //!! getAll ContactMessage
+        // JSON array olarak, Accept: application/x-ndjson ise satır satır stream ediliyor
     @GetMapping
     @PreAuthorize("hasRole('ADMIN')")
-    public ResponseEntity<List<ContactMessageDTO>> getAllContactMessage()   {
-
-        List<ContactMessageDTO> contactMessageDTO = contactMessageService.getAll();
-
+    public ResponseEntity<StreamingResponseBody> getAllContactMessage(@RequestHeader(value = HttpHeaders.ACCEPT, required = false) String accept)   {
 
-        return new ResponseEntity<>(contactMessageDTO, HttpStatus.OK );
+        return jsonStreamWriter.stream(accept, contactMessageService::streamAll);
 
     }
     //!!! datamız cok fazla olursa pageable yapıyla calısmak dogrusudur.
     @GetMapping("/pages")
     @PreAuthorize("hasRole('ADMIN')")
-    public ResponseEntity<Page<ContactMessageDTO>> getAllContactMessageWithPage(
+    public ResponseEntity<Slice<ContactMessageDTO>> getAllContactMessageWithPage(
             @RequestParam("page") int page,
             @RequestParam("size")  int size,
             @RequestParam("sort") String prop,//neye göre sıralanacağını belirtiyoruz
             @RequestParam(value = "direction", required = false,
-                    defaultValue = "DESC")Sort.Direction direction)
+                    defaultValue = "DESC")Sort.Direction direction,
+            @RequestParam(value = "count", required = false,
+                    defaultValue = "true") boolean count) // false ise toplam sayı hesaplanmıyor
     {
         Pageable pageable = PageRequest.of(page, size,Sort.by(direction, prop));
-        Page<ContactMessageDTO> contactMessagePage = contactMessageService.getAll(pageable);
+        Slice<ContactMessageDTO> contactMessagePage = count ?
+                contactMessageService.getAll(pageable) :
+                contactMessageService.getSlice(pageable);
 
         return ResponseEntity.ok( contactMessagePage);
     }
 
+    //!!! cok büyük tablolarda OFFSET yerine cursor ile (keyset) sayfalama
+    @GetMapping("/cursor")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<KeysetPage<ContactMessageDTO>> getAllContactMessageWithCursor(
+            @RequestParam(value = "cursor", required = false) String cursor, // ilk sayfa icin gönderilmez
+            @RequestParam("size") int size,
+            @RequestParam(value = "direction", required = false,
+                    defaultValue = "DESC") Sort.Direction direction)
+    {
+        KeysetPage<ContactMessageDTO> keysetPage =
+                contactMessageService.getAllByCursor(KeysetCursor.decode(cursor, direction), size);
+
+        return ResponseEntity.ok(keysetPage);
+    }
+
     //  spesifik olarak bir ContactMessage'ı PathVariable ile alalım
     @GetMapping("/{id}")
     @PreAuthorize("hasRole('ADMIN')")
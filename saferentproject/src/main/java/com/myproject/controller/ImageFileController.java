@@ -6,26 +6,40 @@ import com.myproject.dto.response.ImageSavedResponse;
 import com.myproject.dto.response.ResponseMessage;
 import com.myproject.dto.response.SfResponse;
 import com.myproject.service.ImageFileService;
+import com.myproject.streaming.JsonStreamWriter;
+import org.springframework.core.io.InputStreamResource;
+import org.springframework.core.io.Resource;
+import org.springframework.http.CacheControl;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.InvalidMediaTypeException;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
 
+import java.io.IOException;
 import java.net.http.HttpResponse;
-import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
 
 @RestController
 @RequestMapping("/files")
 public class ImageFileController {
 
     private final ImageFileService imageFileService;
+    private final JsonStreamWriter jsonStreamWriter;
 
+    private static final String IMAGE_CACHE_CONTROL =
+            CacheControl.maxAge(365, TimeUnit.DAYS).cachePublic().getHeaderValue() + ", immutable";
 
-    public ImageFileController(ImageFileService imageFileService) {
+
+    public ImageFileController(ImageFileService imageFileService, JsonStreamWriter jsonStreamWriter) {
         this.imageFileService = imageFileService;
+        this.jsonStreamWriter = jsonStreamWriter;
     }
 
     // upload
@@ -40,32 +54,64 @@ public class ImageFileController {
     }
 
     // Download
+    // Range (206 Partial Content, multipart/byteranges) istekleri Resource body üzerinden
+    // Spring tarafından isleniyor, dosyanın sadece istenen aralıgı okunuyor
     @GetMapping("/download/{id}")
-    public ResponseEntity<byte[]> downloadFile(@PathVariable String id) {
+    public ResponseEntity<Resource> downloadFile(@PathVariable String id,
+                                                 @RequestHeader HttpHeaders requestHeaders) throws IOException {
+        String eTag = imageETag(id);
+        if (isNotModified(requestHeaders, eTag, false)) {
+            return notModified(eTag);
+        }
+
         ImageFile imageFile = imageFileService.getImageById(id);
+        // "If-None-Match: *" sadece resim varsa eslesiyor, yoksa yukarıdaki cagrı 404 dönüyor
+        if (isNotModified(requestHeaders, eTag, true)) {
+            return notModified(eTag);
+        }
+        Resource resource = imageFileService.getImageResource(imageFile);
+        HttpHeaders header = new HttpHeaders();
+        header.set(HttpHeaders.CONTENT_DISPOSITION, "attachment;filename=" + imageFile.getName());
+        header.setContentType(MediaType.APPLICATION_OCTET_STREAM);
 
-        return ResponseEntity.ok().
-                header(HttpHeaders.CONTENT_DISPOSITION, "attachment;filename=" + imageFile.getName()).
-                body(imageFile.getImageData().getData());
+        return imageResponse(imageFile, resource, eTag, requestHeaders, header);
     }
 
     // Image Display
+    // resimler yüklendikten sonra degismiyor : id'den üretilen ETag ile client/CDN kopyası
+    // gecerliyse DB'ye hic gitmeden 304 dönülüyor
     @GetMapping("/display/{id}")
-    public ResponseEntity<byte[]> displayFile(@PathVariable String id) {
+    public ResponseEntity<Resource> displayFile(@PathVariable String id,
+                                                @RequestHeader HttpHeaders requestHeaders) throws IOException {
+        String eTag = imageETag(id);
+        if (isNotModified(requestHeaders, eTag, false)) {
+            return notModified(eTag);
+        }
+
         ImageFile imageFile = imageFileService.getImageById(id);
+        // "If-None-Match: *" sadece resim varsa eslesiyor, yoksa yukarıdaki cagrı 404 dönüyor
+        if (isNotModified(requestHeaders, eTag, true)) {
+            return notModified(eTag);
+        }
+        Resource resource = imageFileService.getImageResource(imageFile);
         HttpHeaders header = new HttpHeaders();
-        header.setContentType(MediaType.IMAGE_PNG);
+        header.setContentType(imageMediaType(imageFile));
 
-        return new ResponseEntity<>(imageFile.getImageData().getData(), header, HttpStatus.OK);
+        return imageResponse(imageFile, resource, eTag, requestHeaders, header);
 
     }
 
     // GetAllImages
     @GetMapping
     @PreAuthorize("hasRole('ADMIN')")
-    public ResponseEntity<List<ImageFileDTO>> getAllImages(){
-        List<ImageFileDTO> allImageDTO = imageFileService.getAllImages();
-        return ResponseEntity.ok(allImageDTO);
+    public ResponseEntity<StreamingResponseBody> getAllImages(@RequestHeader(value = HttpHeaders.ACCEPT, required = false) String accept){
+        // request'e baglı URL burada olusturuluyor: localhost:8080/files/download/
+        String downloadUrl = ServletUriComponentsBuilder.
+                fromCurrentContextPath().
+                path("/files/download/").
+                toUriString();
+        return jsonStreamWriter.stream(accept,
+                (Consumer<ImageFileDTO> consumer) -> imageFileService.streamAllImages(downloadUrl, consumer));
     }
 
     // Delete Image
@@ -77,6 +123,59 @@ public class ImageFileController {
         return ResponseEntity.ok(response);
     }
 
+    private static ResponseEntity<Resource> notModified(String eTag) {
+        return ResponseEntity.status(HttpStatus.NOT_MODIFIED).
+                eTag(eTag).
+                header(HttpHeaders.CACHE_CONTROL, IMAGE_CACHE_CONTROL).
+                build();
+    }
+
+    private static ResponseEntity<Resource> imageResponse(ImageFile imageFile, Resource resource, String eTag,
+                                                          HttpHeaders requestHeaders, HttpHeaders header)
+            throws IOException {
+        header.setETag(eTag);
+        header.set(HttpHeaders.CACHE_CONTROL, IMAGE_CACHE_CONTROL);
+        header.set(HttpHeaders.ACCEPT_RANGES, "bytes");
+
+        // If-Range bizim ETag'imiz degilse Range yok sayılıp dosyanın tamamı gönderilmeli.
+        // InputStreamResource Spring'in otomatik range islemesine girmiyor.
+        if (requestHeaders.getFirst(HttpHeaders.RANGE) != null && !isRangeValid(requestHeaders, eTag)) {
+            header.setContentLength(imageFile.getLength());
+            return new ResponseEntity<>(new InputStreamResource(resource.getInputStream()), header, HttpStatus.OK);
+        }
+        return new ResponseEntity<>(resource, header, HttpStatus.OK);
+    }
+
+    private static boolean isRangeValid(HttpHeaders requestHeaders, String eTag) {
+        String ifRange = requestHeaders.getFirst(HttpHeaders.IF_RANGE);
+        // If-Range sadece strong ETag ile karsılastırılıyor, tarih gelirse tam icerik dönülüyor
+        return ifRange == null || ifRange.equals(eTag);
+    }
+
+    private static String imageETag(String id) {
+        return "\"" + id + "\"";
+    }
 
+    // exists : kaydın var oldugu dogrulandı mı ("*" herhangi bir mevcut temsil ile eslesir)
+    private static boolean isNotModified(HttpHeaders requestHeaders, String eTag, boolean exists) {
+        for (String candidate : requestHeaders.getIfNoneMatch()) {
+            // W/ (weak) ön eki GET icin karsılastırmada dikkate alınmıyor
+            String tag = candidate.startsWith("W/") ? candidate.substring(2) : candidate;
+            if ((exists && tag.equals("*")) || tag.equals(eTag)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    // yüklenirken kaydedilen content type kullanılıyor
+    private static MediaType imageMediaType(ImageFile imageFile) {
+        try {
+            return imageFile.getType() == null ?
+                    MediaType.APPLICATION_OCTET_STREAM : MediaType.parseMediaType(imageFile.getType());
+        } catch (InvalidMediaTypeException e) {
+            return MediaType.APPLICATION_OCTET_STREAM;
+        }
+    }
 
 }
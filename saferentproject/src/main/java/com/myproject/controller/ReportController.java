@@ -1,34 +1,60 @@
 package com.myproject.controller;
 
+import com.myproject.dto.request.ReservationReportFilter;
+import com.myproject.dto.response.ReportJobResponse;
+import com.myproject.report.ReportJob;
+import com.myproject.report.ReportType;
+import com.myproject.service.ReportJobService;
 import com.myproject.service.ReportService;
-import org.springframework.core.io.InputStreamResource;
+import org.springframework.core.io.FileSystemResource;
 import org.springframework.core.io.Resource;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
-import java.io.ByteArrayInputStream;
+import javax.servlet.http.HttpServletRequest;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
 
 @RestController
 @RequestMapping("/excel")
 public class ReportController {
 
+    // Tomcat NIO connector'ün sendfile destegi icin request attribute'ları
+    private static final String SENDFILE_SUPPORT = "org.apache.tomcat.sendfile.support";
+    private static final String SENDFILE_FILENAME = "org.apache.tomcat.sendfile.filename";
+    private static final String SENDFILE_START = "org.apache.tomcat.sendfile.start";
+    private static final String SENDFILE_END = "org.apache.tomcat.sendfile.end";
+
+    private static final String WATERMARK_HEADER = "X-Report-Watermark";
+    private static final DateTimeFormatter WATERMARK_FORMAT = DateTimeFormatter.ofPattern("MM/dd/yyyy HH:mm:ss");
+
     private final ReportService reportService;
 
-    public ReportController(ReportService reportService) {
+    private final ReportJobService reportJobService;
+
+    public ReportController(ReportService reportService, ReportJobService reportJobService) {
         this.reportService = reportService;
+        this.reportJobService = reportJobService;
     }
 
+    // raporlar bellekte biriktirilmeden dogrudan response output stream'ine yazılıyor
+
     @GetMapping("/download/users")
     @PreAuthorize("hasRole('ADMIN')")
-    public ResponseEntity<Resource> getUserReport() {
+    public ResponseEntity<StreamingResponseBody> getUserReport() {
         String fileName = "users.xlsx";
-        ByteArrayInputStream bais = reportService.getUserReport();
-        InputStreamResource file = new InputStreamResource(bais);
+        StreamingResponseBody file = reportService::writeUserReport;
 
         return ResponseEntity.ok().
                 header(HttpHeaders.CONTENT_DISPOSITION, "attachment;filename=" + fileName).
@@ -39,10 +65,9 @@ public class ReportController {
     // ************* CAR_REPORT ************************
     @GetMapping("/download/cars")
     @PreAuthorize("hasRole('ADMIN')")
-    public ResponseEntity<Resource> getCarReport(){
+    public ResponseEntity<StreamingResponseBody> getCarReport(){
         String fileName = "cars.xlsx";
-        ByteArrayInputStream bais = reportService.getCarReport();
-        InputStreamResource file = new InputStreamResource(bais);
+        StreamingResponseBody file = reportService::writeCarReport;
 
         return ResponseEntity.ok().
                 header(HttpHeaders.CONTENT_DISPOSITION, "attachment;filename=" + fileName).
@@ -52,12 +77,14 @@ public class ReportController {
     }
 
     //****************** RESERVATION_REPORT*********************
+    // filtreler (from, to, status, carId, userId) query parametresi olarak veriliyor, verilmeyen filtre uygulanmıyor
+    // ör: /excel/download/reservations?from=01/01/2023 00:00:00&to=02/01/2023 00:00:00&status=DONE&carId=3
     @GetMapping("/download/reservations")
     @PreAuthorize("hasRole('ADMIN')")
-    public ResponseEntity<Resource> getReservationReport() {
+    public ResponseEntity<StreamingResponseBody> getReservationReport(ReservationReportFilter filter) {
+        reportService.checkReservationFilter(filter);
         String fileName = "reservations.xlsx";
-        ByteArrayInputStream bais = reportService.getReservationReport();
-        InputStreamResource file = new InputStreamResource(bais);
+        StreamingResponseBody file = out -> reportService.writeReservationReport(filter, out);
 
         return ResponseEntity.ok().
                 header(HttpHeaders.CONTENT_DISPOSITION, "attachment;filename=" + fileName).
@@ -65,6 +92,85 @@ public class ReportController {
                 body(file);
     }
 
+    // artımlı export: since'ten sonra eklenen/güncellenen rezervasyonlar.
+    // Dönen X-Report-Watermark header'ı bir sonraki cagrıda since olarak gönderiliyor (ilk cagrıda since verilmez)
+    @GetMapping("/download/reservations/changes")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<StreamingResponseBody> getReservationChanges(
+            @RequestParam(value = "since", required = false)
+                @DateTimeFormat(pattern = "MM/dd/yyyy HH:mm:ss") LocalDateTime since,
+            ReservationReportFilter filter) {
+        reportService.checkReservationFilter(filter);
+        LocalDateTime watermark = reportService.currentWatermark();
+        filter.setChangeWindow(since, watermark);
+        String fileName = "reservation-changes.xlsx";
+        StreamingResponseBody file = out -> reportService.writeReservationReport(filter, out);
+
+        return ResponseEntity.ok().
+                header(HttpHeaders.CONTENT_DISPOSITION, "attachment;filename=" + fileName).
+                header(WATERMARK_HEADER, WATERMARK_FORMAT.format(watermark)).
+                contentType(MediaType.parseMediaType("application/vmd.ms-excel")).
+                body(file);
+    }
+
+    //****************** ASYNC REPORT JOBS *********************
+    // rapor arka planda olusturuluyor, dönen id ile durum sorgulanıp hazır olunca indiriliyor
+    @PostMapping("/jobs/users")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<ReportJobResponse> submitUserReport() {
+        return new ResponseEntity<>(reportJobService.submit(ReportType.USERS, null), HttpStatus.ACCEPTED);
+    }
+
+    @PostMapping("/jobs/cars")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<ReportJobResponse> submitCarReport() {
+        return new ResponseEntity<>(reportJobService.submit(ReportType.CARS, null), HttpStatus.ACCEPTED);
+    }
+
+    @PostMapping("/jobs/reservations")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<ReportJobResponse> submitReservationReport(ReservationReportFilter filter) {
+        reportService.checkReservationFilter(filter);
+        return new ResponseEntity<>(reportJobService.submit(ReportType.RESERVATIONS, filter), HttpStatus.ACCEPTED);
+    }
+
+    // cevaptaki watermark bir sonraki artımlı export'ta since olarak gönderiliyor
+    @PostMapping("/jobs/reservations/changes")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<ReportJobResponse> submitReservationChanges(
+            @RequestParam(value = "since", required = false)
+                @DateTimeFormat(pattern = "MM/dd/yyyy HH:mm:ss") LocalDateTime since,
+            ReservationReportFilter filter) {
+        reportService.checkReservationFilter(filter);
+        filter.setChangeWindow(since, reportService.currentWatermark());
+        return new ResponseEntity<>(reportJobService.submit(ReportType.RESERVATIONS, filter), HttpStatus.ACCEPTED);
+    }
 
+    @GetMapping("/jobs/{id}")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<ReportJobResponse> getReportJob(@PathVariable String id) {
+        return ResponseEntity.ok(reportJobService.getJobStatus(id));
+    }
+
+    // dosya destekleniyorsa Tomcat'e sendfile ile gönderiliyor (icerik JVM'e okunmadan kernel'den socket'e kopyalanır),
+    // desteklenmiyorsa Resource olarak stream ediliyor
+    @GetMapping("/jobs/{id}/download")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<Resource> downloadReport(@PathVariable String id, HttpServletRequest request) {
+        ReportJob job = reportJobService.getFinishedJob(id);
+
+        HttpHeaders headers = new HttpHeaders();
+        headers.set(HttpHeaders.CONTENT_DISPOSITION, "attachment;filename=" + job.getType().getFileName());
+        headers.setContentType(MediaType.parseMediaType("application/vmd.ms-excel"));
+        headers.setContentLength(job.getFileSize());
+
+        if (Boolean.TRUE.equals(request.getAttribute(SENDFILE_SUPPORT))) {
+            request.setAttribute(SENDFILE_FILENAME, job.getFile().toString());
+            request.setAttribute(SENDFILE_START, 0L);
+            request.setAttribute(SENDFILE_END, job.getFileSize());
+            return ResponseEntity.ok().headers(headers).build();
+        }
+        return ResponseEntity.ok().headers(headers).body(new FileSystemResource(job.getFile()));
+    }
 
 }
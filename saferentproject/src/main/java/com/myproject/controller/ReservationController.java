@@ -4,27 +4,41 @@ package com.myproject.controller;
 import com.myproject.domain.Car;
 import com.myproject.domain.User;
 import com.myproject.dto.ReservationDTO;
+import com.myproject.dto.request.ReservationBatchItemRequest;
+import com.myproject.dto.request.ReservationBatchRequest;
 import com.myproject.dto.request.ReservationRequest;
 import com.myproject.dto.request.ReservationUpdateRequest;
 import com.myproject.dto.response.CarAvailabilityResponse;
+import com.myproject.dto.response.CarCalendarResponse;
+import com.myproject.dto.response.KeysetPage;
+import com.myproject.dto.response.ReservationBatchItemResponse;
+import com.myproject.dto.response.ReservationBatchResponse;
 import com.myproject.dto.response.ResponseMessage;
 import com.myproject.dto.response.SfResponse;
+import com.myproject.pagination.KeysetCursor;
 import com.myproject.service.CarService;
 import com.myproject.service.ReservationService;
 import com.myproject.service.UserService;
+import com.myproject.streaming.JsonStreamWriter;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.domain.Sort;
 import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
 import javax.validation.Valid;
 import java.time.LocalDateTime;
-import java.util.List;
 
 @RestController
 @RequestMapping("/reservations")
@@ -33,11 +47,14 @@ public class ReservationController {
     private final ReservationService reservationService;
     private final CarService carService;
     private final UserService userService;
+    private final JsonStreamWriter jsonStreamWriter;
 
-    public ReservationController(ReservationService reservationService, CarService carService, UserService userService) {
+    public ReservationController(ReservationService reservationService, CarService carService, UserService userService,
+                                 JsonStreamWriter jsonStreamWriter) {
         this.reservationService = reservationService;
         this.carService = carService;
         this.userService = userService;
+        this.jsonStreamWriter = jsonStreamWriter;
     }
 
     // make reservation
@@ -71,30 +88,67 @@ public class ReservationController {
         return new ResponseEntity<>(response, HttpStatus.CREATED);
     }
 
+    // toplu rezervasyon (kendi adına)
+    @PostMapping("/add/batch")
+    @PreAuthorize("hasRole('ADMIN') or hasRole('CUSTOMER')")
+    public ResponseEntity<ReservationBatchResponse> makeReservations(
+            @Valid @RequestBody ReservationBatchRequest reservationBatchRequest) {
+        User user = userService.getCurrentUser();
+        return createReservations(reservationBatchRequest, user);
+    }
+
+    // AdminMakeReservations (kurumsal müsteri adına toplu rezervasyon)
+    @PostMapping("/add/auth/batch")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<ReservationBatchResponse> addReservations(
+            @RequestParam("userId") Long userId,
+            @Valid @RequestBody ReservationBatchRequest reservationBatchRequest) {
+        User user = userService.getById(userId);
+        return createReservations(reservationBatchRequest, user);
+    }
+
     // getAllReservation
+    // JSON array olarak, Accept: application/x-ndjson ise satır satır stream ediliyor
     @GetMapping("/admin/all")
     @PreAuthorize("hasRole('ADMIN')")
-    public ResponseEntity<List<ReservationDTO>> getAllReservations() {
-        List<ReservationDTO> allReservations = reservationService.getAllReservations();
-        return ResponseEntity.ok(allReservations);
+    public ResponseEntity<StreamingResponseBody> getAllReservations(@RequestHeader(value = HttpHeaders.ACCEPT, required = false) String accept) {
+        return jsonStreamWriter.stream(accept, reservationService::streamAllReservations);
     }
 
     // getAllReservationsWithPage
     @GetMapping("/admin/all/pages")
     @PreAuthorize("hasRole('ADMIN')")
-    public ResponseEntity<Page<ReservationDTO>> getAllReservationsWithPage(
+    public ResponseEntity<Slice<ReservationDTO>> getAllReservationsWithPage(
             @RequestParam("page") int page,
             @RequestParam("size") int size,
             @RequestParam("sort") String prop,//neye göre sıralanacağı belirtiliyor
             @RequestParam(value = "direction",
                     required = false, // direction required olmasın
-                    defaultValue = "DESC") Sort.Direction direction) {
+                    defaultValue = "DESC") Sort.Direction direction,
+            @RequestParam(value = "count",
+                    required = false,
+                    defaultValue = "true") boolean count) { // false ise toplam sayı hesaplanmıyor
         Pageable pageable = PageRequest.of(page, size, Sort.by(direction, prop));
-        Page<ReservationDTO> allReservations = reservationService.getAllWithPage(pageable);
+        Slice<ReservationDTO> allReservations = count ?
+                reservationService.getAllWithPage(pageable) :
+                reservationService.getAllWithSlice(pageable);
 
         return ResponseEntity.ok(allReservations);
     }
 
+    // getAllReservationsWithCursor (keyset sayfalama)
+    @GetMapping("/admin/all/cursor")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<KeysetPage<ReservationDTO>> getAllReservationsWithCursor(
+            @RequestParam(value = "cursor", required = false) String cursor, // ilk sayfa icin gönderilmez
+            @RequestParam("size") int size,
+            @RequestParam(value = "direction",
+                    required = false,
+                    defaultValue = "DESC") Sort.Direction direction) {
+        KeysetPage<ReservationDTO> keysetPage = reservationService.getAllByCursor(KeysetCursor.decode(cursor, direction), size);
+        return ResponseEntity.ok(keysetPage);
+    }
+
     // CheckCarIsAvailable
     @GetMapping("/auth")
     @PreAuthorize("hasRole('ADMIN') or hasRole('CUSTOMER')")
@@ -117,6 +171,19 @@ public class ReservationController {
 
     }
 
+    // aracın bir aylık doluluk takvimi (gün basına saatlik doluluk), gün gün checkCarIsAvailable cagırmak yerine
+    // ör: /reservations/auth/calendar?carId=3&month=05/2023
+    @GetMapping("/auth/calendar")
+    @PreAuthorize("hasRole('ADMIN') or hasRole('CUSTOMER')")
+    public ResponseEntity<CarCalendarResponse> getCarCalendar(
+            @RequestParam("carId") Long carId,
+            @RequestParam("month") String month){ // MM/yyyy
+
+        Car car = carService.getCarById(carId);
+        CarCalendarResponse calendar = reservationService.getCarCalendar(car, month);
+        return ResponseEntity.ok(calendar);
+    }
+
     // update
     @PutMapping("/admin/auth")
     @PreAuthorize("hasRole('ADMIN')")
@@ -205,4 +272,21 @@ public class ReservationController {
 
 
 
+    private ResponseEntity<ReservationBatchResponse> createReservations(ReservationBatchRequest reservationBatchRequest,
+                                                                        User user) {
+        List<ReservationBatchItemRequest> items = reservationBatchRequest.getReservations();
+        Set<Long> carIds = items.stream().map(ReservationBatchItemRequest::getCarId).collect(Collectors.toSet());
+        Map<Long, Car> cars = carService.getCarsByIds(carIds);
+
+        List<ReservationBatchItemResponse> results =
+                reservationService.createReservations(items, user, cars, reservationBatchRequest.isAtomic());
+
+        int createdCount = (int) results.stream().filter(ReservationBatchItemResponse::isSuccess).count();
+        String message = String.format(ResponseMessage.RESERVATION_BATCH_CREATED_RESPONSE_MESSAGE, createdCount, items.size());
+        ReservationBatchResponse response = new ReservationBatchResponse(message, createdCount == items.size(), createdCount, results);
+
+        HttpStatus status = createdCount > 0 ? HttpStatus.CREATED : HttpStatus.BAD_REQUEST;
+        return new ResponseEntity<>(response, status);
+    }
+
 }
\ No newline at end of file
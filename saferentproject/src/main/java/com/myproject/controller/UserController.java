@@ -4,38 +4,46 @@ import com.myproject.dto.UserDTO;
 import com.myproject.dto.request.AdminUserUpdateRequest;
 import com.myproject.dto.request.UpdatePasswordRequest;
 import com.myproject.dto.request.UserUpdateRequest;
+import com.myproject.dto.response.ImportResponse;
+import com.myproject.dto.response.KeysetPage;
 import com.myproject.dto.response.ResponseMessage;
 import com.myproject.dto.response.SfResponse;
+import com.myproject.pagination.KeysetCursor;
 import com.myproject.service.UserService;
-import org.springframework.data.domain.Page;
+import com.myproject.streaming.JsonStreamWriter;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.domain.Sort;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import javax.validation.Valid;
-import java.util.List;
 
 @RestController
 @RequestMapping("/user")
 public class UserController {
 
     private final UserService userService;
+    private final JsonStreamWriter jsonStreamWriter;
 
 
 
-    public UserController(UserService userService) {
+    public UserController(UserService userService, JsonStreamWriter jsonStreamWriter) {
         this.userService = userService;
+        this.jsonStreamWriter = jsonStreamWriter;
     }
 
     // getAllUser
+    // JSON array olarak, Accept: application/x-ndjson ise satır satır stream ediliyor
     @GetMapping("/auth/all")
     @PreAuthorize("hasRole('ADMIN')")
-    public ResponseEntity<List<UserDTO>> getAllUsers(){
-        List<UserDTO> allUsers = userService.getAllUsers();
-        return ResponseEntity.ok(allUsers);
+    public ResponseEntity<StreamingResponseBody> getAllUsers(@RequestHeader(value = HttpHeaders.ACCEPT, required = false) String accept){
+        return jsonStreamWriter.stream(accept, userService::streamAllUsers);
     }
 
     // sisteme giriş yapan kullanıcının bilgisi
@@ -49,19 +57,35 @@ public class UserController {
     // getAllUserWithPath
     @GetMapping("/auth/pages")
     @PreAuthorize("hasRole('ADMIN')")
-    public ResponseEntity<Page<UserDTO>> getAllUsersByPage(
+    public ResponseEntity<Slice<UserDTO>> getAllUsersByPage(
             @RequestParam("page") int page,
             @RequestParam("size") int size,
             @RequestParam("sort") String prop, // neye göre sıralanacagını belirtiyoruz
             @RequestParam(value="direction",
                     required = false,
-                    defaultValue = "DESC") Sort.Direction direction) {
+                    defaultValue = "DESC") Sort.Direction direction,
+            @RequestParam(value = "count",
+                    required = false,
+                    defaultValue = "true") boolean count) { // false ise toplam sayı hesaplanmıyor
         Pageable pageable = PageRequest.of(page, size, Sort.by(direction, prop));
-        Page<UserDTO> userDTOPage = userService.getUserPage(pageable);
+        Slice<UserDTO> userDTOPage = count ? userService.getUserPage(pageable) : userService.getUserSlice(pageable);
 
         return ResponseEntity.ok(userDTOPage);
     }
 
+    // getAllUsersWithCursor (keyset sayfalama)
+    @GetMapping("/auth/cursor")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<KeysetPage<UserDTO>> getAllUsersByCursor(
+            @RequestParam(value = "cursor", required = false) String cursor, // ilk sayfa icin gönderilmez
+            @RequestParam("size") int size,
+            @RequestParam(value = "direction",
+                    required = false,
+                    defaultValue = "DESC") Sort.Direction direction) {
+        KeysetPage<UserDTO> keysetPage = userService.getUsersByCursor(KeysetCursor.decode(cursor, direction), size);
+        return ResponseEntity.ok(keysetPage);
+    }
+
     // getUserById
     @GetMapping("/{id}/auth")
     @PreAuthorize("hasRole('ADMIN')")
@@ -103,6 +127,14 @@ public class UserController {
         return ResponseEntity.ok(response);
     }
 
+    // CSV veya xlsx dosyasından toplu kullanıcı ekleme
+    @PostMapping("/auth/import")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<ImportResponse> importUsers(@RequestParam("file") MultipartFile file) {
+        ImportResponse response = userService.importUsers(file);
+        return ResponseEntity.ok(response);
+    }
+
     // delete user
     @DeleteMapping("/{id}/auth")
     @PreAuthorize("hasRole('ADMIN')")
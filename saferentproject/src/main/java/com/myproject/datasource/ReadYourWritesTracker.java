@@ -0,0 +1,50 @@
+package com.myproject.datasource;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.myproject.security.SecurityUtils;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Optional;
+
+public class ReadYourWritesTracker {
+
+    // Login olan kullanıcıların son commit edilen yazma zamanı.
+    // Kullanıcının okumaları, bu zamana kadar replay etmis bir replica yoksa primary'e gider
+    // (ör. yeni olusturulan rezervasyonun hemen ardından okunması).
+    // maxLag'den eski kayıtlara gerek yok: o kadar geride kalan replica zaten kullanılmıyor.
+
+    private final Cache<String, Instant> lastWrites;
+
+    public ReadYourWritesTracker(long maxLagMs, long maximumSize) {
+        this.lastWrites = Caffeine.newBuilder().
+                expireAfterWrite(Duration.ofMillis(maxLagMs)).
+                maximumSize(maximumSize).
+                build();
+    }
+
+    // yazma transaction'ı commit olursa kullanıcının son yazma zamanı güncellenir
+    void trackCurrentTransaction() {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            return;
+        }
+        Optional<String> login = SecurityUtils.getCurrentLogin();
+        if (!login.isPresent()) {
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                lastWrites.put(login.get(), Instant.now());
+            }
+        });
+    }
+
+    Instant lastWriteOfCurrentUser() {
+        return SecurityUtils.getCurrentLogin().map(lastWrites::getIfPresent).orElse(null);
+    }
+
+}
@@ -0,0 +1,47 @@
+package com.myproject.datasource;
+
+import lombok.Getter;
+
+import javax.sql.DataSource;
+import java.time.Instant;
+
+@Getter
+public class ReplicaDataSource {
+
+    // Bir replica'nın baglantı havuzu ve lag monitor'ün son ölctügü durum.
+    // replayedUpTo : replica'nın en az bu ana kadar primary'deki commit'leri uyguladıgı
+    // (ölcüm anı - gecikme). Henüz ölcülmemis veya erisilemeyen replica'ya okuma gönderilmez.
+
+    private final String name;
+
+    private final DataSource dataSource;
+
+    private volatile boolean available = false;
+
+    private volatile Instant replayedUpTo;
+
+    private volatile double lagMs = Double.NaN;
+
+    public ReplicaDataSource(String name, DataSource dataSource) {
+        this.name = name;
+        this.dataSource = dataSource;
+    }
+
+    void markLag(Instant measuredAt, long lagMs, long maxLagMs) {
+        this.replayedUpTo = measuredAt.minusMillis(lagMs);
+        this.lagMs = lagMs;
+        this.available = lagMs <= maxLagMs;
+    }
+
+    void markUnavailable() {
+        this.available = false;
+        this.lagMs = Double.NaN;
+    }
+
+    // lastWrite : okumayı yapan kullanıcının son yazma zamanı (yoksa null)
+    boolean canServe(Instant lastWrite) {
+        Instant replayed = replayedUpTo;
+        return available && (lastWrite == null || !replayed.isBefore(lastWrite));
+    }
+
+}
@@ -0,0 +1,95 @@
+package com.myproject.datasource;
+
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.metrics.micrometer.MicrometerMetricsTrackerFactory;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.util.ArrayList;
+import java.util.List;
+
+@Configuration
+@ConditionalOnProperty(name = "saferentproject.datasource.replicas[0].url")
+@EnableConfigurationProperties(ReplicaProperties.class)
+public class ReplicaDataSourceConfig {
+
+    // saferentproject.datasource.replicas tanımlıysa devreye girer, tanımlı degilse
+    // Spring Boot'un tek (primary) DataSource'u kullanılmaya devam eder.
+    // Replica havuzları primary'nin hikari ayarlarını kopyalayıp sadece url/kullanıcı/sifreyi degistirir.
+
+    @Bean
+    @ConfigurationProperties("spring.datasource.hikari")
+    public HikariDataSource primaryDataSource(DataSourceProperties dataSourceProperties) {
+        return dataSourceProperties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+    }
+
+    @Bean
+    public ReplicaRoutingDataSource replicaRoutingDataSource(HikariDataSource primaryDataSource,
+                                                             ReplicaProperties replicaProperties) {
+        List<ReplicaDataSource> replicas = new ArrayList<>();
+        for (int i = 0; i < replicaProperties.getReplicas().size(); i++) {
+            ReplicaProperties.Replica replica = replicaProperties.getReplicas().get(i);
+
+            // pool ilk baglantıda acılır, replica kapalıyken uygulama yine ayaga kalkar
+            HikariDataSource dataSource = new HikariDataSource();
+            primaryDataSource.copyStateTo(dataSource);
+            dataSource.setPoolName(primaryDataSource.getPoolName() + "-replica-" + i);
+            dataSource.setJdbcUrl(replica.getUrl());
+            dataSource.setUsername(replica.getUsername() == null ? primaryDataSource.getUsername() : replica.getUsername());
+            dataSource.setPassword(replica.getPassword() == null ? primaryDataSource.getPassword() : replica.getPassword());
+            dataSource.setReadOnly(true);
+            replicas.add(new ReplicaDataSource(dataSource.getPoolName(), dataSource));
+        }
+
+        ReadYourWritesTracker writeTracker = new ReadYourWritesTracker(replicaProperties.getMaxLagMs(), 100_000);
+        ReplicaRoutingDataSource routingDataSource = new ReplicaRoutingDataSource(primaryDataSource, replicas, writeTracker);
+        routingDataSource.afterPropertiesSet();
+        return routingDataSource;
+    }
+
+    // JPA transaction'ı baslarken connection istemesin, routing readOnly bilgisi set edildikten sonra yapılsın diye
+    @Bean
+    @Primary
+    public DataSource dataSource(ReplicaRoutingDataSource replicaRoutingDataSource) {
+        LazyConnectionDataSourceProxy dataSource = new LazyConnectionDataSourceProxy(replicaRoutingDataSource);
+        // varsayılanlar verilmezse proxy acılısta bunları ögrenmek icin DB'ye baglanır
+        dataSource.setDefaultAutoCommit(true);
+        dataSource.setDefaultTransactionIsolation(Connection.TRANSACTION_READ_COMMITTED);
+        return dataSource;
+    }
+
+    @Bean(destroyMethod = "shutdown")
+    public ReplicaLagMonitor replicaLagMonitor(ReplicaRoutingDataSource replicaRoutingDataSource,
+                                               ReplicaProperties replicaProperties) {
+        ReplicaLagMonitor monitor = new ReplicaLagMonitor(replicaRoutingDataSource.getReplicas(),
+                replicaProperties.getLagQuery(), replicaProperties.getMaxLagMs());
+        monitor.start(replicaProperties.getLagCheckIntervalMs());
+        return monitor;
+    }
+
+    // replica havuzları bean olmadıgı icin hikaricp.* metrikleri burada baglanıyor,
+    // MeterRegistry DataSource bean'lerine baglı oldugu icin olusturulurken verilemiyor
+    @Bean
+    public MeterBinder replicaMetrics(ReplicaRoutingDataSource replicaRoutingDataSource) {
+        return registry -> replicaRoutingDataSource.getReplicas().forEach(replica -> {
+            if (replica.getDataSource() instanceof HikariDataSource) {
+                ((HikariDataSource) replica.getDataSource()).setMetricsTrackerFactory(new MicrometerMetricsTrackerFactory(registry));
+            }
+            Gauge.builder("saferent.datasource.replica.lag", replica, ReplicaDataSource::getLagMs).
+                    tag("replica", replica.getName()).
+                    baseUnit("milliseconds").
+                    register(registry);
+        });
+    }
+
+}
@@ -0,0 +1,68 @@
+package com.myproject.datasource;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+public class ReplicaLagMonitor {
+
+    // Replica'ların gecikmesini belli aralıklarla ölcüp ReplicaDataSource'lara yazar.
+    // Sorgu hata verirse (replica kapalı, baglantı kurulamıyor) replica okumalardan cıkarılır,
+    // sonraki basarılı ölcümde tekrar devreye girer.
+
+    private static final Logger logger = LoggerFactory.getLogger(ReplicaLagMonitor.class);
+
+    private final List<ReplicaDataSource> replicas;
+
+    private final String lagQuery;
+
+    private final long maxLagMs;
+
+    private final ScheduledExecutorService scheduler;
+
+    public ReplicaLagMonitor(List<ReplicaDataSource> replicas, String lagQuery, long maxLagMs) {
+        this.replicas = replicas;
+        this.lagQuery = lagQuery;
+        this.maxLagMs = maxLagMs;
+        CustomizableThreadFactory threadFactory = new CustomizableThreadFactory("replica-lag-");
+        threadFactory.setDaemon(true);
+        this.scheduler = Executors.newSingleThreadScheduledExecutor(threadFactory);
+    }
+
+    public void start(long intervalMs) {
+        scheduler.scheduleWithFixedDelay(this::checkAll, 0, intervalMs, TimeUnit.MILLISECONDS);
+    }
+
+    public void shutdown() {
+        scheduler.shutdownNow();
+    }
+
+    public void checkAll() {
+        replicas.forEach(this::check);
+    }
+
+    void check(ReplicaDataSource replica) {
+        Instant measuredAt = Instant.now();
+        try {
+            Long lagMs = new JdbcTemplate(replica.getDataSource()).queryForObject(lagQuery, Long.class);
+            boolean wasAvailable = replica.isAvailable();
+            replica.markLag(measuredAt, lagMs == null ? 0 : Math.max(lagMs, 0), maxLagMs);
+            if (wasAvailable && !replica.isAvailable()) {
+                logger.warn("Replica {} is {} ms behind, reads are routed to primary", replica.getName(), lagMs);
+            }
+        } catch (RuntimeException e) {
+            if (replica.isAvailable()) {
+                logger.warn("Replica {} is unreachable, reads are routed to primary: {}", replica.getName(), e.getMessage());
+            }
+            replica.markUnavailable();
+        }
+    }
+
+}
@@ -0,0 +1,41 @@
+package com.myproject.datasource;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "saferentproject.datasource")
+public class ReplicaProperties {
+
+    // pg standby'da replay edilmemis WAL yoksa gecikme 0, varsa son replay edilen transaction'ın yası (ms)
+    public static final String POSTGRES_LAG_QUERY =
+            "select coalesce(case when pg_last_wal_receive_lsn() = pg_last_wal_replay_lsn() then 0 " +
+            "else (extract(epoch from now() - pg_last_xact_replay_timestamp()) * 1000)::bigint end, 0)";
+
+    private List<Replica> replicas = new ArrayList<>();
+
+    // bu süreden fazla geride kalan replica'ya okuma gönderilmez
+    private long maxLagMs = 5000;
+
+    private long lagCheckIntervalMs = 1000;
+
+    private String lagQuery = POSTGRES_LAG_QUERY;
+
+    @Getter
+    @Setter
+    public static class Replica {
+
+        private String url;
+
+        private String username;
+
+        private String password;
+
+    }
+
+}
@@ -0,0 +1,75 @@
+package com.myproject.datasource;
+
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.io.Closeable;
+import java.io.IOException;
+import java.time.Instant;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+public class ReplicaRoutingDataSource extends AbstractRoutingDataSource implements Closeable {
+
+    // @Transactional(readOnly = true) calısan okumalar sırayla uygun replica'lara,
+    // diger her sey (yazmalar, transaction dısı sorgular, flyway) primary'e gider.
+    // Connection transaction baslarken degil ilk sorguda alınmalı, yoksa readOnly bilgisi
+    // henüz set edilmemis olur; bu yüzden LazyConnectionDataSourceProxy ile sarılarak kullanılıyor.
+
+    static final String PRIMARY = "primary";
+
+    private final List<ReplicaDataSource> replicas;
+
+    private final ReadYourWritesTracker writeTracker;
+
+    private final AtomicInteger next = new AtomicInteger();
+
+    public ReplicaRoutingDataSource(DataSource primary, List<ReplicaDataSource> replicas, ReadYourWritesTracker writeTracker) {
+        this.replicas = replicas;
+        this.writeTracker = writeTracker;
+
+        Map<Object, Object> targets = new HashMap<>();
+        targets.put(PRIMARY, primary);
+        replicas.forEach(replica -> targets.put(replica.getName(), replica.getDataSource()));
+        setTargetDataSources(targets);
+        setDefaultTargetDataSource(primary);
+        setLenientFallback(false);
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        if (!TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            writeTracker.trackCurrentTransaction();
+            return PRIMARY;
+        }
+
+        Instant lastWrite = writeTracker.lastWriteOfCurrentUser();
+        int start = Math.floorMod(next.getAndIncrement(), replicas.size());
+        for (int i = 0; i < replicas.size(); i++) {
+            ReplicaDataSource replica = replicas.get((start + i) % replicas.size());
+            if (replica.canServe(lastWrite)) {
+                return replica.getName();
+            }
+        }
+        // uygun replica yoksa (gecikmeli, erisilemiyor veya kullanıcının son yazmasını henüz almamıs)
+        return PRIMARY;
+    }
+
+    public List<ReplicaDataSource> getReplicas() {
+        return replicas;
+    }
+
+    // primary havuzu ayrı bir bean, sadece replica havuzları kapatılıyor
+    @Override
+    public void close() throws IOException {
+        for (ReplicaDataSource replica : replicas) {
+            if (replica.getDataSource() instanceof Closeable) {
+                ((Closeable) replica.getDataSource()).close();
+            }
+        }
+    }
+
+}
@@ -0,0 +1,29 @@
+package com.myproject.domain;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import javax.persistence.*;
+
+@Getter
+@Setter
+@AllArgsConstructor
+@NoArgsConstructor
+
+@Entity
+@Table(name="t_cache_invalidation")
+public class CacheInvalidation {
+
+    // Cache'in herhangi bir node'da temizlendigi her seferde version bir artıyor
+    // (bkz. CacheInvalidationBus)
+
+    @Id
+    @Column(length = 64)
+    private String cacheName;
+
+    @Column(nullable = false)
+    private long version;
+
+}
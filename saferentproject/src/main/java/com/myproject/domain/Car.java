@@ -1,9 +1,14 @@
 package com.myproject.domain;
 
+import com.myproject.config.PooledSequenceGenerator;
 import lombok.AllArgsConstructor;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
+import org.hibernate.annotations.BatchSize;
+import org.hibernate.annotations.GenericGenerator;
+import org.hibernate.annotations.Parameter;
+import org.hibernate.id.enhanced.SequenceStyleGenerator;
 
 import javax.persistence.*;
 import java.util.Set;
@@ -18,8 +23,11 @@ import java.util.Set;
 public class Car {
 
 
+    // batch insert icin sequence (bkz. PooledSequenceGenerator)
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(generator = "car_seq")
+    @GenericGenerator(name = "car_seq", strategy = PooledSequenceGenerator.STRATEGY,
+                      parameters = @Parameter(name = SequenceStyleGenerator.SEQUENCE_PARAM, value = "t_car_seq"))
     private Long id;
     @Column(length = 30,nullable = false)
     private String model;
@@ -43,6 +51,7 @@ public class Car {
     private Boolean builtIn = false;
     @OneToMany(orphanRemoval = true)
     @JoinColumn(name="car_id")
+    @BatchSize(size = 100) // sayfalı okumalarda resimler topluca yükleniyor
     private Set<ImageFile> image;
 
     
@@ -1,6 +1,10 @@
 package com.myproject.domain;
 
+import com.myproject.config.PooledSequenceGenerator;
 import lombok.*;
+import org.hibernate.annotations.GenericGenerator;
+import org.hibernate.annotations.Parameter;
+import org.hibernate.id.enhanced.SequenceStyleGenerator;
 
 import javax.persistence.*;
 import javax.validation.constraints.Email;
@@ -19,8 +23,11 @@ public class ContactMessage {
 
 
 
+    // batch insert icin sequence (bkz. PooledSequenceGenerator)
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(generator = "cmessage_seq")
+    @GenericGenerator(name = "cmessage_seq", strategy = PooledSequenceGenerator.STRATEGY,
+                      parameters = @Parameter(name = SequenceStyleGenerator.SEQUENCE_PARAM, value = "tbl_cmessage_seq"))
     @Setter(AccessLevel.NONE)
     private Long id;
 
@@ -1,9 +1,13 @@
 package com.myproject.domain;
 
+import com.myproject.config.PooledSequenceGenerator;
 import lombok.AllArgsConstructor;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
+import org.hibernate.annotations.GenericGenerator;
+import org.hibernate.annotations.Parameter;
+import org.hibernate.id.enhanced.SequenceStyleGenerator;
 
 import javax.persistence.*;
 
@@ -17,8 +21,11 @@ import javax.persistence.*;
 public class ImageData {
 
 
+    // batch insert icin sequence (bkz. PooledSequenceGenerator)
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(generator = "imagedata_seq")
+    @GenericGenerator(name = "imagedata_seq", strategy = PooledSequenceGenerator.STRATEGY,
+                      parameters = @Parameter(name = SequenceStyleGenerator.SEQUENCE_PARAM, value = "t_imagedata_seq"))
     private Long id;
 
 
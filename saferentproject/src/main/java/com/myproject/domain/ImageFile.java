@@ -24,14 +24,18 @@ public class ImageFile {
     private String name;
     private String type;
     private long length;
-    @OneToOne(cascade = CascadeType.ALL)
+    // resmin icerigi BlobStore'da bu hash ile saklanıyor
+    @Column(length = 64)
+    private String contentHash;
+    // !!! eski kayıtlar icin, ilk okumada BlobStore'a tasınıp siliniyor
+    @OneToOne(cascade = CascadeType.ALL, orphanRemoval = true, fetch = FetchType.LAZY)
     private ImageData imageData;
 
-    public ImageFile(String name,String type,ImageData imageData){
+    public ImageFile(String name,String type,String contentHash,long length){
         this.name=name;
         this.type=type;
-        this.imageData=imageData;
-        this.length=imageData.getData().length;
+        this.contentHash=contentHash;
+        this.length=length;
     }
 
 }
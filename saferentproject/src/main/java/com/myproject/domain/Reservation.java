@@ -1,10 +1,16 @@
 package com.myproject.domain;
 
+import com.myproject.config.PooledSequenceGenerator;
 import com.myproject.domain.enums.ReservationStatus;
 import lombok.AllArgsConstructor;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
+import org.hibernate.annotations.CreationTimestamp;
+import org.hibernate.annotations.GenericGenerator;
+import org.hibernate.annotations.Parameter;
+import org.hibernate.annotations.UpdateTimestamp;
+import org.hibernate.id.enhanced.SequenceStyleGenerator;
 
 import javax.persistence.*;
 import java.time.LocalDateTime;
@@ -18,8 +24,11 @@ import java.time.LocalDateTime;
 @Table(name="t_reservation")
 public class Reservation {
 
+    // batch insert icin sequence (bkz. PooledSequenceGenerator)
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(generator = "reservation_seq")
+    @GenericGenerator(name = "reservation_seq", strategy = PooledSequenceGenerator.STRATEGY,
+                      parameters = @Parameter(name = SequenceStyleGenerator.SEQUENCE_PARAM, value = "t_reservation_seq"))
     private Long id;
 
     @OneToOne
@@ -50,6 +59,15 @@ public class Reservation {
     @Column(nullable = false)
     private Double totalPrice;
 
+    // V3'ten önceki kayıtlarda gercek zaman bilinmiyor, null (analytics lead time'a sayılmıyor)
+    @CreationTimestamp
+    @Column(updatable = false)
+    private LocalDateTime createdAt;
+
+    // her güncellemede degisiyor, artımlı (watermark) rapor export'u bu kolona göre yapılıyor
+    @UpdateTimestamp
+    @Column(nullable = false)
+    private LocalDateTime updatedAt;
 
 
 
@@ -0,0 +1,92 @@
+package com.myproject.domain;
+
+import com.myproject.analytics.ReservationStatSample;
+import com.myproject.domain.enums.ReservationStatus;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import javax.persistence.*;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+@Getter
+@Setter
+@NoArgsConstructor
+
+@Entity
+@Table(name="t_reservation_daily_stat")
+@IdClass(ReservationDailyStatId.class)
+public class ReservationDailyStat {
+
+    // Rezervasyonların arac ve gün bazında özeti (analytics raporları bu tablodan okunuyor).
+    // Sayılar, gelir ve lead time rezervasyonun pickUp gününe, kiralama süresi ise kapsadıgı her güne
+    // o güne düsen kısmı kadar yazılıyor.
+    // Satırlar rezervasyon yazan transaction'ın commit'inden hemen önce yeniden hesaplanıyor (bkz. ReservationStatRollup)
+
+    @Id
+    private LocalDate statDate;
+
+    @Id
+    private Long carId;
+
+    @Column(nullable = false)
+    private long reservationCount;
+
+    @Column(nullable = false)
+    private long canceledCount;
+
+    // iptal edilmeyen rezervasyonların toplam tutarı
+    @Column(nullable = false)
+    private double revenue;
+
+    // iptal edilmeyen rezervasyonların bu güne düsen kiralama süresi (dakika)
+    @Column(nullable = false)
+    private long rentedMinutes;
+
+    // rezervasyonun olusturulması ile pickUp arasındaki süre (dakika),
+    // olusturulma zamanı bilinmeyen eski kayıtlar leadTimeCount'a dahil edilmiyor
+    @Column(nullable = false)
+    private long leadTimeMinutes;
+
+    @Column(nullable = false)
+    private long leadTimeCount;
+
+    public ReservationDailyStat(LocalDate statDate, Long carId) {
+        this.statDate = statDate;
+        this.carId = carId;
+    }
+
+    // gün ile kesisen rezervasyonlar verilmeli
+    public void add(ReservationStatSample sample) {
+        if (sample.getStatus() != ReservationStatus.CANCELED) {
+            LocalDateTime dayStart = statDate.atStartOfDay();
+            LocalDateTime dayEnd = statDate.plusDays(1).atStartOfDay();
+            LocalDateTime from = sample.getPickUpTime().isAfter(dayStart) ? sample.getPickUpTime() : dayStart;
+            LocalDateTime to = sample.getDropOfTime().isBefore(dayEnd) ? sample.getDropOfTime() : dayEnd;
+            if (from.isBefore(to)) {
+                rentedMinutes += Duration.between(from, to).toMinutes();
+            }
+        }
+        if (!sample.getPickUpTime().toLocalDate().equals(statDate)) {
+            return;
+        }
+
+        reservationCount++;
+        if (sample.getStatus() == ReservationStatus.CANCELED) {
+            canceledCount++;
+        } else {
+            revenue += sample.getTotalPrice();
+        }
+        if (sample.getCreatedAt() != null && !sample.getCreatedAt().isAfter(sample.getPickUpTime())) {
+            leadTimeMinutes += Duration.between(sample.getCreatedAt(), sample.getPickUpTime()).toMinutes();
+            leadTimeCount++;
+        }
+    }
+
+    public boolean isEmpty() {
+        return reservationCount == 0 && rentedMinutes == 0;
+    }
+
+}
@@ -0,0 +1,21 @@
+package com.myproject.domain;
+
+import lombok.AllArgsConstructor;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+import java.io.Serializable;
+import java.time.LocalDate;
+
+@Getter
+@NoArgsConstructor
+@AllArgsConstructor
+@EqualsAndHashCode
+public class ReservationDailyStatId implements Serializable {
+
+    private LocalDate statDate;
+
+    private Long carId;
+
+}
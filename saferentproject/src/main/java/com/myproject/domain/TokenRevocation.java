@@ -0,0 +1,29 @@
+package com.myproject.domain;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import javax.persistence.*;
+
+@Getter
+@Setter
+@AllArgsConstructor
+@NoArgsConstructor
+
+@Entity
+@Table(name="t_token_revocation")
+public class TokenRevocation {
+
+    // Kullanıcının bu zamandan (epoch ms) önce üretilmiş token'ları revoke edilmiş sayılıyor
+    // (bkz. TokenRevocationList)
+
+    @Id
+    @Column(length = 80)
+    private String email;
+
+    @Column(nullable = false)
+    private long revokedAt;
+
+}
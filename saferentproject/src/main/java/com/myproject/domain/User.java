@@ -1,9 +1,14 @@
 package com.myproject.domain;
 
+import com.myproject.config.PooledSequenceGenerator;
 import lombok.AllArgsConstructor;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
+import org.hibernate.annotations.BatchSize;
+import org.hibernate.annotations.GenericGenerator;
+import org.hibernate.annotations.Parameter;
+import org.hibernate.id.enhanced.SequenceStyleGenerator;
 
 import javax.persistence.*;
 import java.util.HashSet;
@@ -18,8 +23,11 @@ import java.util.Set;
 @Table(name = "t_user")
 public class User {
 
+    // batch insert icin sequence (bkz. PooledSequenceGenerator)
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(generator = "user_seq")
+    @GenericGenerator(name = "user_seq", strategy = PooledSequenceGenerator.STRATEGY,
+                      parameters = @Parameter(name = SequenceStyleGenerator.SEQUENCE_PARAM, value = "t_user_seq"))
     private Long id;
 
     @Column(length = 50, nullable = false)
@@ -47,6 +55,7 @@ public class User {
     private Boolean builtIn = false;
 
     @ManyToMany
+    @BatchSize(size = 100)
     @JoinTable(name = "t_user_role",
                joinColumns = @JoinColumn(name = "user_id"),
                inverseJoinColumns = @JoinColumn(name = "role_id"))
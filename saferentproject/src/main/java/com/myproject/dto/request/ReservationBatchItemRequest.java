@@ -0,0 +1,18 @@
+package com.myproject.dto.request;
+
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import javax.validation.constraints.NotNull;
+
+@Getter
+@Setter
+@NoArgsConstructor
+public class ReservationBatchItemRequest extends ReservationRequest {
+
+    @NotNull(message="Please provide the car of the reservation")
+    private Long carId;
+
+
+}
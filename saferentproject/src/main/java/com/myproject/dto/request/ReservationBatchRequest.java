@@ -0,0 +1,29 @@
+package com.myproject.dto.request;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import javax.validation.Valid;
+import javax.validation.constraints.NotEmpty;
+import javax.validation.constraints.Size;
+import java.util.List;
+
+@Getter
+@Setter
+@AllArgsConstructor
+@NoArgsConstructor
+public class ReservationBatchRequest {
+
+    @Valid
+    @NotEmpty(message="Please provide at least one reservation")
+    @Size(max=500, message ="Batch can contain max 500 reservations")
+    private List<ReservationBatchItemRequest> reservations;
+
+    // true: bir kalem bile hatalıysa hicbir rezervasyon olusturulmaz
+    // false: hatasız kalemler kaydedilir (best-effort)
+    private boolean atomic = true;
+
+
+}
@@ -0,0 +1,50 @@
+package com.myproject.dto.request;
+
+import com.myproject.domain.enums.ReservationStatus;
+import lombok.AccessLevel;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import org.springframework.format.annotation.DateTimeFormat;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Getter
+@Setter
+@NoArgsConstructor
+public class ReservationReportFilter {
+
+    // rezervasyon raporu query parametreleri, verilmeyen filtre uygulanmıyor
+
+    // [from, to) aralıgıyla kesisen rezervasyonlar
+    @DateTimeFormat(pattern = "MM/dd/yyyy HH:mm:ss")
+    private LocalDateTime from;
+
+    @DateTimeFormat(pattern = "MM/dd/yyyy HH:mm:ss")
+    private LocalDateTime to;
+
+    private List<ReservationStatus> status;
+
+    private Long carId;
+
+    private Long userId;
+
+    // artımlı export'ta (updatedSince, updatedUntil] aralıgında degisen kayıtlar,
+    // request'ten baglanmıyor (bkz. ReportService.currentWatermark)
+    @Setter(AccessLevel.NONE)
+    private LocalDateTime updatedSince;
+
+    @Setter(AccessLevel.NONE)
+    private LocalDateTime updatedUntil;
+
+    public void setChangeWindow(LocalDateTime updatedSince, LocalDateTime updatedUntil) {
+        this.updatedSince = updatedSince;
+        this.updatedUntil = updatedUntil;
+    }
+
+    public boolean isIncremental() {
+        return updatedUntil != null;
+    }
+
+}
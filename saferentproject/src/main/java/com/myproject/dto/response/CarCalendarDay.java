@@ -0,0 +1,29 @@
+package com.myproject.dto.response;
+
+import com.fasterxml.jackson.annotation.JsonFormat;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.time.LocalDate;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class CarCalendarDay {
+
+    @JsonFormat(shape = JsonFormat.Shape.STRING, pattern = "MM/dd/yyyy")
+    private LocalDate date;
+
+    // hicbir saati dolu degil
+    private boolean available;
+
+    // 24 saati de dolu
+    private boolean fullyBooked;
+
+    // bit i : i. saat (i:00 - i+1:00) dolu
+    private int occupiedHours;
+
+}
@@ -0,0 +1,25 @@
+package com.myproject.dto.response;
+
+import com.fasterxml.jackson.annotation.JsonFormat;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.time.YearMonth;
+import java.util.List;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class CarCalendarResponse {
+
+    private Long carId;
+
+    @JsonFormat(shape = JsonFormat.Shape.STRING, pattern = "MM/yyyy")
+    private YearMonth month;
+
+    private List<CarCalendarDay> days;
+
+}
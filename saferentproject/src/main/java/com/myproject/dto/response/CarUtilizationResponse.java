@@ -0,0 +1,37 @@
+package com.myproject.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class CarUtilizationResponse {
+
+    private Long carId;
+
+    private String model;
+
+    private long reservationCount;
+
+    private long canceledCount;
+
+    // 0-1
+    private double cancellationRate;
+
+    private double revenue;
+
+    private double rentedHours;
+
+    // secilen aralıktaki toplam saat
+    private long availableHours;
+
+    // rentedHours / availableHours
+    private double utilization;
+
+    private double averageLeadTimeHours;
+
+}
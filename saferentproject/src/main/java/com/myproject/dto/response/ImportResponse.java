@@ -0,0 +1,28 @@
+package com.myproject.dto.response;
+
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.util.List;
+
+@Getter
+@Setter
+@NoArgsConstructor
+public class ImportResponse extends SfResponse {
+
+    private int totalCount;
+
+    private int importedCount;
+
+    private List<ImportRowError> errors;
+
+    public ImportResponse(String message, boolean success, int totalCount, int importedCount,
+                          List<ImportRowError> errors) {
+        super(message, success);
+        this.totalCount = totalCount;
+        this.importedCount = importedCount;
+        this.errors = errors;
+    }
+
+}
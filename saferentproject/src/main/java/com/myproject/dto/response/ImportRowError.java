@@ -0,0 +1,19 @@
+package com.myproject.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+@Getter
+@Setter
+@AllArgsConstructor
+@NoArgsConstructor
+public class ImportRowError {
+
+    // dosyadaki satır numarası, 0 ise hata dosyanın geneline ait
+    private long row;
+
+    private String message;
+
+}
@@ -0,0 +1,45 @@
+package com.myproject.dto.response;
+
+import com.fasterxml.jackson.annotation.JsonFormat;
+import com.myproject.report.ReportJobStatus;
+import com.myproject.report.ReportType;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.time.LocalDateTime;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class ReportJobResponse {
+
+    private String id;
+
+    private ReportType type;
+
+    private ReportJobStatus status;
+
+    // 0-100
+    private int progress;
+
+    private long totalRows;
+
+    private int rowsWritten;
+
+    private LocalDateTime createdAt;
+
+    private LocalDateTime finishedAt;
+
+    // bu zamandan sonra rapor dosyası silinir
+    private LocalDateTime expiresAt;
+
+    // artımlı export'ta bir sonraki export'un since degeri
+    @JsonFormat(shape = JsonFormat.Shape.STRING, pattern = "MM/dd/yyyy HH:mm:ss")
+    private LocalDateTime watermark;
+
+    private String errorMessage;
+
+}
@@ -0,0 +1,28 @@
+package com.myproject.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+@Getter
+@Setter
+@AllArgsConstructor
+@NoArgsConstructor
+public class ReservationBatchItemResponse {
+
+    // istekteki sırası
+    private int index;
+
+    private Long carId;
+
+    private boolean success;
+
+    private Long reservationId;
+
+    private Double totalPrice;
+
+    private String message;
+
+
+}
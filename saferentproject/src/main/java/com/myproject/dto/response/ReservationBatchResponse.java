@@ -0,0 +1,26 @@
+package com.myproject.dto.response;
+
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.util.List;
+
+@Getter
+@Setter
+@NoArgsConstructor
+public class ReservationBatchResponse extends SfResponse {
+
+    private int createdCount;
+
+    private List<ReservationBatchItemResponse> results;
+
+    public ReservationBatchResponse(String message, boolean success, int createdCount,
+                                    List<ReservationBatchItemResponse> results) {
+        super(message, success);
+        this.createdCount = createdCount;
+        this.results = results;
+    }
+
+
+}
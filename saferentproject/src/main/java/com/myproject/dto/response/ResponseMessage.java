@@ -14,9 +14,11 @@ public class ResponseMessage {
     public static final String CAR_UPDATE_RESPONSE_MESSAGE = "Car successfully updated";
     public static final String CAR_DELETE_RESPONSE_MESSAGE = "Car Successfully Deleted";
     public static final String CAR_AVAILABLE_MESSAGE = "Car Availability calculated";
+    public static final String IMPORT_RESPONSE_MESSAGE = "%d of %d Rows Successfully Imported";
 
     public static final String RESERVATION_UPDATED_RESPONSE_MESSAGE = "Reservation Successfully Updated";
     public static final String RESERVATION_CREATED_RESPONSE_MESSAGE = "Reservation Successfully Created";
     public final static String RESERVATION_DELETED_RESPONSE_MESSAGE = "Reservation Successfully Deleted";
+    public static final String RESERVATION_BATCH_CREATED_RESPONSE_MESSAGE = "%d of %d Reservations Successfully Created";
 
 }
@@ -0,0 +1,32 @@
+package com.myproject.dto.response;
+
+import com.fasterxml.jackson.annotation.JsonFormat;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.time.LocalDate;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class RevenueStatResponse {
+
+    // periyodun (gün, hafta, ay) ilk günü
+    @JsonFormat(shape = JsonFormat.Shape.STRING, pattern = "MM/dd/yyyy")
+    private LocalDate periodStart;
+
+    private long reservationCount;
+
+    private long canceledCount;
+
+    // 0-1
+    private double cancellationRate;
+
+    private double revenue;
+
+    private double averageLeadTimeHours;
+
+}
@@ -16,9 +16,27 @@ public class ErrorMessage {
     public static final String RESERVATION_TIME_INCORRECT_MESSAGE = "Reservation pick up time or drop of time not correct";
     public static final String CAR_NOT_AVAILABLE_MESSAGE = "Car is not available for selected tme ";
     public static final String RESERVATION_STATUS_CANT_CHANGE_MESSAGE = "Reservation can't be updated for canceled or done reservations";
+    public static final String RESERVATION_BATCH_OVERLAP_MESSAGE = "Reservation overlaps with another reservation of the same car in this batch";
+    public static final String RESERVATION_BATCH_ABORTED_MESSAGE = "Reservation not created because another reservation in this batch failed";
+    public static final String CALENDAR_MONTH_INCORRECT_MESSAGE = "Calendar month : %s is not valid, expected MM/yyyy";
 
 
     public static final String CAR_USED_BY_RESERVATION_MESSAGE = "Car couldn't be deleted. Car is used by a reservation";
     public static final String USER_CANT_BE_DELETED_MESSAGE = "User couldn't be deleted. User is used by a reservation";
     public final static String EXCEL_REPORT_ERROR_MESSAGE = "Error occured while generating excel report";
+    public static final String REPORT_JOB_NOT_FOUND_MESSAGE = "Report job with id %s not found";
+    public static final String REPORT_JOB_NOT_READY_MESSAGE = "Report job %s is %s, report file is not ready";
+    public static final String REPORT_TIME_WINDOW_INCORRECT_MESSAGE = "Report time window start must be before its end";
+    public static final String REPORT_QUEUE_FULL_MESSAGE = "Too many reports are being generated, please try again later";
+    public static final String ANALYTICS_DATE_RANGE_INCORRECT_MESSAGE = "Analytics start date must not be after its end date";
+    public static final String INVALID_PAGE_CURSOR_MESSAGE = "Page cursor : %s is not valid";
+    public static final String INVALID_PAGE_SIZE_MESSAGE = "Page size must be between 1 and %d";
+    public static final String IMPORT_ERROR_MESSAGE = "Error occured while reading import file";
+    public static final String IMPORT_EMPTY_FILE_MESSAGE = "Import file is empty";
+    public static final String IMPORT_UNSUPPORTED_FILE_MESSAGE = "Import file must be a .csv or .xlsx file";
+    public static final String IMPORT_INVALID_XLSX_MESSAGE = "Import file is not a valid .xlsx file";
+    public static final String IMPORT_CHUNK_FAILED_MESSAGE = "Row couldn't be saved: %s";
+    public static final String CSV_UNTERMINATED_QUOTE_MESSAGE = "Unterminated quoted value starting at row %d";
+    public static final String CSV_MISSING_VALUE_MESSAGE = "Column %s is required";
+    public static final String CSV_INVALID_VALUE_MESSAGE = "Value %s is not valid for column %s";
 }
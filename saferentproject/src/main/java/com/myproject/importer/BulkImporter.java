@@ -0,0 +1,233 @@
+package com.myproject.importer;
+
+import com.myproject.dto.response.ImportResponse;
+import com.myproject.dto.response.ImportRowError;
+import com.myproject.dto.response.ResponseMessage;
+import com.myproject.exception.BadRequestException;
+import com.myproject.exception.message.ErrorMessage;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.multipart.MultipartFile;
+
+import javax.annotation.PreDestroy;
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceException;
+import javax.validation.Validator;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+@Component
+public class BulkImporter {
+
+    // CSV veya xlsx dosyasındaki satırlar akıs halinde okunup chunk'lar halinde isleniyor:
+    // 1) chunk'taki satırlar import havuzunda paralel olarak request DTO'ya cevrilip
+    //    javax validation ile dogrulanıyor ve entity'ye dönüstürülüyor (bcrypt gibi CPU islemleri dahil)
+    // 2) gecerli satırlar tek transaction'da kaydediliyor, flush ile insert'ler JDBC batch olarak
+    //    gönderiliyor ve persistence context temizleniyor. Chunk kaydedilemezse satırlar tek tek
+    //    tekrar deneniyor, böylece sadece hatalı satır reddediliyor.
+    // Dosya ne kadar büyük olursa olsun bellekte en fazla bir chunk tutuluyor.
+
+    private static final Logger logger = LoggerFactory.getLogger(BulkImporter.class);
+
+    private static final String XLSX_CONTENT_TYPE = "application/vnd.openxmlformats-officedocument.spreadsheetml.sheet";
+
+    private final TransactionTemplate transactionTemplate;
+    private final EntityManager entityManager;
+    private final Validator validator;
+    private final int chunkSize;
+    private final ExecutorService executor;
+
+    public BulkImporter(TransactionTemplate transactionTemplate,
+                        EntityManager entityManager,
+                        Validator validator,
+                        @Value("${saferentproject.app.importChunkSize:500}") int chunkSize,
+                        @Value("${saferentproject.app.importParallelism:0}") int parallelism) {
+        this.transactionTemplate = transactionTemplate;
+        this.entityManager = entityManager;
+        this.validator = validator;
+        this.chunkSize = chunkSize;
+        // 0 ise islemci sayısı kadar thread
+        int threads = parallelism > 0 ? parallelism : Runtime.getRuntime().availableProcessors();
+        this.executor = Executors.newFixedThreadPool(threads, new CustomizableThreadFactory("import-"));
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    // rowMapper : satırdan request DTO olusturur, converter : dogrulanmıs DTO'dan entity olusturur.
+    // Ikisi de paralel cagrılıyor, DB'ye erismemeli. Hatalı satırlar IllegalArgumentException
+    // veya BadRequestException atmalı
+    public <R, T> ImportResponse importFile(MultipartFile file,
+                                            Function<SourceRow, R> rowMapper,
+                                            Function<R, T> converter,
+                                            ChunkWriter<T> chunkWriter) {
+        ImportRun<R, T> run = new ImportRun<>(rowMapper, converter, chunkWriter);
+
+        try (RowSource source = openSource(file)) {
+            if (!source.forEachRow(run::add)) {
+                throw new BadRequestException(ErrorMessage.IMPORT_EMPTY_FILE_MESSAGE);
+            }
+            run.flush();
+        } catch (IOException e) {
+            throw new RuntimeException(ErrorMessage.IMPORT_ERROR_MESSAGE, e);
+        } catch (IllegalArgumentException e) {
+            // dosya formatı bozuk (ör. kapanmayan tırnak), o ana kadar kaydedilenler raporlanıyor
+            run.errors.add(new ImportRowError(0, e.getMessage()));
+        }
+
+        run.errors.sort(Comparator.comparingLong(ImportRowError::getRow));
+        String message = String.format(ResponseMessage.IMPORT_RESPONSE_MESSAGE, run.importedCount, run.totalCount);
+        return new ImportResponse(message, run.errors.isEmpty(), run.totalCount, run.importedCount, run.errors);
+    }
+
+    private RowSource openSource(MultipartFile file) throws IOException {
+        String fileName = file.getOriginalFilename() == null ? "" : file.getOriginalFilename().toLowerCase(Locale.ROOT);
+        if (fileName.endsWith(".xlsx") || XLSX_CONTENT_TYPE.equals(file.getContentType())) {
+            return new XlsxReader(file.getInputStream());
+        }
+        if (fileName.endsWith(".csv") || fileName.endsWith(".txt") ||
+                (file.getContentType() != null && file.getContentType().startsWith("text/"))) {
+            return new CsvReader(new InputStreamReader(file.getInputStream(), StandardCharsets.UTF_8));
+        }
+        throw new BadRequestException(ErrorMessage.IMPORT_UNSUPPORTED_FILE_MESSAGE);
+    }
+
+    private <R, T> T convert(SourceRow row, Function<SourceRow, R> rowMapper, Function<R, T> converter) {
+        R request = rowMapper.apply(row);
+        // controller'daki @Valid ile aynı kurallar
+        String violations = validator.validate(request).stream().
+                map(violation -> violation.getPropertyPath() + ": " + violation.getMessage()).
+                sorted().
+                collect(Collectors.joining(", "));
+        if (!violations.isEmpty()) {
+            throw new IllegalArgumentException(violations);
+        }
+        return converter.apply(request);
+    }
+
+    // tek bir import isteginin durumu, sadece istegi isleyen thread tarafından kullanılıyor
+    private class ImportRun<R, T> {
+
+        private final Function<SourceRow, R> rowMapper;
+        private final Function<R, T> converter;
+        private final ChunkWriter<T> chunkWriter;
+
+        private final List<SourceRow> chunk = new ArrayList<>(chunkSize);
+        private final List<ImportRowError> errors = new ArrayList<>();
+        private int totalCount;
+        private int importedCount;
+
+        ImportRun(Function<SourceRow, R> rowMapper, Function<R, T> converter, ChunkWriter<T> chunkWriter) {
+            this.rowMapper = rowMapper;
+            this.converter = converter;
+            this.chunkWriter = chunkWriter;
+        }
+
+        void add(SourceRow row) {
+            totalCount++;
+            chunk.add(row);
+            if (chunk.size() >= chunkSize) {
+                flush();
+            }
+        }
+
+        void flush() {
+            if (chunk.isEmpty()) {
+                return;
+            }
+            List<ImportRow<T>> rows = convertChunk();
+            chunk.clear();
+            if (!rows.isEmpty()) {
+                importedCount += writeChunk(rows);
+            }
+        }
+
+        private List<ImportRow<T>> convertChunk() {
+            List<Future<T>> futures = new ArrayList<>(chunk.size());
+            for (SourceRow row : chunk) {
+                futures.add(executor.submit(() -> convert(row, rowMapper, converter)));
+            }
+
+            List<ImportRow<T>> rows = new ArrayList<>(chunk.size());
+            for (int i = 0; i < chunk.size(); i++) {
+                long rowNumber = chunk.get(i).getRowNumber();
+                try {
+                    rows.add(new ImportRow<>(rowNumber, futures.get(i).get()));
+                } catch (ExecutionException e) {
+                    Throwable cause = e.getCause();
+                    if (!(cause instanceof IllegalArgumentException || cause instanceof BadRequestException)) {
+                        futures.forEach(future -> future.cancel(true));
+                        throw cause instanceof RuntimeException ? (RuntimeException) cause : new IllegalStateException(cause);
+                    }
+                    errors.add(new ImportRowError(rowNumber, cause.getMessage()));
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    futures.forEach(future -> future.cancel(true));
+                    throw new IllegalStateException(ErrorMessage.IMPORT_ERROR_MESSAGE, e);
+                }
+            }
+            return rows;
+        }
+
+        private int writeChunk(List<ImportRow<T>> rows) {
+            int errorCount = errors.size();
+            try {
+                return writeInTransaction(rows);
+            } catch (DataAccessException | PersistenceException e) {
+                // chunk geri alındı, hatalı satırı bulmak icin satırlar tek tek ayrı transaction'larda
+                // tekrar yazılıyor. Gecerli satırlar kaydediliyor, sadece kaydedilemeyen satır raporlanıyor
+                logger.warn("Import chunk could not be saved, retrying row by row: {}", e.getMessage());
+                errors.subList(errorCount, errors.size()).clear();
+                int written = 0;
+                for (ImportRow<T> row : rows) {
+                    written += writeRow(row);
+                }
+                return written;
+            }
+        }
+
+        private int writeRow(ImportRow<T> row) {
+            int errorCount = errors.size();
+            try {
+                return writeInTransaction(Collections.singletonList(row));
+            } catch (DataAccessException | PersistenceException e) {
+                logger.error("Import row {} could not be saved", row.getRowNumber(), e);
+                errors.subList(errorCount, errors.size()).clear();
+                errors.add(new ImportRowError(row.getRowNumber(),
+                        String.format(ErrorMessage.IMPORT_CHUNK_FAILED_MESSAGE, e.getMessage())));
+                return 0;
+            }
+        }
+
+        private int writeInTransaction(List<ImportRow<T>> rows) {
+            Integer written = transactionTemplate.execute(txStatus -> {
+                int count = chunkWriter.write(rows, errors);
+                entityManager.flush();
+                entityManager.clear();
+                return count;
+            });
+            return written == null ? 0 : written;
+        }
+
+    }
+
+}
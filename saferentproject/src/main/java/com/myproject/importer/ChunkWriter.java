@@ -0,0 +1,15 @@
+package com.myproject.importer;
+
+import com.myproject.dto.response.ImportRowError;
+
+import java.util.List;
+
+@FunctionalInterface
+public interface ChunkWriter<T> {
+
+    // chunk transaction icinde cagrılıyor. Kaydedilemeyen satırlar errors'a eklenir,
+    // kaydedilen satır sayısı dönülür. Transaction geri alınırsa aynı satırlar tek satırlık
+    // chunk'lar halinde tekrar verilir, bu yüzden sonraki chunk'ları etkileyen durum commit'ten önce degismemeli
+    int write(List<ImportRow<T>> chunk, List<ImportRowError> errors);
+
+}
@@ -0,0 +1,141 @@
+package com.myproject.importer;
+
+import com.myproject.exception.message.ErrorMessage;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+
+public class CsvReader implements RowSource {
+
+    // RFC 4180 CSV okuyucu: virgülle ayrılmıs alanlar, tırnak icinde virgül / satır sonu
+    // ve "" ile kacırılmıs tırnak destekleniyor. Dosya bellege alınmadan satır satır okunuyor.
+
+    private static final char SEPARATOR = ',';
+    private static final char QUOTE = '"';
+    private static final char BOM = '\uFEFF';
+
+    private final Reader reader;
+
+    private Map<String, Integer> columns;
+
+    // okunan son kaydın basladıgı satır (header 1. satır). Tırnak icinde satır sonu
+    // olabildiginden fiziksel satır sayısı ayrıca tutuluyor
+    private long rowNumber;
+
+    private long lineNumber;
+
+    private boolean firstChar = true;
+
+    public CsvReader(Reader reader) {
+        this.reader = new BufferedReader(reader);
+    }
+
+    // kolon isimleri büyük/kücük harf duyarsız
+    public Map<String, Integer> readHeader() throws IOException {
+        List<String> header = readValues();
+        if (header == null) {
+            return null;
+        }
+        columns = new HashMap<>();
+        for (int i = 0; i < header.size(); i++) {
+            columns.put(RowSource.normalize(header.get(i)), i);
+        }
+        return columns;
+    }
+
+    // dosya sonunda null, bos satırlar atlanıyor
+    public SourceRow readRow() throws IOException {
+        if (columns == null) {
+            readHeader();
+        }
+        List<String> values;
+        do {
+            values = readValues();
+            if (values == null) {
+                return null;
+            }
+        } while (values.size() == 1 && values.get(0).trim().isEmpty());
+
+        return new SourceRow(rowNumber, columns, values);
+    }
+
+    @Override
+    public boolean forEachRow(Consumer<SourceRow> consumer) throws IOException {
+        if (readHeader() == null) {
+            return false;
+        }
+        SourceRow row;
+        while ((row = readRow()) != null) {
+            consumer.accept(row);
+        }
+        return true;
+    }
+
+    private List<String> readValues() throws IOException {
+        int c = read();
+        if (c == -1) {
+            return null;
+        }
+        rowNumber = ++lineNumber;
+
+        List<String> values = new ArrayList<>();
+        StringBuilder value = new StringBuilder();
+        boolean quoted = false;
+        while (true) {
+            if (quoted) {
+                if (c == -1) {
+                    throw new IllegalArgumentException(String.format(ErrorMessage.CSV_UNTERMINATED_QUOTE_MESSAGE, rowNumber));
+                }
+                if (c == QUOTE) {
+                    int next = read();
+                    if (next != QUOTE) {
+                        // tırnak kapandı, sıradaki karakter normal akısta islenecek
+                        quoted = false;
+                        c = next;
+                        continue;
+                    }
+                    value.append(QUOTE);
+                } else {
+                    if (c == '\n') {
+                        lineNumber++;
+                    }
+                    value.append((char) c);
+                }
+            } else if (c == QUOTE && value.length() == 0) {
+                quoted = true;
+            } else if (c == SEPARATOR) {
+                values.add(value.toString());
+                value.setLength(0);
+            } else if (c == '\n' || c == -1) {
+                values.add(value.toString());
+                return values;
+            } else if (c != '\r') {
+                value.append((char) c);
+            }
+            c = read();
+        }
+    }
+
+    private int read() throws IOException {
+        int c = reader.read();
+        if (firstChar) {
+            firstChar = false;
+            if (c == BOM) {
+                c = reader.read();
+            }
+        }
+        return c;
+    }
+
+    @Override
+    public void close() throws IOException {
+        reader.close();
+    }
+
+}
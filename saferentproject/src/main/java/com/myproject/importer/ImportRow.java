@@ -0,0 +1,15 @@
+package com.myproject.importer;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+@Getter
+@AllArgsConstructor
+public class ImportRow<T> {
+
+    // dosyadaki satır numarası, hata raporunda kullanılıyor
+    private final long rowNumber;
+
+    private final T value;
+
+}
@@ -0,0 +1,19 @@
+package com.myproject.importer;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.util.Locale;
+import java.util.function.Consumer;
+
+public interface RowSource extends Closeable {
+
+    // ilk satır header kabul ediliyor, sonraki her dolu satır sırayla consumer'a veriliyor.
+    // Header yoksa (bos dosya) false dönülür
+    boolean forEachRow(Consumer<SourceRow> consumer) throws IOException;
+
+    // kolon isimleri büyük/kücük harf duyarsız
+    static String normalize(String column) {
+        return column.trim().toLowerCase(Locale.ROOT);
+    }
+
+}
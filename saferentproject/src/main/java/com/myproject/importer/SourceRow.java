@@ -0,0 +1,86 @@
+package com.myproject.importer;
+
+import com.myproject.exception.message.ErrorMessage;
+import lombok.Getter;
+
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+public class SourceRow {
+
+    // import dosyasındaki (CSV veya xlsx) tek bir satır, degerlere kolon ismi ile ulasılıyor.
+    // Eksik veya hatalı degerde IllegalArgumentException atılıyor, satır hata raporuna ekleniyor.
+
+    @Getter
+    private final long rowNumber;
+
+    private final Map<String, Integer> columns;
+
+    private final List<String> values;
+
+    public SourceRow(long rowNumber, Map<String, Integer> columns, List<String> values) {
+        this.rowNumber = rowNumber;
+        this.columns = columns;
+        this.values = values;
+    }
+
+    // bos olabilecek kolonlar icin
+    public String getOptional(String column) {
+        Integer index = columns.get(RowSource.normalize(column));
+        if (index == null || index >= values.size()) {
+            return null;
+        }
+        String value = values.get(index).trim();
+        return value.isEmpty() ? null : value;
+    }
+
+    public String getString(String column) {
+        String value = getOptional(column);
+        if (value == null) {
+            throw new IllegalArgumentException(String.format(ErrorMessage.CSV_MISSING_VALUE_MESSAGE, column));
+        }
+        return value;
+    }
+
+    public Integer getInteger(String column) {
+        String value = getString(column);
+        try {
+            return Integer.valueOf(value);
+        } catch (NumberFormatException e) {
+            throw invalidValue(column, value);
+        }
+    }
+
+    public Double getDouble(String column) {
+        String value = getString(column);
+        try {
+            return Double.valueOf(value);
+        } catch (NumberFormatException e) {
+            throw invalidValue(column, value);
+        }
+    }
+
+    public Boolean getBoolean(String column) {
+        String value = getString(column).toLowerCase(Locale.ROOT);
+        switch (value) {
+            case "true":
+            case "yes":
+            case "1":
+            case "+": // excel raporundaki format
+                return true;
+            case "false":
+            case "no":
+            case "0":
+            case "-":
+                return false;
+            default:
+                throw invalidValue(column, value);
+        }
+    }
+
+    private static IllegalArgumentException invalidValue(String column, String value) {
+        return new IllegalArgumentException(String.format(ErrorMessage.CSV_INVALID_VALUE_MESSAGE, value, column));
+    }
+
+}
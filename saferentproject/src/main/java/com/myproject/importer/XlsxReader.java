@@ -0,0 +1,139 @@
+package com.myproject.importer;
+
+import com.myproject.exception.message.ErrorMessage;
+import org.apache.poi.ooxml.util.SAXHelper;
+import org.apache.poi.openxml4j.exceptions.OpenXML4JException;
+import org.apache.poi.openxml4j.opc.OPCPackage;
+import org.apache.poi.openxml4j.opc.PackageAccess;
+import org.apache.poi.ss.usermodel.DataFormatter;
+import org.apache.poi.ss.util.CellReference;
+import org.apache.poi.xssf.eventusermodel.ReadOnlySharedStringsTable;
+import org.apache.poi.xssf.eventusermodel.XSSFReader;
+import org.apache.poi.xssf.eventusermodel.XSSFSheetXMLHandler;
+import org.apache.poi.xssf.model.StylesTable;
+import org.apache.poi.xssf.usermodel.XSSFComment;
+import org.xml.sax.InputSource;
+import org.xml.sax.SAXException;
+import org.xml.sax.XMLReader;
+
+import javax.xml.parsers.ParserConfigurationException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.function.Consumer;
+
+public class XlsxReader implements RowSource {
+
+    // xlsx dosyasının ilk sheet'i SAX (event) API ile okunuyor: workbook bellege alınmıyor,
+    // her satır XML'den okundukca consumer'a veriliyor. ExcelReporter'ın ürettigi dosyalar
+    // (header + veri satırları) aynen geri okunabiliyor.
+    // OPCPackage zip'e rastgele erisim istedigi icin upload önce temp dosyaya kopyalanıyor.
+
+    private final Path tempFile;
+
+    private final OPCPackage opcPackage;
+
+    public XlsxReader(InputStream inputStream) throws IOException {
+        tempFile = Files.createTempFile("import-", ".xlsx");
+        try {
+            Files.copy(inputStream, tempFile, StandardCopyOption.REPLACE_EXISTING);
+            opcPackage = OPCPackage.open(tempFile.toFile(), PackageAccess.READ);
+        } catch (Exception e) {
+            Files.deleteIfExists(tempFile);
+            if (e instanceof IOException) {
+                throw (IOException) e;
+            }
+            throw new IllegalArgumentException(ErrorMessage.IMPORT_INVALID_XLSX_MESSAGE, e);
+        }
+    }
+
+    @Override
+    public boolean forEachRow(Consumer<SourceRow> consumer) throws IOException {
+        try {
+            XSSFReader reader = new XSSFReader(opcPackage);
+            ReadOnlySharedStringsTable strings = new ReadOnlySharedStringsTable(opcPackage);
+            StylesTable styles = reader.getStylesTable();
+
+            Iterator<InputStream> sheets = reader.getSheetsData();
+            if (!sheets.hasNext()) {
+                return false;
+            }
+
+            SheetHandler handler = new SheetHandler(consumer);
+            try (InputStream sheet = sheets.next()) {
+                XMLReader parser = SAXHelper.newXMLReader();
+                // hücreler Excel'de göründügü sekilde (ör. 45.5, +) okunuyor
+                parser.setContentHandler(new XSSFSheetXMLHandler(styles, strings, handler,
+                        new DataFormatter(Locale.US), false));
+                parser.parse(new InputSource(sheet));
+            }
+            return handler.columns != null;
+        } catch (OpenXML4JException | SAXException | ParserConfigurationException e) {
+            throw new IllegalArgumentException(ErrorMessage.IMPORT_INVALID_XLSX_MESSAGE, e);
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        try {
+            // sadece okuma yapıldı, dosyaya geri yazılmıyor
+            opcPackage.revert();
+        } finally {
+            Files.deleteIfExists(tempFile);
+        }
+    }
+
+    private static class SheetHandler implements XSSFSheetXMLHandler.SheetContentsHandler {
+
+        private final Consumer<SourceRow> consumer;
+
+        private Map<String, Integer> columns;
+
+        private List<String> values;
+
+        SheetHandler(Consumer<SourceRow> consumer) {
+            this.consumer = consumer;
+        }
+
+        @Override
+        public void startRow(int rowNum) {
+            values = new ArrayList<>();
+        }
+
+        @Override
+        public void endRow(int rowNum) {
+            if (columns == null) {
+                columns = new HashMap<>();
+                for (int i = 0; i < values.size(); i++) {
+                    columns.put(RowSource.normalize(values.get(i)), i);
+                }
+            } else if (values.stream().anyMatch(value -> !value.trim().isEmpty())) {
+                consumer.accept(new SourceRow(rowNum + 1, columns, values));
+            }
+        }
+
+        @Override
+        public void cell(String cellReference, String formattedValue, XSSFComment comment) {
+            // bos hücreler event üretmiyor, kolon indeksi hücre referansından bulunuyor
+            int column = cellReference == null ? values.size() : new CellReference(cellReference).getCol();
+            while (values.size() < column) {
+                values.add("");
+            }
+            values.add(formattedValue == null ? "" : formattedValue);
+        }
+
+        @Override
+        public void headerFooter(String text, boolean isHeader, String tagName) {
+        }
+
+    }
+
+}
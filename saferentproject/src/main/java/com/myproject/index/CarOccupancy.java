@@ -0,0 +1,72 @@
+package com.myproject.index;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.BitSet;
+import java.util.List;
+
+public final class CarOccupancy {
+
+    // Bir aracın origin gününden itibaren days gün boyunca saatlik doluluk bitmap'i.
+    // bit i : origin + i. saat dolu (rezervasyonun pickUp saati asagı, dropOf saati yukarı yuvarlanır).
+    // Sınıf immutable, rezervasyon degisikliginde yeniden olusturulur.
+
+    public static final int HOURS_PER_DAY = 24;
+
+    // 24 saati de dolu gün
+    public static final int FULL_DAY = (1 << HOURS_PER_DAY) - 1;
+
+    private final LocalDate origin;
+
+    private final int days;
+
+    private final BitSet slots;
+
+    private CarOccupancy(LocalDate origin, int days, BitSet slots) {
+        this.origin = origin;
+        this.days = days;
+        this.slots = slots;
+    }
+
+    public static CarOccupancy of(LocalDate origin, int days, List<ReservationInterval> intervals) {
+        LocalDateTime start = origin.atStartOfDay();
+        int limit = days * HOURS_PER_DAY;
+        BitSet slots = new BitSet(limit);
+        for (ReservationInterval interval : intervals) {
+            long from = Math.max(0, hoursFrom(start, interval.getPickUpTime()));
+            long to = Math.min(limit, hoursFrom(start, interval.getDropOfTime()) +
+                    (interval.getDropOfTime().truncatedTo(ChronoUnit.HOURS).equals(interval.getDropOfTime()) ? 0 : 1));
+            if (from < to) {
+                slots.set((int) from, (int) to);
+            }
+        }
+        return new CarOccupancy(origin, days, slots);
+    }
+
+    public LocalDate getOrigin() {
+        return origin;
+    }
+
+    // from gününden baslayan count günün tamamı bitmap icinde mi
+    public boolean covers(LocalDate from, int count) {
+        return !from.isBefore(origin) && ChronoUnit.DAYS.between(origin, from) + count <= days;
+    }
+
+    // gün basına 24 bitlik doluluk maskesi (bit i : i. saat dolu), aralık covers ile kontrol edilmeli
+    public int[] dailyMasks(LocalDate from, int count) {
+        int[] masks = new int[count];
+        int offset = (int) ChronoUnit.DAYS.between(origin, from) * HOURS_PER_DAY;
+        for (int day = 0; day < count; day++) {
+            long[] words = slots.get(offset + day * HOURS_PER_DAY, offset + (day + 1) * HOURS_PER_DAY).toLongArray();
+            masks[day] = words.length == 0 ? 0 : (int) words[0];
+        }
+        return masks;
+    }
+
+    // start'tan time'ın saat basına kadar gecen saat
+    private static long hoursFrom(LocalDateTime start, LocalDateTime time) {
+        return ChronoUnit.HOURS.between(start, time.truncatedTo(ChronoUnit.HOURS));
+    }
+
+}
@@ -0,0 +1,115 @@
+package com.myproject.index;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+
+public final class CarReservationIntervals {
+
+    // Bir araca ait aktif rezervasyonlar pickUpTime'a göre sıralı bir dizide tutulur.
+    // maxDropOfTime[i] : 0..i arasındaki aralıkların en büyük bitis zamanı.
+    // Sınıf immutable, her degisiklik yeni bir kopya üretir (okumalar kilitsiz).
+
+    public static final CarReservationIntervals EMPTY = new CarReservationIntervals(new ReservationInterval[0]);
+
+    private static final Comparator<ReservationInterval> ORDER =
+            Comparator.comparing(ReservationInterval::getPickUpTime).
+                    thenComparing(ReservationInterval::getReservationId);
+
+    private final ReservationInterval[] intervals;
+
+    private final LocalDateTime[] maxDropOfTime;
+
+    private CarReservationIntervals(ReservationInterval[] sortedIntervals) {
+        this.intervals = sortedIntervals;
+        this.maxDropOfTime = new LocalDateTime[sortedIntervals.length];
+        LocalDateTime max = null;
+        for (int i = 0; i < sortedIntervals.length; i++) {
+            LocalDateTime end = sortedIntervals[i].getDropOfTime();
+            max = (max == null || end.isAfter(max)) ? end : max;
+            maxDropOfTime[i] = max;
+        }
+    }
+
+    public static CarReservationIntervals of(List<ReservationInterval> intervals) {
+        ReservationInterval[] sorted = intervals.toArray(new ReservationInterval[0]);
+        Arrays.sort(sorted, ORDER);
+        return new CarReservationIntervals(sorted);
+    }
+
+    // aynı id'li eski kayıt varsa cıkarılıp yenisi eklenir
+    public CarReservationIntervals with(ReservationInterval interval) {
+        List<ReservationInterval> list = new ArrayList<>(intervals.length + 1);
+        for (ReservationInterval current : intervals) {
+            if (!current.getReservationId().equals(interval.getReservationId())) {
+                list.add(current);
+            }
+        }
+        list.add(interval);
+        return of(list);
+    }
+
+    public CarReservationIntervals without(Long reservationId) {
+        List<ReservationInterval> list = new ArrayList<>(intervals.length);
+        for (ReservationInterval current : intervals) {
+            if (!current.getReservationId().equals(reservationId)) {
+                list.add(current);
+            }
+        }
+        return list.size() == intervals.length ? this : of(list);
+    }
+
+    // excludeReservationId null degilse o rezervasyon cakısma sayılmaz (update islemi)
+    public boolean hasConflict(LocalDateTime start, LocalDateTime end, Long excludeReservationId) {
+        int last = lastStartingNotAfter(end);
+        for (int i = last; i >= 0 && maxDropOfTime[i].isAfter(start); i--) {
+            ReservationInterval interval = intervals[i];
+            if (interval.overlaps(start, end) &&
+                !interval.getReservationId().equals(excludeReservationId)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    public List<ReservationInterval> findConflicts(LocalDateTime start, LocalDateTime end) {
+        List<ReservationInterval> conflicts = new ArrayList<>();
+        int last = lastStartingNotAfter(end);
+        for (int i = last; i >= 0 && maxDropOfTime[i].isAfter(start); i--) {
+            if (intervals[i].overlaps(start, end)) {
+                conflicts.add(intervals[i]);
+            }
+        }
+        Collections.reverse(conflicts);
+        return conflicts;
+    }
+
+    public List<ReservationInterval> getIntervals() {
+        return Collections.unmodifiableList(Arrays.asList(intervals));
+    }
+
+    public int size() {
+        return intervals.length;
+    }
+
+    // binary search : pickUpTime <= time olan son elemanın index'i, yoksa -1
+    private int lastStartingNotAfter(LocalDateTime time) {
+        int low = 0;
+        int high = intervals.length - 1;
+        int result = -1;
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            if (intervals[mid].getPickUpTime().isAfter(time)) {
+                high = mid - 1;
+            } else {
+                result = mid;
+                low = mid + 1;
+            }
+        }
+        return result;
+    }
+
+}
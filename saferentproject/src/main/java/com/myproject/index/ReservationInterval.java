@@ -0,0 +1,27 @@
+package com.myproject.index;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.time.LocalDateTime;
+
+@Getter
+@AllArgsConstructor
+public class ReservationInterval {
+
+    // index icinde tutulan, aktif bir rezervasyonun sadece zaman bilgisi
+
+    private final Long reservationId;
+
+    private final Long carId;
+
+    private final LocalDateTime pickUpTime;
+
+    private final LocalDateTime dropOfTime;
+
+    // iki aralık cakısıyor mu ? (yarı acık aralık, DB sorgusu ile aynı kural)
+    public boolean overlaps(LocalDateTime start, LocalDateTime end) {
+        return pickUpTime.isBefore(end) && dropOfTime.isAfter(start);
+    }
+
+}
@@ -0,0 +1,211 @@
+package com.myproject.index;
+
+import com.myproject.domain.Reservation;
+import com.myproject.domain.enums.ReservationStatus;
+import com.myproject.repository.ReservationRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+
+@Component
+public class ReservationIntervalIndex {
+
+    // Arac bazında aktif (CANCELED ve DONE olmayan) rezervasyonların bellekteki kopyası.
+    // Musaitlik sorguları DB'ye gitmeden O(log n) ile cevaplanır.
+    // Uygulama acılısında DB'den yüklenir, rezervasyon yazma islemlerinde commit sonrası güncellenir.
+
+    private static final Logger logger = LoggerFactory.getLogger(ReservationIntervalIndex.class);
+
+    private static final ReservationStatus[] INACTIVE_STATUSES = {ReservationStatus.CANCELED, ReservationStatus.DONE};
+
+    private final ReservationRepository reservationRepository;
+
+    private final Map<Long, CarReservationIntervals> carIntervals = new ConcurrentHashMap<>();
+
+    // reservationId --> carId (silme ve arac degisikligi icin)
+    private final Map<Long, Long> reservationCars = new ConcurrentHashMap<>();
+
+    // takvim görünümü icin arac bazında saatlik doluluk bitmap'i, bu ayın ilk gününden itibaren occupancyHorizonDays gün
+    // (en cok acılan takvim bu ay oldugu icin ayın gecmis günleri de bitmap'te tutuluyor)
+    private final Map<Long, CarOccupancy> carOccupancies = new ConcurrentHashMap<>();
+
+    private final int occupancyHorizonDays;
+
+    private volatile boolean ready = false;
+
+    public ReservationIntervalIndex(ReservationRepository reservationRepository,
+                                    @Value("${saferentproject.app.occupancyHorizonDays}") int occupancyHorizonDays) {
+        this.reservationRepository = reservationRepository;
+        this.occupancyHorizonDays = occupancyHorizonDays;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        reload();
+    }
+
+    // index DB'den bastan olusturuluyor, yükleme sırasında gelen yazmalar bekletilir
+    public synchronized void reload() {
+        List<ReservationInterval> intervals = reservationRepository.findActiveIntervals(INACTIVE_STATUSES);
+
+        Map<Long, List<ReservationInterval>> byCar =
+                intervals.stream().collect(Collectors.groupingBy(ReservationInterval::getCarId));
+
+        Map<Long, CarReservationIntervals> loaded = new HashMap<>();
+        byCar.forEach((carId, list) -> loaded.put(carId, CarReservationIntervals.of(list)));
+
+        carIntervals.clear();
+        carIntervals.putAll(loaded);
+        reservationCars.clear();
+        intervals.forEach(i -> reservationCars.put(i.getReservationId(), i.getCarId()));
+        carOccupancies.clear();
+        loaded.keySet().forEach(this::refreshOccupancy);
+
+        ready = true;
+        logger.info("Reservation interval index loaded: {} reservations, {} cars", intervals.size(), loaded.size());
+    }
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    public boolean hasConflict(Long carId, LocalDateTime start, LocalDateTime end, Long excludeReservationId) {
+        return getCarIntervals(carId).hasConflict(start, end, excludeReservationId);
+    }
+
+    public List<ReservationInterval> findConflicts(Long carId, LocalDateTime start, LocalDateTime end) {
+        return getCarIntervals(carId).findConflicts(start, end);
+    }
+
+    // from gününden itibaren count gün icin gün basına 24 bitlik doluluk maskesi (bkz. CarOccupancy).
+    // Aralık bitmap icindeyse DB'ye ve interval'lara gitmeden cevaplanır.
+    public int[] getDailyOccupancy(Long carId, LocalDate from, int count) {
+        CarOccupancy occupancy = carOccupancies.get(carId);
+        if (occupancy != null && !occupancy.getOrigin().equals(occupancyOrigin())) {
+            // ay degisti, bitmap yeni ayın ilk gününden baslayacak sekilde kaydırılıyor
+            occupancy = rollOccupancy(carId);
+        }
+        if (occupancy == null) {
+            return new int[count];
+        }
+        if (!occupancy.covers(from, count)) {
+            // gecmis aylar veya horizon sonrası icin bitmap istenen aralıktan olusturuluyor
+            occupancy = CarOccupancy.of(from, count,
+                    findConflicts(carId, from.atStartOfDay(), from.plusDays(count).atStartOfDay()));
+        }
+        return occupancy.dailyMasks(from, count);
+    }
+
+    public CarReservationIntervals getCarIntervals(Long carId) {
+        return carIntervals.getOrDefault(carId, CarReservationIntervals.EMPTY);
+    }
+
+    // kaydedilen/güncellenen rezervasyon transaction commit edildikten sonra index'e yansıtılır
+    public void put(Reservation reservation) {
+        boolean active = isActive(reservation.getStatus());
+        ReservationInterval interval = new ReservationInterval(reservation.getId(),
+                reservation.getCar().getId(),
+                reservation.getPickUpTime(),
+                reservation.getDropOfTime());
+        afterCommit(() -> {
+            if (active) {
+                apply(interval);
+            } else {
+                applyRemove(interval.getReservationId());
+            }
+        });
+    }
+
+    public void remove(Long reservationId) {
+        afterCommit(() -> applyRemove(reservationId));
+    }
+
+    public static boolean isActive(ReservationStatus status) {
+        for (ReservationStatus inactive : INACTIVE_STATUSES) {
+            if (inactive == status) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private synchronized void apply(ReservationInterval interval) {
+        Long previousCarId = reservationCars.put(interval.getReservationId(), interval.getCarId());
+        if (previousCarId != null && !previousCarId.equals(interval.getCarId())) {
+            carIntervals.computeIfPresent(previousCarId, (id, set) -> emptyToNull(set.without(interval.getReservationId())));
+        }
+        carIntervals.merge(interval.getCarId(),
+                CarReservationIntervals.of(Collections.singletonList(interval)),
+                (set, ignored) -> set.with(interval));
+
+        if (previousCarId != null && !previousCarId.equals(interval.getCarId())) {
+            refreshOccupancy(previousCarId);
+        }
+        refreshOccupancy(interval.getCarId());
+    }
+
+    private synchronized void applyRemove(Long reservationId) {
+        Long carId = reservationCars.remove(reservationId);
+        if (carId != null) {
+            carIntervals.computeIfPresent(carId, (id, set) -> emptyToNull(set.without(reservationId)));
+            refreshOccupancy(carId);
+        }
+    }
+
+    private synchronized CarOccupancy rollOccupancy(Long carId) {
+        refreshOccupancy(carId);
+        return carOccupancies.get(carId);
+    }
+
+    private void refreshOccupancy(Long carId) {
+        CarReservationIntervals set = carIntervals.get(carId);
+        if (set == null) {
+            carOccupancies.remove(carId);
+            return;
+        }
+        LocalDate origin = occupancyOrigin();
+        carOccupancies.put(carId, CarOccupancy.of(origin, occupancyHorizonDays,
+                set.findConflicts(origin.atStartOfDay(), origin.plusDays(occupancyHorizonDays).atStartOfDay())));
+    }
+
+    // test icin: aracın bellekte tutulan bitmap'i
+    CarOccupancy getOccupancy(Long carId) {
+        return carOccupancies.get(carId);
+    }
+
+    private static LocalDate occupancyOrigin() {
+        return LocalDate.now().withDayOfMonth(1);
+    }
+
+    private static CarReservationIntervals emptyToNull(CarReservationIntervals set) {
+        return set.size() == 0 ? null : set;
+    }
+
+    private static void afterCommit(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        } else {
+            action.run();
+        }
+    }
+
+}
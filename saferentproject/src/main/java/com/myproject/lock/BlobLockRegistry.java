@@ -0,0 +1,36 @@
+package com.myproject.lock;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
+
+@Component
+public class BlobLockRegistry {
+
+    // Aynı icerige (SHA-256) ait yükleme ve silme islemleri sıraya sokuluyor (striped lock).
+    // Kilit transaction'ı da kapsıyor: yükleme kaydı commit edilmeden aynı icerigin dosyası silinemez,
+    // silme de referansları kilit altında tekrar kontrol ettikten sonra dosyayı kaldırıyor.
+    // BlobStore node'un yerel diskinde oldugu icin kilit de node bazında.
+
+    private final ReentrantLock[] stripes;
+
+    public BlobLockRegistry(@Value("${saferentproject.app.blobLockStripes:256}") int stripeCount) {
+        this.stripes = new ReentrantLock[stripeCount];
+        for (int i = 0; i < stripeCount; i++) {
+            stripes[i] = new ReentrantLock();
+        }
+    }
+
+    public <T> T executeWithLock(String contentHash, Supplier<T> action) {
+        ReentrantLock lock = stripes[Math.floorMod(contentHash.hashCode(), stripes.length)];
+        lock.lock();
+        try {
+            return action.get();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+}
@@ -0,0 +1,67 @@
+package com.myproject.lock;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayDeque;
+import java.util.Collection;
+import java.util.Deque;
+import java.util.SortedSet;
+import java.util.TreeSet;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
+
+@Component
+public class CarLockRegistry {
+
+    // Rezervasyon islemleri arac bazında sıraya sokuluyor (striped lock).
+    // Aynı araca gelen istekler bekler, farklı araclar paralel calısır.
+    // Birden fazla node icin DB tarafında advisory lock da alınıyor (bkz. ReservationRepository).
+
+    private final ReentrantLock[] stripes;
+
+    public CarLockRegistry(@Value("${saferentproject.app.carLockStripes:1024}") int stripeCount) {
+        this.stripes = new ReentrantLock[stripeCount];
+        for (int i = 0; i < stripeCount; i++) {
+            stripes[i] = new ReentrantLock();
+        }
+    }
+
+    public <T> T executeWithLock(Long carId, Supplier<T> action) {
+        ReentrantLock lock = stripes[stripeIndex(carId)];
+        lock.lock();
+        try {
+            return action.get();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // toplu islemlerde birden fazla arac kilitleniyor. Stripe'lar her zaman artan sırada
+    // alındıgı icin aynı anda calısan iki toplu islem birbirini kilitleyemez (deadlock yok)
+    public <T> T executeWithLocks(Collection<Long> carIds, Supplier<T> action) {
+        SortedSet<Integer> indexes = new TreeSet<>();
+        carIds.forEach(carId -> indexes.add(stripeIndex(carId)));
+
+        Deque<ReentrantLock> acquired = new ArrayDeque<>();
+        try {
+            for (Integer index : indexes) {
+                ReentrantLock lock = stripes[index];
+                lock.lock();
+                acquired.push(lock);
+            }
+            return action.get();
+        } finally {
+            while (!acquired.isEmpty()) {
+                acquired.pop().unlock();
+            }
+        }
+    }
+
+    int stripeIndex(Long carId) {
+        int hash = Long.hashCode(carId);
+        hash ^= (hash >>> 16);
+        return Math.floorMod(hash, stripes.length);
+    }
+
+}
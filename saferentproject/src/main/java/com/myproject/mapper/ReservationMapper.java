@@ -17,7 +17,14 @@ import java.util.stream.Collectors;
 @Mapper(componentModel = "spring")
 public interface ReservationMapper {
 
-
+    // id, arac, kullanıcı, durum ve fiyat serviste setleniyor, audit kolonlarını Hibernate dolduruyor
+    @Mapping(target = "id", ignore = true)
+    @Mapping(target = "car", ignore = true)
+    @Mapping(target = "user", ignore = true)
+    @Mapping(target = "status", ignore = true)
+    @Mapping(target = "totalPrice", ignore = true)
+    @Mapping(target = "createdAt", ignore = true)
+    @Mapping(target = "updatedAt", ignore = true)
     Reservation reservationRequestToReservation(ReservationRequest reservationRequest);
 
 
@@ -0,0 +1,92 @@
+package com.myproject.pagination;
+
+import com.myproject.dto.response.KeysetPage;
+import com.myproject.exception.BadRequestException;
+import com.myproject.exception.message.ErrorMessage;
+import lombok.Getter;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Sort;
+import org.springframework.util.StringUtils;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.List;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+@Getter
+public class KeysetCursor {
+
+    // OFFSET yerine son okunan id'den devam eden (keyset / seek) sayfalama.
+    // Client'a yön ve son id base64 ile kodlanmıs opak bir token olarak veriliyor,
+    // bir sonraki istekte "id > lastId" (veya DESC icin "id < lastId") ile devam ediliyor.
+    // Böylece N. sayfa da 1. sayfa kadar hızlı, count(*) sorgusu da yok.
+
+    public static final int MAX_PAGE_SIZE = 1000;
+
+    private final Sort.Direction direction;
+
+    // ilk sayfa icin null
+    private final Long lastId;
+
+    private KeysetCursor(Sort.Direction direction, Long lastId) {
+        this.direction = direction;
+        this.lastId = lastId;
+    }
+
+    // cursor yoksa ilk sayfa, varsa cursor icindeki yön gecerli
+    public static KeysetCursor decode(String cursor, Sort.Direction direction) {
+        if (!StringUtils.hasText(cursor)) {
+            return new KeysetCursor(direction, null);
+        }
+        try {
+            String value = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            String[] parts = value.split(":");
+            if (parts.length != 2) {
+                throw new IllegalArgumentException(value);
+            }
+            Sort.Direction cursorDirection = "A".equals(parts[0]) ? Sort.Direction.ASC : Sort.Direction.DESC;
+            return new KeysetCursor(cursorDirection, Long.parseLong(parts[1]));
+        } catch (IllegalArgumentException e) {
+            throw new BadRequestException(String.format(ErrorMessage.INVALID_PAGE_CURSOR_MESSAGE, cursor));
+        }
+    }
+
+    public String encode() {
+        String value = (direction.isAscending() ? "A" : "D") + ":" + lastId;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(value.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public boolean isAscending() {
+        return direction.isAscending();
+    }
+
+    // ilk sayfada tüm id'ler sınırın icinde kalıyor
+    public Long boundary() {
+        if (lastId != null) {
+            return lastId;
+        }
+        return isAscending() ? Long.MIN_VALUE : Long.MAX_VALUE;
+    }
+
+    // Slice dönen sorgular size+1 kayıt cekip sonraki sayfa var mı anlıyor, count yapılmıyor
+    public Pageable toPageable(int size) {
+        if (size < 1 || size > MAX_PAGE_SIZE) {
+            throw new BadRequestException(String.format(ErrorMessage.INVALID_PAGE_SIZE_MESSAGE, MAX_PAGE_SIZE));
+        }
+        return PageRequest.of(0, size, Sort.by(direction, "id"));
+    }
+
+    public <E, D> KeysetPage<D> next(Slice<E> slice, Function<E, Long> idOf, Function<E, D> mapper) {
+        List<D> content = slice.getContent().stream().map(mapper).collect(Collectors.toList());
+        String nextCursor = null;
+        if (slice.hasNext() && slice.hasContent()) {
+            E last = slice.getContent().get(slice.getNumberOfElements() - 1);
+            nextCursor = new KeysetCursor(direction, idOf.apply(last)).encode();
+        }
+        return new KeysetPage<>(content, content.size(), slice.hasNext(), nextCursor);
+    }
+
+}
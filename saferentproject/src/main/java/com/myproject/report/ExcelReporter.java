@@ -8,17 +8,20 @@ import com.myproject.domain.User;
 import org.apache.poi.ss.usermodel.Cell;
 import org.apache.poi.ss.usermodel.Row;
 import org.apache.poi.ss.usermodel.Sheet;
-import org.apache.poi.ss.usermodel.Workbook;
-import org.apache.poi.xssf.usermodel.XSSFWorkbook;
+import org.apache.poi.xssf.streaming.SXSSFWorkbook;
 
-import java.io.ByteArrayInputStream;
-import java.io.ByteArrayOutputStream;
 import java.io.IOException;
-import java.util.List;
+import java.io.OutputStream;
+import java.util.Iterator;
 import java.util.StringJoiner;
+import java.util.function.IntConsumer;
+import java.util.stream.Stream;
 
 public class ExcelReporter {
 
+    // !!! SXSSF : bellekte sadece son ROW_WINDOW satır tutulur, eskiler temp dosyaya yazılır
+    static int ROW_WINDOW = 100;
+
     // !!! USER ******************
     static String SHEET_USER = "Users";
     static String[] USER_HEADERS = {"id","FirstName","LastName","PhoneNumber",
@@ -39,132 +42,128 @@ public class ExcelReporter {
             "PickUpLocation",
             "DropOffLocation", "Status"};
 
+    // rowWritten : her satır yazıldıktan sonra o ana kadar yazılan satır sayısı ile cagrılır
+
     //*********************************************************
     //*******************USER_REPORT***********************
     //*********************************************************
-    public static ByteArrayInputStream getUserExcelReport(List<User> users) throws IOException {
-        Workbook workbook = new XSSFWorkbook();
-
-        ByteArrayOutputStream out = new ByteArrayOutputStream();
-        Sheet sheet = workbook.createSheet(SHEET_USER);
-        Row headerRow =  sheet.createRow(0);
-
-        // header row dolduruluyor
-        for(int i=0; i< USER_HEADERS.length; i++) {
-            Cell cell = headerRow.createCell(i);
-            cell.setCellValue(USER_HEADERS[i]);
-        }
-
-        // dataları dolduruyoruz
-        int rowId = 1;
-        for(User user : users) {
-            Row row = sheet.createRow(rowId++);
-            row.createCell(0).setCellValue(user.getId());
-            row.createCell(1).setCellValue(user.getFirstName());
-            row.createCell(2).setCellValue(user.getLastName());
-            row.createCell(3).setCellValue(user.getPhoneNumber());
-            row.createCell(4).setCellValue(user.getEmail());
-            row.createCell(5).setCellValue(user.getAddress());
-            row.createCell(6).setCellValue(user.getZipCode());
-
-            // Customer , Administrator
-            StringJoiner sj = new StringJoiner(",");
-
-            for(Role role : user.getRoles()) {
-                sj.add(role.getType().getName());
+    public static void writeUserExcelReport(Stream<User> users, OutputStream out,
+                                            IntConsumer rowWritten) throws IOException {
+        SXSSFWorkbook workbook = new SXSSFWorkbook(ROW_WINDOW);
+        try {
+            Sheet sheet = workbook.createSheet(SHEET_USER);
+            createHeaderRow(sheet, USER_HEADERS);
+
+            // dataları dolduruyoruz
+            int rowId = 1;
+            for (Iterator<User> it = users.iterator(); it.hasNext(); ) {
+                User user = it.next();
+                Row row = sheet.createRow(rowId++);
+                row.createCell(0).setCellValue(user.getId());
+                row.createCell(1).setCellValue(user.getFirstName());
+                row.createCell(2).setCellValue(user.getLastName());
+                row.createCell(3).setCellValue(user.getPhoneNumber());
+                row.createCell(4).setCellValue(user.getEmail());
+                row.createCell(5).setCellValue(user.getAddress());
+                row.createCell(6).setCellValue(user.getZipCode());
+
+                // Customer , Administrator
+                StringJoiner sj = new StringJoiner(",");
+
+                for(Role role : user.getRoles()) {
+                    sj.add(role.getType().getName());
+                }
+
+                row.createCell(7).setCellValue(sj.toString());
+
+                rowWritten.accept(rowId - 1);
             }
-
-            row.createCell(7).setCellValue(sj.toString());
-
-
+            workbook.write(out);
+        } finally {
+            workbook.dispose();
+            workbook.close();
         }
-        workbook.write(out);
-        workbook.close();
-
-        return new ByteArrayInputStream(out.toByteArray());
-
     }
 
     //*********************************************************
     //*******************CAR_REPORT***********************
     //*********************************************************
-    public static ByteArrayInputStream getCarExcelReport(List<Car> cars) throws IOException {
-        Workbook workbook = new XSSFWorkbook();
-
-        ByteArrayOutputStream out = new ByteArrayOutputStream();
-        Sheet sheet = workbook.createSheet(SHEET_CAR);
-        Row headerRow =  sheet.createRow(0);
-
-        // header row dolduruluyor
-        for(int i=0; i< CAR_HEADERS.length; i++) {
-            Cell cell = headerRow.createCell(i);
-            cell.setCellValue(CAR_HEADERS[i]);
-        }
-
-        // dataları dolduruyoruz
-        int rowId = 1;
-        for(Car car : cars) {
-            Row row = sheet.createRow(rowId++);
-            row.createCell(0).setCellValue(car.getId());
-            row.createCell(1).setCellValue(car.getModel());
-            row.createCell(2).setCellValue(car.getDoors());
-            row.createCell(3).setCellValue(car.getSeats());
-            row.createCell(4).setCellValue(car.getLuggage());
-            row.createCell(5).setCellValue(car.getTransmission());
-            row.createCell(6).setCellValue(car.getAirConditioning() ? "+" : "-");
-            row.createCell(7).setCellValue(car.getAge());
-            row.createCell(8).setCellValue(car.getPricePerHour());
-            row.createCell(9).setCellValue(car.getFuelType());
-
-
+    public static void writeCarExcelReport(Stream<Car> cars, OutputStream out,
+                                           IntConsumer rowWritten) throws IOException {
+        SXSSFWorkbook workbook = new SXSSFWorkbook(ROW_WINDOW);
+        try {
+            Sheet sheet = workbook.createSheet(SHEET_CAR);
+            createHeaderRow(sheet, CAR_HEADERS);
+
+            // dataları dolduruyoruz
+            int rowId = 1;
+            for (Iterator<Car> it = cars.iterator(); it.hasNext(); ) {
+                Car car = it.next();
+                Row row = sheet.createRow(rowId++);
+                row.createCell(0).setCellValue(car.getId());
+                row.createCell(1).setCellValue(car.getModel());
+                row.createCell(2).setCellValue(car.getDoors());
+                row.createCell(3).setCellValue(car.getSeats());
+                row.createCell(4).setCellValue(car.getLuggage());
+                row.createCell(5).setCellValue(car.getTransmission());
+                row.createCell(6).setCellValue(car.getAirConditioning() ? "+" : "-");
+                row.createCell(7).setCellValue(car.getAge());
+                row.createCell(8).setCellValue(car.getPricePerHour());
+                row.createCell(9).setCellValue(car.getFuelType());
+
+                rowWritten.accept(rowId - 1);
+            }
+            workbook.write(out);
+        } finally {
+            workbook.dispose();
+            workbook.close();
         }
-        workbook.write(out);
-        workbook.close();
-
-        return new ByteArrayInputStream(out.toByteArray());
-
     }
 
     //*********************************************************
     //*******************RESERVATION_REPORT********************
     //*********************************************************
-    public static ByteArrayInputStream getReservationExcelReport(List<Reservation> reservations) throws IOException {
-        Workbook workbook = new XSSFWorkbook();
-
-        ByteArrayOutputStream out = new ByteArrayOutputStream();
-        Sheet sheet = workbook.createSheet(SHEET_RESERVATION);
-        Row headerRow =  sheet.createRow(0);
-
-        // header row dolduruluyor
-        for(int i=0; i< RESERVATION_HEADERS.length; i++) {
-            Cell cell = headerRow.createCell(i);
-            cell.setCellValue(RESERVATION_HEADERS[i]);
+    public static void writeReservationExcelReport(Stream<Reservation> reservations, OutputStream out,
+                                                   IntConsumer rowWritten) throws IOException {
+        SXSSFWorkbook workbook = new SXSSFWorkbook(ROW_WINDOW);
+        try {
+            Sheet sheet = workbook.createSheet(SHEET_RESERVATION);
+            createHeaderRow(sheet, RESERVATION_HEADERS);
+
+            // dataları dolduruyoruz
+            int rowId = 1;
+            for (Iterator<Reservation> it = reservations.iterator(); it.hasNext(); ) {
+                Reservation reservation = it.next();
+                Row row = sheet.createRow(rowId++);
+
+                row.createCell(0).setCellValue(reservation.getId());
+                row.createCell(1).setCellValue(reservation.getCar().getId());
+                row.createCell(2).setCellValue(reservation.getCar().getModel());
+                row.createCell(3).setCellValue(reservation.getUser().getId());
+                row.createCell(4).setCellValue(reservation.getUser().getFirstName() + " " + reservation.getUser().getLastName());
+                row.createCell(5).setCellValue(reservation.getUser().getPhoneNumber());
+                row.createCell(6).setCellValue(reservation.getPickUpTime().toString());
+                row.createCell(7).setCellValue(reservation.getDropOfTime().toString());
+                row.createCell(8).setCellValue(reservation.getPickUpLocation().toString());
+                row.createCell(9).setCellValue(reservation.getDropOfLocation().toString());
+                row.createCell(10).setCellValue(reservation.getStatus().toString());
+
+                rowWritten.accept(rowId - 1);
+            }
+            workbook.write(out);
+        } finally {
+            workbook.dispose();
+            workbook.close();
         }
+    }
 
-        // dataları dolduruyoruz
-        int rowId = 1;
-        for (Reservation reservation : reservations) {
-            Row row = sheet.createRow(rowId++);
-
-            row.createCell(0).setCellValue(reservation.getId());
-            row.createCell(1).setCellValue(reservation.getCar().getId());
-            row.createCell(2).setCellValue(reservation.getCar().getModel());
-            row.createCell(3).setCellValue(reservation.getUser().getId());
-            row.createCell(4).setCellValue(reservation.getUser().getFirstName() + " " + reservation.getUser().getLastName());
-            row.createCell(5).setCellValue(reservation.getUser().getPhoneNumber());
-            row.createCell(6).setCellValue(reservation.getPickUpTime().toString());
-            row.createCell(7).setCellValue(reservation.getDropOfTime().toString());
-            row.createCell(8).setCellValue(reservation.getPickUpLocation().toString());
-            row.createCell(9).setCellValue(reservation.getDropOfLocation().toString());
-            row.createCell(10).setCellValue(reservation.getStatus().toString());
-
-
+    // header row dolduruluyor
+    private static void createHeaderRow(Sheet sheet, String[] headers) {
+        Row headerRow = sheet.createRow(0);
+        for (int i = 0; i < headers.length; i++) {
+            Cell cell = headerRow.createCell(i);
+            cell.setCellValue(headers[i]);
         }
-        workbook.write(out);
-        workbook.close();
-
-        return new ByteArrayInputStream(out.toByteArray());
-
     }
 
 }
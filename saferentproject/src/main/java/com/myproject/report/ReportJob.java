@@ -0,0 +1,82 @@
+package com.myproject.report;
+
+import com.myproject.dto.request.ReservationReportFilter;
+import lombok.Getter;
+
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+
+@Getter
+public class ReportJob {
+
+    // Arka planda olusturulan bir excel raporunun durumu.
+    // Alanlar rapor thread'i tarafından güncellenip status endpoint'inden okunuyor.
+
+    private final String id;
+
+    private final ReportType type;
+
+    // rezervasyon raporu filtreleri (diger raporlarda null)
+    private final ReservationReportFilter filter;
+
+    private final LocalDateTime createdAt = LocalDateTime.now();
+
+    private volatile ReportJobStatus status = ReportJobStatus.QUEUED;
+
+    // rapor baslarken sayılan satır sayısı, ilerleme yüzdesi icin
+    private volatile long totalRows;
+
+    private volatile int rowsWritten;
+
+    private volatile Path file;
+
+    private volatile long fileSize;
+
+    private volatile LocalDateTime finishedAt;
+
+    private volatile String errorMessage;
+
+    public ReportJob(String id, ReportType type, ReservationReportFilter filter) {
+        this.id = id;
+        this.type = type;
+        this.filter = filter;
+    }
+
+    public void started(long totalRows) {
+        this.totalRows = totalRows;
+        this.status = ReportJobStatus.RUNNING;
+    }
+
+    public void rowWritten(int rowCount) {
+        this.rowsWritten = rowCount;
+    }
+
+    public void done(Path file, long fileSize) {
+        this.file = file;
+        this.fileSize = fileSize;
+        this.finishedAt = LocalDateTime.now();
+        this.status = ReportJobStatus.DONE;
+    }
+
+    public void failed(String errorMessage) {
+        this.errorMessage = errorMessage;
+        this.finishedAt = LocalDateTime.now();
+        this.status = ReportJobStatus.FAILED;
+    }
+
+    public boolean isFinished() {
+        return status == ReportJobStatus.DONE || status == ReportJobStatus.FAILED;
+    }
+
+    // dosya workbook.write ile en sonda yazıldıgı icin tamamlanana kadar en fazla %99
+    public int getProgress() {
+        if (status == ReportJobStatus.DONE) {
+            return 100;
+        }
+        if (totalRows <= 0) {
+            return 0;
+        }
+        return (int) Math.min(99, rowsWritten * 100L / totalRows);
+    }
+
+}
@@ -0,0 +1,13 @@
+package com.myproject.report;
+
+public enum ReportJobStatus {
+
+    QUEUED,
+
+    RUNNING,
+
+    DONE,
+
+    FAILED
+
+}
@@ -0,0 +1,32 @@
+package com.myproject.report;
+
+import com.myproject.domain.Car;
+import com.myproject.domain.Reservation;
+import com.myproject.domain.User;
+
+public enum ReportType {
+
+    USERS("users.xlsx", User.class),
+
+    CARS("cars.xlsx", Car.class),
+
+    RESERVATIONS("reservations.xlsx", Reservation.class);
+
+    private final String fileName;
+
+    private final Class<?> entityClass;
+
+    ReportType(String fileName, Class<?> entityClass) {
+        this.fileName = fileName;
+        this.entityClass = entityClass;
+    }
+
+    public String getFileName() {
+        return fileName;
+    }
+
+    public Class<?> getEntityClass() {
+        return entityClass;
+    }
+
+}
@@ -0,0 +1,17 @@
+package com.myproject.repository;
+
+import com.myproject.domain.CacheInvalidation;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface CacheInvalidationRepository extends JpaRepository<CacheInvalidation, String> {
+
+    @Modifying
+    @Query("UPDATE CacheInvalidation c SET c.version = c.version + 1 WHERE c.cacheName = :cacheName")
+    int incrementVersion(@Param("cacheName") String cacheName);
+
+}
@@ -3,17 +3,26 @@ package com.myproject.repository;
 import com.myproject.domain.Car;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import javax.persistence.QueryHint;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
+
+import static org.hibernate.jpa.QueryHints.HINT_FETCH_SIZE;
 
 @Repository
-public interface CarRepository extends JpaRepository<Car,Long> {
+public interface CarRepository extends JpaRepository<Car,Long>, JpaSpecificationExecutor<Car> {
 
     // JPQL
 
@@ -37,6 +46,20 @@ public interface CarRepository extends JpaRepository<Car,Long> {
     List<Car> findCarsByImageId(@Param("id") String id);
 
 
-    @EntityGraph(attributePaths = "id")
-    List<Car> getAllBy();
+    // keyset (seek) sayfalama: son okunan id'den devam ediliyor, count sorgusu yok
+    Slice<Car> findByIdGreaterThan(Long id, Pageable pageable);
+
+    Slice<Car> findByIdLessThan(Long id, Pageable pageable);
+
+    // count(*) yapılmadan sayfalama (Slice)
+    Slice<Car> findSliceBy(Pageable pageable);
+
+    // rapor icin DB cursor'u üzerinden satır satır okuma
+    @QueryHints(@QueryHint(name = HINT_FETCH_SIZE, value = "500"))
+    @Query("Select c From Car c Order By c.id")
+    Stream<Car> streamAll();
+
+    // musait arac aramasında kullanılıyor (bkz. CarSpecifications)
+    @EntityGraph(attributePaths = "image")
+    List<Car> findAll(Specification<Car> spec, Sort sort);
 }
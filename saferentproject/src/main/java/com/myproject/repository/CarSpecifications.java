@@ -0,0 +1,55 @@
+package com.myproject.repository;
+
+import com.myproject.domain.Car;
+import com.myproject.domain.Reservation;
+import com.myproject.domain.enums.ReservationStatus;
+import org.springframework.data.jpa.domain.Specification;
+
+import javax.persistence.criteria.Root;
+import javax.persistence.criteria.Subquery;
+import java.time.LocalDateTime;
+
+public class CarSpecifications {
+
+    // arac arama filtreleri, null gelen filtre sorguya eklenmiyor
+
+    // verilen zaman aralıgında cakısan aktif rezervasyonu olmayan araclar (anti-join)
+    public static Specification<Car> availableBetween(LocalDateTime pickUpTime,
+                                                      LocalDateTime dropOfTime,
+                                                      ReservationStatus[] status) {
+        return (root, query, cb) -> {
+            query.distinct(true);
+            Subquery<Long> conflicts = query.subquery(Long.class);
+            Root<Reservation> reservation = conflicts.from(Reservation.class);
+            conflicts.select(reservation.get("id")).where(
+                    cb.equal(reservation.get("car"), root),
+                    cb.not(reservation.get("status").in((Object[]) status)),
+                    cb.lessThan(reservation.get("pickUpTime"), dropOfTime),
+                    cb.greaterThan(reservation.get("dropOfTime"), pickUpTime));
+            return cb.not(cb.exists(conflicts));
+        };
+    }
+
+    public static Specification<Car> minSeats(Integer seats) {
+        return seats == null ? null : (root, query, cb) -> cb.greaterThanOrEqualTo(root.get("seats"), seats);
+    }
+
+    public static Specification<Car> transmission(String transmission) {
+        return transmission == null ? null :
+                (root, query, cb) -> cb.equal(cb.lower(root.get("transmission")), transmission.toLowerCase());
+    }
+
+    public static Specification<Car> fuelType(String fuelType) {
+        return fuelType == null ? null :
+                (root, query, cb) -> cb.equal(cb.lower(root.get("fuelType")), fuelType.toLowerCase());
+    }
+
+    public static Specification<Car> minPrice(Double minPrice) {
+        return minPrice == null ? null : (root, query, cb) -> cb.greaterThanOrEqualTo(root.get("pricePerHour"), minPrice);
+    }
+
+    public static Specification<Car> maxPrice(Double maxPrice) {
+        return maxPrice == null ? null : (root, query, cb) -> cb.lessThanOrEqualTo(root.get("pricePerHour"), maxPrice);
+    }
+
+}
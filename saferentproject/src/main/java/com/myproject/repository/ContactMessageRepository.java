@@ -1,11 +1,32 @@
 package com.myproject.repository;
 
 import com.myproject.domain.ContactMessage;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.stereotype.Repository;
 
+import javax.persistence.QueryHint;
+import java.util.stream.Stream;
+
+import static org.hibernate.jpa.QueryHints.HINT_FETCH_SIZE;
+
 @Repository
 public interface ContactMessageRepository extends JpaRepository<ContactMessage,Long> {
 
+    // keyset (seek) sayfalama: son okunan id'den devam ediliyor, count sorgusu yok
+    Slice<ContactMessage> findByIdGreaterThan(Long id, Pageable pageable);
+
+    Slice<ContactMessage> findByIdLessThan(Long id, Pageable pageable);
+
+    // count(*) yapılmadan sayfalama (Slice)
+    Slice<ContactMessage> findSliceBy(Pageable pageable);
+
+    // tüm mesajları DB cursor'u üzerinden satır satır okuma
+    @QueryHints(@QueryHint(name = HINT_FETCH_SIZE, value = "500"))
+    @Query("Select m From ContactMessage m Order By m.id")
+    Stream<ContactMessage> streamAll();
 
 }
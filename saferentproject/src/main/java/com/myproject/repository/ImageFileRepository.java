@@ -3,10 +3,16 @@ package com.myproject.repository;
 import com.myproject.domain.ImageFile;
 import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
+import javax.persistence.QueryHint;
+
+import static org.hibernate.jpa.QueryHints.HINT_FETCH_SIZE;
 
 @Repository
 public interface ImageFileRepository extends JpaRepository<ImageFile,String> {
@@ -16,4 +22,11 @@ public interface ImageFileRepository extends JpaRepository<ImageFile,String> {
 
     @EntityGraph(attributePaths = "id")
     Optional<ImageFile> findImageById(String id);
+
+    boolean existsByContentHash(String contentHash);
+
+    // tüm resim bilgilerini DB cursor'u üzerinden satır satır okuma
+    @QueryHints(@QueryHint(name = HINT_FETCH_SIZE, value = "500"))
+    @Query("Select i From ImageFile i Order By i.id")
+    Stream<ImageFile> streamAll();
 }
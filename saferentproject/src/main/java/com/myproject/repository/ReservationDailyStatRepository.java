@@ -0,0 +1,29 @@
+package com.myproject.repository;
+
+import com.myproject.analytics.StatTotals;
+import com.myproject.domain.ReservationDailyStat;
+import com.myproject.domain.ReservationDailyStatId;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+import java.util.List;
+
+@Repository
+public interface ReservationDailyStatRepository extends JpaRepository<ReservationDailyStat, ReservationDailyStatId> {
+
+    @Query("SELECT new com.myproject.analytics.StatTotals(s.statDate, sum(s.reservationCount), sum(s.canceledCount), " +
+           "sum(s.revenue), sum(s.rentedMinutes), sum(s.leadTimeMinutes), sum(s.leadTimeCount)) " +
+           "FROM ReservationDailyStat s WHERE s.statDate BETWEEN :from AND :to " +
+           "GROUP BY s.statDate ORDER BY s.statDate")
+    List<StatTotals> sumByDate(@Param("from") LocalDate from, @Param("to") LocalDate to);
+
+    @Query("SELECT new com.myproject.analytics.StatTotals(s.carId, sum(s.reservationCount), sum(s.canceledCount), " +
+           "sum(s.revenue), sum(s.rentedMinutes), sum(s.leadTimeMinutes), sum(s.leadTimeCount)) " +
+           "FROM ReservationDailyStat s WHERE s.statDate BETWEEN :from AND :to " +
+           "GROUP BY s.carId")
+    List<StatTotals> sumByCar(@Param("from") LocalDate from, @Param("to") LocalDate to);
+
+}
@@ -1,36 +1,54 @@
 package com.myproject.repository;
 
+import com.myproject.analytics.ReservationStatSample;
 import com.myproject.domain.Car;
 import com.myproject.domain.Reservation;
 import com.myproject.domain.User;
 import com.myproject.domain.enums.ReservationStatus;
+import com.myproject.index.ReservationInterval;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import javax.persistence.QueryHint;
 import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
+
+import static org.hibernate.jpa.QueryHints.HINT_FETCH_SIZE;
 
 @Repository
 public interface ReservationRepository extends JpaRepository<Reservation,Long> {
 
 
-    @Query("Select r From Reservation r " +
-            "Join Fetch Car c on r.car=c.id Where " +
-            "c.id=:carId and (r.status not in :status) and :pickUpTime Between r.pickUpTime and r.dropOfTime " +
-            "or " +
-            "c.id=:carId and (r.status not in :status) and :dropOfTime Between r.pickUpTime and r.dropOfTime " +
-            "or " +
-            "c.id=:carId and (r.status not in :status) and (r.pickUpTime Between :pickUpTime and :dropOfTime)")
-    List<Reservation> checkCarStatus(@Param("carId") Long carId,
-                                     @Param("pickUpTime") LocalDateTime pickUpTime,
-                                     @Param("dropOfTime") LocalDateTime  dropOfTime,
-                                     @Param("status") ReservationStatus[] status);
+    // cakısma kontrolü: [pickUpTime, dropOfTime) yarı acık aralıklar, mevcut rezervasyon istenen
+    // aralık bitmeden baslıyor ve istenen aralık baslamadan bitmiyorsa cakısıyor (bir rezervasyonun
+    // bittigi saatte baslayan rezervasyon cakısma sayılmaz). Sorgu tek bir aralık kosulu oldugu icin
+    // (car_id, status, pick_up_time, drop_of_time) index'i (V2 migration) ile cevaplanıyor, entity yüklenmiyor
+    @Query("Select case when count(r) > 0 then true else false end From Reservation r " +
+            "Where r.car.id = :carId and r.status not in :status " +
+            "and r.pickUpTime < :dropOfTime and r.dropOfTime > :pickUpTime")
+    boolean existsConflict(@Param("carId") Long carId,
+                           @Param("pickUpTime") LocalDateTime pickUpTime,
+                           @Param("dropOfTime") LocalDateTime dropOfTime,
+                           @Param("status") ReservationStatus[] status);
+
+    // update islemi icin: güncellenen rezervasyonun kendisi cakısma sayılmıyor
+    @Query("Select case when count(r) > 0 then true else false end From Reservation r " +
+            "Where r.car.id = :carId and r.status not in :status " +
+            "and r.pickUpTime < :dropOfTime and r.dropOfTime > :pickUpTime and r.id <> :reservationId")
+    boolean existsConflictExcluding(@Param("carId") Long carId,
+                                    @Param("pickUpTime") LocalDateTime pickUpTime,
+                                    @Param("dropOfTime") LocalDateTime dropOfTime,
+                                    @Param("status") ReservationStatus[] status,
+                                    @Param("reservationId") Long reservationId);
 
 
     @EntityGraph(attributePaths = {"car","car.image"})
@@ -50,11 +68,54 @@ public interface ReservationRepository extends JpaRepository<Reservation,Long> {
     @EntityGraph(attributePaths = {"car", "car.image","user"})
     Optional<Reservation> findByIdAndUser(Long id, User user);
 
+    // keyset (seek) sayfalama: son okunan id'den devam ediliyor, count sorgusu yok
+    @EntityGraph(attributePaths = {"car","user"})
+    Slice<Reservation> findByIdGreaterThan(Long id, Pageable pageable);
+
+    @EntityGraph(attributePaths = {"car","user"})
+    Slice<Reservation> findByIdLessThan(Long id, Pageable pageable);
+
+    // count(*) yapılmadan sayfalama (Slice)
+    @EntityGraph(attributePaths = {"car","user"})
+    Slice<Reservation> findSliceBy(Pageable pageable);
+
+
+    // güncelleme/silme öncesi hangi aracın kilidinin alınacagını bulmak icin
+    @Query("Select r.car.id From Reservation r Where r.id = :id")
+    Optional<Long> findCarIdById(@Param("id") Long id);
+
+    // aynı arac icin eszamanlı rezervasyonları transaction sonuna kadar sıraya sokar (tüm node'lar icin)
+    @Query(value = "SELECT count(*) FROM (SELECT pg_advisory_xact_lock(:carId)) AS car_lock", nativeQuery = true)
+    Long lockCarForBooking(@Param("carId") Long carId);
+
 
     boolean existsByCar(Car car);
 
     boolean existsByUser(User user);
 
-    @EntityGraph(attributePaths = {"car","user"})
-    List<Reservation> findAllBy();
+    // rapor icin DB cursor'u üzerinden satır satır okuma
+    @QueryHints(@QueryHint(name = HINT_FETCH_SIZE, value = "500"))
+    @Query("Select r From Reservation r Join Fetch r.car Join Fetch r.user Order By r.id")
+    Stream<Reservation> streamAll();
+
+    // toplu rezervasyonda arac basına tek sorgu: istenen tüm aralıkları kapsayan zaman dilimindeki aktif rezervasyonlar
+    @Query("Select new com.myproject.index.ReservationInterval(r.id, r.car.id, r.pickUpTime, r.dropOfTime) " +
+            "From Reservation r Where r.car.id = :carId and r.status not in :status " +
+            "and r.pickUpTime < :dropOfTime and r.dropOfTime > :pickUpTime")
+    List<ReservationInterval> findActiveIntervalsByCar(@Param("carId") Long carId,
+                                                       @Param("pickUpTime") LocalDateTime pickUpTime,
+                                                       @Param("dropOfTime") LocalDateTime dropOfTime,
+                                                       @Param("status") ReservationStatus[] status);
+
+    // bellekteki musaitlik index'ini doldurmak icin sadece gerekli kolonlar okunuyor
+    @Query("Select new com.myproject.index.ReservationInterval(r.id, r.car.id, r.pickUpTime, r.dropOfTime) " +
+            "From Reservation r Where r.status not in :status")
+    List<ReservationInterval> findActiveIntervals(@Param("status") ReservationStatus[] status);
+
+    // analytics özet tablosu (t_reservation_daily_stat) icin bir aracın bir gün ile kesisen rezervasyonları
+    @Query("Select new com.myproject.analytics.ReservationStatSample(r.status, r.totalPrice, r.pickUpTime, r.dropOfTime, r.createdAt) " +
+            "From Reservation r Where r.car.id = :carId and r.pickUpTime < :to and r.dropOfTime >= :from")
+    List<ReservationStatSample> findStatSamples(@Param("carId") Long carId,
+                                                @Param("from") LocalDateTime from,
+                                                @Param("to") LocalDateTime to);
 }
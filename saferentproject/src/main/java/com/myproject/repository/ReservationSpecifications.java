@@ -0,0 +1,44 @@
+package com.myproject.repository;
+
+import com.myproject.domain.Reservation;
+import com.myproject.domain.enums.ReservationStatus;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+public class ReservationSpecifications {
+
+    // rezervasyon raporu filtreleri, null gelen filtre sorguya eklenmiyor
+
+    // [from, to) aralıgıyla kesisen rezervasyonlar (yarı acık, ReservationRepository.existsConflict ile aynı)
+    public static Specification<Reservation> pickUpBefore(LocalDateTime to) {
+        return to == null ? null : (root, query, cb) -> cb.lessThan(root.get("pickUpTime"), to);
+    }
+
+    public static Specification<Reservation> dropOfAfter(LocalDateTime from) {
+        return from == null ? null : (root, query, cb) -> cb.greaterThan(root.get("dropOfTime"), from);
+    }
+
+    public static Specification<Reservation> statusIn(List<ReservationStatus> status) {
+        return status == null || status.isEmpty() ? null : (root, query, cb) -> root.get("status").in(status);
+    }
+
+    public static Specification<Reservation> carId(Long carId) {
+        return carId == null ? null : (root, query, cb) -> cb.equal(root.get("car").get("id"), carId);
+    }
+
+    public static Specification<Reservation> userId(Long userId) {
+        return userId == null ? null : (root, query, cb) -> cb.equal(root.get("user").get("id"), userId);
+    }
+
+    // artımlı export : (since, until] aralıgında eklenen/güncellenen rezervasyonlar
+    public static Specification<Reservation> updatedAfter(LocalDateTime since) {
+        return since == null ? null : (root, query, cb) -> cb.greaterThan(root.get("updatedAt"), since);
+    }
+
+    public static Specification<Reservation> updatedUntil(LocalDateTime until) {
+        return until == null ? null : (root, query, cb) -> cb.lessThanOrEqualTo(root.get("updatedAt"), until);
+    }
+
+}
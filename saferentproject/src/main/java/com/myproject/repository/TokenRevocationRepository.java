@@ -0,0 +1,25 @@
+package com.myproject.repository;
+
+import com.myproject.domain.TokenRevocation;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface TokenRevocationRepository extends JpaRepository<TokenRevocation, String> {
+
+    List<TokenRevocation> findByRevokedAtGreaterThan(long revokedAt);
+
+    @Modifying
+    @Query("UPDATE TokenRevocation t SET t.revokedAt = :revokedAt WHERE t.email = :email AND t.revokedAt < :revokedAt")
+    int markRevoked(@Param("email") String email, @Param("revokedAt") long revokedAt);
+
+    @Modifying
+    @Query("DELETE FROM TokenRevocation t WHERE t.revokedAt < :revokedAt")
+    int deleteExpired(@Param("revokedAt") long revokedAt);
+
+}
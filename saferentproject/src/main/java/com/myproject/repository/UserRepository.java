@@ -3,15 +3,23 @@ package com.myproject.repository;
 import com.myproject.domain.User;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
+import java.util.Set;
+import javax.persistence.QueryHint;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
+
+import static org.hibernate.jpa.QueryHints.HINT_FETCH_SIZE;
 
 @Repository
 public interface UserRepository extends JpaRepository<User, Long> {
@@ -44,6 +52,23 @@ public interface UserRepository extends JpaRepository<User, Long> {
                 @Param("address") String address,
                 @Param("zipCode") String zipCode);
 
+    // keyset (seek) sayfalama: son okunan id'den devam ediliyor, count sorgusu yok
+    Slice<User> findByIdGreaterThan(Long id, Pageable pageable);
+
+    Slice<User> findByIdLessThan(Long id, Pageable pageable);
+
+    // count(*) yapılmadan sayfalama (Slice)
+    Slice<User> findSliceBy(Pageable pageable);
+
+    // rapor icin DB cursor'u üzerinden satır satır okuma (roller @BatchSize ile topluca yükleniyor)
+    @QueryHints(@QueryHint(name = HINT_FETCH_SIZE, value = "500"))
+    @Query("Select u From User u Order By u.id")
+    Stream<User> streamAll();
+
+    // toplu import'ta chunk basına tek sorgu ile mevcut email kontrolü
+    @Query("Select u.email From User u Where u.email In :emails")
+    Set<String> findExistingEmails(@Param("emails") Collection<String> emails);
+
 
 
 
@@ -1,8 +1,12 @@
 package com.myproject.security.jwt;
 
+import com.myproject.security.service.PrincipalCache;
+import com.myproject.security.service.TokenRevocationList;
+import io.jsonwebtoken.Claims;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.core.userdetails.UserDetails;
@@ -16,6 +20,7 @@ import javax.servlet.ServletException;
 import javax.servlet.http.HttpServletRequest;
 import javax.servlet.http.HttpServletResponse;
 import java.io.IOException;
+import java.util.Optional;
 
 public class AuthTokenFilter extends OncePerRequestFilter {
 
@@ -26,6 +31,16 @@ public class AuthTokenFilter extends OncePerRequestFilter {
     @Autowired
     private  UserDetailsService userDetailsService;
 
+    @Autowired
+    private PrincipalCache principalCache;
+
+    @Autowired
+    private TokenRevocationList tokenRevocationList;
+
+    // true ise kullanıcı bilgileri DB yerine token claim'lerinden olusturuluyor
+    @Value("${saferentproject.app.jwtStatelessPrincipal:false}")
+    private boolean statelessPrincipal;
+
     private static final Logger logger = LoggerFactory.getLogger(AuthTokenFilter.class);
 
 
@@ -38,9 +53,10 @@ public class AuthTokenFilter extends OncePerRequestFilter {
         String jwtToken = parseJwt(request);
 
         try {
-            if (jwtToken != null && jwtUtils.validateJwtToken(jwtToken)){
-                String email = jwtUtils.getEmailFromToken(jwtToken);
-                UserDetails userDetails = userDetailsService.loadUserByUsername(email);
+            // token tek seferde valide edilip claim'leri alınıyor
+            Optional<Claims> claims = jwtToken == null ? Optional.empty() : jwtUtils.validateAndGetClaims(jwtToken);
+            if (claims.isPresent()){
+                UserDetails userDetails = resolveUserDetails(claims.get());
 
                 // valide edilen user bilgilerini SecurityContext e gönderiyoruz
                 UsernamePasswordAuthenticationToken authenticationToken =
@@ -58,6 +74,18 @@ public class AuthTokenFilter extends OncePerRequestFilter {
 
     }
 
+    private UserDetails resolveUserDetails(Claims claims){
+        String email = claims.getSubject();
+        if (statelessPrincipal && !tokenRevocationList.isRevoked(email, claims.getIssuedAt())){
+            UserDetails userDetails = jwtUtils.getUserDetailsFromClaims(claims);
+            if (userDetails != null){
+                return userDetails;
+            }
+        }
+        // kullanıcı cache'te yoksa DB'den yükleniyor
+        return principalCache.get(email, claims.getIssuedAt(), userDetailsService::loadUserByUsername);
+    }
+
     private String parseJwt(HttpServletRequest request){
         String header = request.getHeader("Authorization");
         if (StringUtils.hasText(header) && header.startsWith("Bearer ")){
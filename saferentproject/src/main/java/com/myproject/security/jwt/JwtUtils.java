@@ -2,14 +2,28 @@ package com.myproject.security.jwt;
 
 
 
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
 import com.myproject.exception.message.ErrorMessage;
+import com.myproject.security.service.UserDetailsImpl;
 import io.jsonwebtoken.*;
+import io.jsonwebtoken.impl.TextCodec;
 import org.slf4j.*;
 import org.springframework.beans.factory.annotation.*;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.userdetails.*;
 import org.springframework.stereotype.*;
 
+import javax.annotation.PostConstruct;
+import javax.crypto.spec.SecretKeySpec;
+import java.security.Key;
+import java.time.Duration;
+import java.util.Collection;
 import java.util.Date;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Collectors;
 
 @Component
 public class JwtUtils {
@@ -17,40 +31,117 @@ public class JwtUtils {
 
     private static final Logger logger = LoggerFactory.getLogger(JwtUtils.class);
 
+    private static final String CLAIM_USER_ID = "uid";
+    private static final String CLAIM_ROLES = "roles";
+
     @Value("${saferentproject.app.jwtSecret}")
     private String jwtSecret ;
     @Value("${saferentproject.app.jwtExpirationMs}")
     private Long jwtExpirationMs;
+    @Value("${saferentproject.app.verifiedTokenCacheMaxSize:10000}")
+    private long verifiedTokenCacheMaxSize;
+    @Value("${saferentproject.app.verifiedTokenCacheTtlMs:300000}")
+    private long verifiedTokenCacheTtlMs;
+
+    // imza anahtarı ve parser her istekte yeniden olusturulmuyor.
+    // Parser bir kere konfigüre ediliyor, sonrasında sadece okunuyor (thread-safe)
+    private Key signingKey;
+    private JwtParser jwtParser;
+
+    // yakın zamanda imzası dogrulanan token'lar, aynı token ile gelen
+    // isteklerde HMAC dogrulaması tekrar yapılmıyor
+    private Cache<String, Claims> verifiedTokens;
+
+    @PostConstruct
+    public void init(){
+        // jjwt String secret'ı base64 olarak decode ediyordu, mevcut token'lar
+        // geçerli kalsın diye anahtar aynı sekilde olusturuluyor
+        signingKey = new SecretKeySpec(TextCodec.BASE64.decode(jwtSecret), SignatureAlgorithm.HS512.getJcaName());
+        jwtParser = Jwts.parser().setSigningKey(signingKey);
+        verifiedTokens = Caffeine.newBuilder().
+                maximumSize(verifiedTokenCacheMaxSize).
+                expireAfterWrite(Duration.ofMillis(verifiedTokenCacheTtlMs)).
+                build();
+    }
 
     // Generate JWT Token
+    // user id ve roller de imzalı claim olarak token'a ekleniyor,
+    // stateless modda AuthTokenFilter kullanıcıyı DB'ye gitmeden bunlardan olusturuyor
     public String generateJwtToken(UserDetails userDetails){
+        List<String> roles = userDetails.getAuthorities().
+                stream().
+                map(GrantedAuthority::getAuthority).
+                collect(Collectors.toList());
+        Long userId = userDetails instanceof UserDetailsImpl ? ((UserDetailsImpl) userDetails).getId() : null;
+
         return Jwts.builder().
                 setSubject(userDetails.getUsername()).
+                claim(CLAIM_USER_ID, userId).
+                claim(CLAIM_ROLES, roles).
                 setIssuedAt(new Date()).
                 setExpiration(new Date(new Date().getTime() + jwtExpirationMs)).
-                signWith(SignatureAlgorithm.HS512, jwtSecret).
+                signWith(SignatureAlgorithm.HS512, signingKey).
                 compact();
     }
 
     // JWT token icinden email bilgisine ulasacagım
     public String getEmailFromToken(String token){
-        return Jwts.parser().setSigningKey(jwtSecret).
-                parseClaimsJws(token).
-                getBody().
-                getSubject();
+        return validateAndGetClaims(token).
+                map(Claims::getSubject).
+                orElse(null);
     }
 
-    // JWT validate
+    // token tek seferde valide edilip claim'leri (email, issuedAt, roller) dönüyor,
+    // geçersiz token için Optional.empty()
+    public Optional<Claims> validateAndGetClaims(String token){
+        Claims cached = verifiedTokens.getIfPresent(token);
+        if (cached != null){
+            // cache'teki token'ın süresi dolmus olabilir
+            if (isExpired(cached)){
+                verifiedTokens.invalidate(token);
+                logger.error(String.format(ErrorMessage.JWTTOKEN_ERROR_MESSAGE, "JWT expired"));
+                return Optional.empty();
+            }
+            return Optional.of(cached);
+        }
 
-    public boolean validateJwtToken(String token){
         try {
-            Jwts.parser().setSigningKey(jwtSecret).parseClaimsJws(token);
-            return true;
+            Claims claims = jwtParser.parseClaimsJws(token).getBody();
+            verifiedTokens.put(token, claims);
+            return Optional.of(claims);
         } catch (ExpiredJwtException | IllegalArgumentException | SignatureException | MalformedJwtException |
                  UnsupportedJwtException e) {
             logger.error(String.format(ErrorMessage.JWTTOKEN_ERROR_MESSAGE,e.getMessage()));
         }
-        return false;
+        return Optional.empty();
+    }
+
+    // token claim'lerinden UserDetails olusturuluyor, roles claim'i olmayan
+    // (eski) token'lar için null dönüyor
+    public UserDetailsImpl getUserDetailsFromClaims(Claims claims){
+        Object roles = claims.get(CLAIM_ROLES);
+        if (!(roles instanceof Collection)) {
+            return null;
+        }
+        List<SimpleGrantedAuthority> authorities = ((Collection<?>) roles).
+                stream().
+                map(role -> new SimpleGrantedAuthority(role.toString())).
+                collect(Collectors.toList());
+        Number userId = claims.get(CLAIM_USER_ID, Number.class);
+
+        return new UserDetailsImpl(userId == null ? null : userId.longValue(),
+                                   claims.getSubject(), null, authorities);
+    }
+
+    // JWT validate
+
+    public boolean validateJwtToken(String token){
+        return validateAndGetClaims(token).isPresent();
+    }
+
+    private boolean isExpired(Claims claims){
+        Date expiration = claims.getExpiration();
+        return expiration != null && expiration.before(new Date());
     }
 
 
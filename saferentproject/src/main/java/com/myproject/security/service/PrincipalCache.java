@@ -0,0 +1,94 @@
+package com.myproject.security.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.AllArgsConstructor;
+import lombok.EqualsAndHashCode;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.Date;
+import java.util.function.Function;
+
+@Component
+public class PrincipalCache {
+
+    // JWT ile gelen her istekte kullanıcının DB'den tekrar okunmaması icin
+    // UserDetails (email + token üretim zamanı) anahtarı ile sınırlı süre cache'leniyor.
+    // Kullanıcı bilgisi degistiginde UserService tarafından evict ediliyor. Degisiklik baska bir
+    // instance'ta yapıldıysa evict buraya ulasmıyor, bu yüzden yüklendigi andan sonra
+    // TokenRevocationList'te revoke kaydı olan kullanıcının bilgisi DB'den tekrar okunuyor.
+
+    private final Cache<PrincipalKey, CachedPrincipal> cache;
+
+    private final TokenRevocationList tokenRevocationList;
+
+    public PrincipalCache(@Value("${saferentproject.app.principalCacheMaxSize:10000}") long maxSize,
+                          @Value("${saferentproject.app.principalCacheTtlMs:300000}") long ttlMs,
+                          MeterRegistry meterRegistry,
+                          TokenRevocationList tokenRevocationList) {
+        this.tokenRevocationList = tokenRevocationList;
+        this.cache = Caffeine.newBuilder().
+                maximumSize(maxSize).
+                expireAfterWrite(Duration.ofMillis(ttlMs)).
+                recordStats().
+                build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "principalCache");
+    }
+
+    public UserDetails get(String email, Date issuedAt, Function<String, UserDetails> loader) {
+        PrincipalKey key = new PrincipalKey(email, issuedAt == null ? 0L : issuedAt.getTime());
+        CachedPrincipal cached = cache.getIfPresent(key);
+        if (cached == null || tokenRevocationList.isRevoked(email, new Date(cached.loadedAt))) {
+            // zaman okumadan önce alınıyor, okuma sırasında yapılan revoke da sonraki istekte görülsün
+            long loadedAt = System.currentTimeMillis();
+            cached = new CachedPrincipal(loader.apply(email), loadedAt);
+            cache.put(key, cached);
+        }
+        return cached.userDetails;
+    }
+
+    // transaction varsa commit sonrasında da tekrar evict ediliyor,
+    // commit öncesi okunan eski bilgi cache'te kalmasın
+    public void evict(String email) {
+        evictNow(email);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    evictNow(email);
+                }
+            });
+        }
+    }
+
+    private void evictNow(String email) {
+        cache.asMap().keySet().removeIf(key -> key.email.equals(email));
+    }
+
+    @AllArgsConstructor
+    @EqualsAndHashCode
+    private static class PrincipalKey {
+
+        private final String email;
+
+        private final long issuedAt;
+
+    }
+
+    @AllArgsConstructor
+    private static class CachedPrincipal {
+
+        private final UserDetails userDetails;
+
+        private final long loadedAt;
+
+    }
+
+}
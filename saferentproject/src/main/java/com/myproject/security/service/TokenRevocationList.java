@@ -0,0 +1,136 @@
+package com.myproject.security.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.myproject.domain.TokenRevocation;
+import com.myproject.repository.TokenRevocationRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import java.time.Duration;
+import java.util.Date;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+@Component
+public class TokenRevocationList {
+
+    // Stateless JWT modunda token icindeki roller DB'ye gidilmeden kullanılıyor.
+    // Bilgisi degisen veya silinen kullanıcının bu tarihten önce üretilmiş
+    // token'ları burada işaretleniyor, bu token'lar için tekrar DB'ye gidiliyor.
+    // Kayıtlar t_token_revocation tablosunda tüm instance'lar arasında paylasılıyor: her istekte
+    // DB'ye gidilmemesi icin filtre yerel cache'e bakıyor, cache tablodan jwtRevocationPollMs
+    // aralıklarla yenileniyor. Yani baska bir instance'taki revoke en gec bu süre
+    // (+ replica gecikmesi) icinde gecerli oluyor. Kayıt, eski token'ların geçerlilik süresi kadar tutuluyor.
+
+    private static final Logger logger = LoggerFactory.getLogger(TokenRevocationList.class);
+
+    private final Cache<String, Long> revokedAt;
+
+    private final TokenRevocationRepository tokenRevocationRepository;
+
+    private final TransactionTemplate transactionTemplate;
+
+    // afterCommit icinde eski transaction'a katılınamadıgı icin ayrı transaction
+    private final TransactionTemplate requiresNewTemplate;
+
+    private final long ttlMs;
+
+    private final long pollIntervalMs;
+
+    private final ScheduledExecutorService scheduler;
+
+    public TokenRevocationList(@Value("${saferentproject.app.jwtRevocationTtlMs:${saferentproject.app.jwtExpirationMs}}") long ttlMs,
+                               @Value("${saferentproject.app.jwtRevocationPollMs:5000}") long pollIntervalMs,
+                               TokenRevocationRepository tokenRevocationRepository,
+                               TransactionTemplate transactionTemplate) {
+        this.revokedAt = Caffeine.newBuilder().
+                expireAfterWrite(Duration.ofMillis(ttlMs)).
+                build();
+        this.tokenRevocationRepository = tokenRevocationRepository;
+        this.transactionTemplate = transactionTemplate;
+        this.requiresNewTemplate = new TransactionTemplate(transactionTemplate.getTransactionManager());
+        this.requiresNewTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.ttlMs = ttlMs;
+        this.pollIntervalMs = pollIntervalMs;
+        CustomizableThreadFactory threadFactory = new CustomizableThreadFactory("token-revocation-");
+        threadFactory.setDaemon(true);
+        this.scheduler = Executors.newSingleThreadScheduledExecutor(threadFactory);
+    }
+
+    // 0 ise tablo okunmuyor (tek instance), sadece bu instance'taki revoke'lar görülüyor
+    @PostConstruct
+    public void start() {
+        if (pollIntervalMs > 0) {
+            scheduler.scheduleWithFixedDelay(this::refresh, 0, pollIntervalMs, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        scheduler.shutdownNow();
+    }
+
+    // kayıt cagıranın transaction'ına yazılıyor, kullanıcı degisikligi rollback olursa revoke da geri alınıyor.
+    // commit öncesi eski bilgilerle üretilen token kalmasın diye commit sonrasında tekrar işaretleniyor
+    public void revoke(String email) {
+        long now = System.currentTimeMillis();
+        revokedAt.put(email, now);
+        transactionTemplate.executeWithoutResult(status -> store(email, now));
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    long committedAt = System.currentTimeMillis();
+                    revokedAt.put(email, committedAt);
+                    try {
+                        requiresNewTemplate.executeWithoutResult(status -> store(email, committedAt));
+                    } catch (RuntimeException e) {
+                        // commit edilmis ilk kayıt zaten diger instance'lara yayılıyor
+                        logger.warn("Token revocation of {} could not be updated after commit: {}", email, e.getMessage());
+                    }
+                }
+            });
+        }
+    }
+
+    // token iat saniye hassasiyetinde, aynı saniyede üretilen token da revoke sayılıyor
+    public boolean isRevoked(String email, Date issuedAt) {
+        Long revokedTime = revokedAt.getIfPresent(email);
+        if (revokedTime == null) {
+            return false;
+        }
+        return issuedAt == null || issuedAt.getTime() <= revokedTime;
+    }
+
+    // diger instance'larda yapılan revoke'lar tablodan okunup yerel cache'e ekleniyor
+    public void refresh() {
+        try {
+            long from = System.currentTimeMillis() - ttlMs;
+            for (TokenRevocation revocation : tokenRevocationRepository.findByRevokedAtGreaterThan(from)) {
+                revokedAt.asMap().merge(revocation.getEmail(), revocation.getRevokedAt(), Math::max);
+            }
+        } catch (RuntimeException e) {
+            logger.warn("Token revocations could not be refreshed: {}", e.getMessage());
+        }
+    }
+
+    private void store(String email, long time) {
+        if (tokenRevocationRepository.markRevoked(email, time) == 0 && !tokenRevocationRepository.existsById(email)) {
+            tokenRevocationRepository.save(new TokenRevocation(email, time));
+        }
+        // token'ları zaten süresi dolmus kayıtlar siliniyor
+        tokenRevocationRepository.deleteExpired(time - ttlMs);
+    }
+
+}
@@ -18,6 +18,8 @@ import java.util.stream.Collectors;
 public class UserDetailsImpl implements UserDetails {
 
 
+    private Long id;
+
     private String email;
 
     private String password;
@@ -31,7 +33,7 @@ public class UserDetailsImpl implements UserDetails {
                 stream().
                 map(role -> new SimpleGrantedAuthority(role.getType().name())).
                 collect(Collectors.toList());
-        return new UserDetailsImpl(user.getEmail(), user.getPassword(), authorities);
+        return new UserDetailsImpl(user.getId(), user.getEmail(), user.getPassword(), authorities);
     }
 
 
@@ -0,0 +1,92 @@
+package com.myproject.service;
+
+import com.myproject.analytics.StatPeriod;
+import com.myproject.analytics.StatTotals;
+import com.myproject.dto.CarDTO;
+import com.myproject.dto.response.CarUtilizationResponse;
+import com.myproject.dto.response.RevenueStatResponse;
+import com.myproject.exception.BadRequestException;
+import com.myproject.exception.message.ErrorMessage;
+import com.myproject.repository.ReservationDailyStatRepository;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+@Service
+public class AnalyticsService {
+
+    // Raporlar rezervasyon tablosundan degil, arac ve gün bazındaki özet tablodan (t_reservation_daily_stat) okunuyor.
+    // Gelir, iptaller ve rezervasyon sayısı rezervasyonun basladıgı (pickUp) güne sayılır. Kiralama süresi
+    // kapsadıgı günlere bölündügü icin utilization sadece sorgulanan aralıga düsen saatleri icerir.
+
+    private final ReservationDailyStatRepository reservationDailyStatRepository;
+    private final CarService carService;
+
+    public AnalyticsService(ReservationDailyStatRepository reservationDailyStatRepository, CarService carService) {
+        this.reservationDailyStatRepository = reservationDailyStatRepository;
+        this.carService = carService;
+    }
+
+    @Transactional(readOnly = true)
+    public List<RevenueStatResponse> getRevenue(LocalDate from, LocalDate to, StatPeriod period) {
+        checkDateRange(from, to);
+
+        // rezervasyon olmayan periyotlar da sıfır olarak dönülüyor
+        Map<LocalDate, StatTotals> byPeriod = new TreeMap<>();
+        for (LocalDate start = period.start(from); !start.isAfter(to); start = period.next(start)) {
+            byPeriod.put(start, new StatTotals());
+        }
+        reservationDailyStatRepository.sumByDate(from, to).
+                forEach(day -> byPeriod.get(period.start(day.getStatDate())).add(day));
+
+        List<RevenueStatResponse> response = new ArrayList<>(byPeriod.size());
+        byPeriod.forEach((start, totals) -> response.add(new RevenueStatResponse(start,
+                totals.getReservationCount(),
+                totals.getCanceledCount(),
+                totals.getCancellationRate(),
+                totals.getRevenue(),
+                totals.getAverageLeadTimeHours())));
+        return response;
+    }
+
+    @Transactional(readOnly = true)
+    public List<CarUtilizationResponse> getCarUtilization(LocalDate from, LocalDate to) {
+        checkDateRange(from, to);
+
+        long availableHours = (ChronoUnit.DAYS.between(from, to) + 1) * 24;
+        Map<Long, StatTotals> byCar = reservationDailyStatRepository.sumByCar(from, to).stream().
+                collect(Collectors.toMap(StatTotals::getCarId, Function.identity()));
+
+        // hic rezervasyonu olmayan araclar da listeleniyor
+        List<CarDTO> cars = carService.getAllCars();
+        List<CarUtilizationResponse> response = new ArrayList<>(cars.size());
+        for (CarDTO car : cars) {
+            StatTotals totals = byCar.getOrDefault(car.getId(), new StatTotals());
+            response.add(new CarUtilizationResponse(car.getId(),
+                    car.getModel(),
+                    totals.getReservationCount(),
+                    totals.getCanceledCount(),
+                    totals.getCancellationRate(),
+                    totals.getRevenue(),
+                    totals.getRentedHours(),
+                    availableHours,
+                    totals.getRentedHours() / availableHours,
+                    totals.getAverageLeadTimeHours()));
+        }
+        return response;
+    }
+
+    private void checkDateRange(LocalDate from, LocalDate to) {
+        if (from.isAfter(to)) {
+            throw new BadRequestException(ErrorMessage.ANALYTICS_DATE_RANGE_INCORRECT_MESSAGE);
+        }
+    }
+}
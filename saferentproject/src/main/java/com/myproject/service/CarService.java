@@ -2,38 +2,72 @@ package com.myproject.service;
 
 import com.myproject.domain.Car;
 import com.myproject.domain.ImageFile;
+import com.myproject.domain.enums.ReservationStatus;
 import com.myproject.dto.CarDTO;
 import com.myproject.dto.request.CarRequest;
+import com.myproject.dto.response.ImportResponse;
+import com.myproject.dto.response.KeysetPage;
 import com.myproject.exception.BadRequestException;
 import com.myproject.exception.ConflictException;
 import com.myproject.exception.ResourceNotFoundException;
 import com.myproject.exception.message.ErrorMessage;
+import com.myproject.importer.BulkImporter;
+import com.myproject.importer.ImportRow;
+import com.myproject.importer.SourceRow;
 import com.myproject.mapper.CarMapper;
+import com.myproject.pagination.KeysetCursor;
 import com.myproject.repository.CarRepository;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.cache.annotation.Caching;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.web.multipart.MultipartFile;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static com.myproject.repository.CarSpecifications.*;
 
 @Service
 public class CarService {
 
+    // visitors endpoint'lerinin cache'leri, isimler application.yml'deki spring.cache.cache-names ile aynı
+    public static final String CAR_CATALOG_CACHE = "carCatalog";
+    public static final String CAR_PAGE_CACHE = "carPages";
+    public static final String CAR_BY_ID_CACHE = "carById";
+
     private final CarRepository carRepository;
     private final ImageFileService imageFileService;
     private final CarMapper carMapper;
     private final ReservationService reservationService;
+    private final BulkImporter bulkImporter;
 
-    public CarService(CarRepository carRepository, ImageFileService imageFileService, CarMapper carMapper, ReservationService reservationService) {
+    public CarService(CarRepository carRepository, ImageFileService imageFileService, CarMapper carMapper, ReservationService reservationService, BulkImporter bulkImporter) {
         this.carRepository = carRepository;
         this.imageFileService = imageFileService;
         this.carMapper = carMapper;
         this.reservationService = reservationService;
+        this.bulkImporter = bulkImporter;
     }
 
 
+    // yeni arac tüm listeyi ve sayfaları etkiliyor
+    @Caching(evict = {
+            @CacheEvict(cacheNames = CAR_CATALOG_CACHE, allEntries = true),
+            @CacheEvict(cacheNames = CAR_PAGE_CACHE, allEntries = true)})
+    @Transactional
     public void saveCar(String imageId, CarRequest carRequest) {
         // image id Repoda var mı ?
         ImageFile imageFile = imageFileService.findImageById(imageId);
@@ -52,6 +86,40 @@ public class CarService {
 
     }
 
+    // CSV veya xlsx'ten toplu arac ekleme, resimler sonradan updateCar ile baglanıyor.
+    // Kolonlar excel raporu ile aynı: Model,Doors,Seats,Luggage,Transmission,AirConditioning,Age,PricePerHour,FuelType
+    // (id kolonu varsa dikkate alınmıyor)
+    @Caching(evict = {
+            @CacheEvict(cacheNames = CAR_CATALOG_CACHE, allEntries = true),
+            @CacheEvict(cacheNames = CAR_PAGE_CACHE, allEntries = true)})
+    public ImportResponse importCars(MultipartFile file) {
+        return bulkImporter.importFile(file, this::sourceRowToCarRequest, carRequest -> {
+            Car car = carMapper.carRequestToCar(carRequest);
+            car.setImage(new HashSet<>());
+            return car;
+        }, (chunk, errors) -> {
+            List<Car> cars = chunk.stream().map(ImportRow::getValue).collect(Collectors.toList());
+            carRepository.saveAll(cars);
+            return cars.size();
+        });
+    }
+
+    private CarRequest sourceRowToCarRequest(SourceRow row) {
+        CarRequest carRequest = new CarRequest();
+        carRequest.setModel(row.getString("model"));
+        carRequest.setDoors(row.getInteger("doors"));
+        carRequest.setSeats(row.getInteger("seats"));
+        carRequest.setLuggage(row.getInteger("luggage"));
+        carRequest.setTransmission(row.getString("transmission"));
+        carRequest.setAirConditioning(row.getBoolean("airConditioning"));
+        carRequest.setAge(row.getInteger("age"));
+        carRequest.setPricePerHour(row.getDouble("pricePerHour"));
+        carRequest.setFuelType(row.getString("fuelType"));
+        return carRequest;
+    }
+
+    @Cacheable(cacheNames = CAR_CATALOG_CACHE, key = "'all'")
+    @Transactional(readOnly = true)
     public List<CarDTO> getAllCars() {
         List<Car> carList = carRepository.findAll();
         return carMapper.map(carList);
@@ -59,11 +127,33 @@ public class CarService {
     }
 
 
+    @Cacheable(cacheNames = CAR_PAGE_CACHE,
+               key = "#pageable.pageNumber + '-' + #pageable.pageSize + '-' + #pageable.sort")
+    @Transactional(readOnly = true)
     public Page<CarDTO> findAllWithPage(Pageable pageable) {
         Page<Car> carPage = carRepository.findAll(pageable);
         return carPage.map(car->carMapper.carToCarDTO(car));
     }
 
+    // count(*) yapılmadan sayfalama
+    @Transactional(readOnly = true)
+    public Slice<CarDTO> findAllWithSlice(Pageable pageable) {
+        Slice<Car> carSlice = carRepository.findSliceBy(pageable);
+        return carSlice.map(carMapper::carToCarDTO);
+    }
+
+    // keyset sayfalama, sayfa numarası yerine cursor
+    @Transactional(readOnly = true)
+    public KeysetPage<CarDTO> findAllByCursor(KeysetCursor cursor, int size) {
+        Pageable pageable = cursor.toPageable(size);
+        Slice<Car> carSlice = cursor.isAscending() ?
+                carRepository.findByIdGreaterThan(cursor.boundary(), pageable) :
+                carRepository.findByIdLessThan(cursor.boundary(), pageable);
+        return cursor.next(carSlice, Car::getId, carMapper::carToCarDTO);
+    }
+
+    @Cacheable(cacheNames = CAR_BY_ID_CACHE, key = "#id")
+    @Transactional(readOnly = true)
     public CarDTO findById(Long id) {
         Car car = getCar(id);
         return carMapper.carToCarDTO(car);
@@ -77,6 +167,11 @@ public class CarService {
         return car;
     }
 
+    @Caching(evict = {
+            @CacheEvict(cacheNames = CAR_BY_ID_CACHE, key = "#id"),
+            @CacheEvict(cacheNames = CAR_CATALOG_CACHE, allEntries = true),
+            @CacheEvict(cacheNames = CAR_PAGE_CACHE, allEntries = true)})
+    @Transactional
     public void updateCar(Long id, String imageId, CarRequest carRequest) {
         Car car = getCar(id);
 
@@ -113,6 +208,11 @@ public class CarService {
 
     }
 
+    @Caching(evict = {
+            @CacheEvict(cacheNames = CAR_BY_ID_CACHE, key = "#id"),
+            @CacheEvict(cacheNames = CAR_CATALOG_CACHE, allEntries = true),
+            @CacheEvict(cacheNames = CAR_PAGE_CACHE, allEntries = true)})
+    @Transactional
     public void removeById(Long id) {
         Car car = getCar(id);
 
@@ -127,18 +227,55 @@ public class CarService {
             throw new BadRequestException(ErrorMessage.CAR_USED_BY_RESERVATION_MESSAGE);
         }
 
+        // resim kayıtları orphanRemoval ile siliniyor, dosyaları commit sonrasında
+        imageFileService.removeBlobsAfterCommit(car.getImage());
         carRepository.delete(car);
 
     }
 
+    @Transactional(readOnly = true)
     public Car getCarById(Long carId) {
         Car car = carRepository.findById(carId).orElseThrow(()->
                 new ResourceNotFoundException(String.format(ErrorMessage.RESOURCE_NOT_FOUND_EXCEPTION,carId)));
         return car;
     }
 
-    public List<Car> getAllCar() {
-        return carRepository.getAllBy();
+    // toplu islemler icin araclar tek sorguda getiriliyor (bulunamayan id'ler map'te yer almıyor)
+    @Transactional(readOnly = true)
+    public Map<Long, Car> getCarsByIds(Collection<Long> carIds) {
+        return carRepository.findAllById(carIds).
+                stream().
+                collect(Collectors.toMap(Car::getId, Function.identity()));
+    }
+
+    // transaction icinde kullanılmalı, stream kapatılmalı
+    public Stream<Car> getCarStream() {
+        return carRepository.streamAll();
+    }
+
+    // verilen tarihler arasında musait olan araclar tek sorgu ile sayfa sayfa getiriliyor
+    @Transactional(readOnly = true)
+    public Page<CarDTO> findAvailableCars(LocalDateTime pickUpTime,
+                                          LocalDateTime dropOfTime,
+                                          Integer seats,
+                                          String transmission,
+                                          String fuelType,
+                                          Double minPrice,
+                                          Double maxPrice,
+                                          Pageable pageable) {
+        reservationService.checkReservationTimeIsCorrect(pickUpTime, dropOfTime);
+
+        ReservationStatus[] status = {ReservationStatus.CANCELED, ReservationStatus.DONE};
+
+        Specification<Car> spec = Specification.where(availableBetween(pickUpTime, dropOfTime, status)).
+                and(minSeats(seats)).
+                and(transmission(transmission)).
+                and(fuelType(fuelType)).
+                and(minPrice(minPrice)).
+                and(maxPrice(maxPrice));
+
+        Page<Car> carPage = carRepository.findAll(spec, pageable);
+        return carPage.map(carMapper::carToCarDTO);
     }
 }
 
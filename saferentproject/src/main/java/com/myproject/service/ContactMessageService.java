@@ -3,28 +3,37 @@ package com.myproject.service;
 import com.myproject.domain.ContactMessage;
 import com.myproject.dto.ContactMessageDTO;
 import com.myproject.dto.request.ContactMessageRequest;
+import com.myproject.dto.response.KeysetPage;
 import com.myproject.exception.ResourceNotFoundException;
 import com.myproject.exception.message.ErrorMessage;
 import com.myproject.mapper.ContactMessageMapper;
+import com.myproject.pagination.KeysetCursor;
 import com.myproject.repository.ContactMessageRepository;
+import com.myproject.streaming.EntityStreamer;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
-import java.util.List;
+import java.util.function.Consumer;
 
 @Service
 public class ContactMessageService {
 
     private final ContactMessageRepository contactMessageRepository;
     private final ContactMessageMapper contactMessageMapper;
+    private final EntityStreamer entityStreamer;
 
     public ContactMessageService(ContactMessageRepository contactMessageRepository,
-                                 ContactMessageMapper contactMessageMapper) {
+                                 ContactMessageMapper contactMessageMapper,
+                                 EntityStreamer entityStreamer) {
         this.contactMessageRepository = contactMessageRepository;
         this.contactMessageMapper = contactMessageMapper;
+        this.entityStreamer = entityStreamer;
     }
 
+    @Transactional
     public void saveMessage(ContactMessageRequest contactMessageRequest) {
 
         ContactMessage contactMessage=
@@ -32,29 +41,51 @@ public class ContactMessageService {
         contactMessageRepository.save(contactMessage);
     }
 
-    public List<ContactMessageDTO> getAll() {
-        List<ContactMessage> contactMessageList =contactMessageRepository.findAll();
-
-        return contactMessageMapper.map(contactMessageList);
+    // tüm mesajlar List'e doldurulmadan DB cursor'u üzerinden tek tek consumer'a veriliyor
+    @Transactional(readOnly = true)
+    public void streamAll(Consumer<ContactMessageDTO> consumer) {
+        entityStreamer.forEach(contactMessageRepository.streamAll(),
+                               contactMessageMapper::contactMessageToDTO,
+                               consumer);
     }
 
+    @Transactional(readOnly = true)
     public Page<ContactMessageDTO> getAll(Pageable pageable){
         Page<ContactMessage> contactMessagePage = contactMessageRepository.findAll(pageable);
         return getPageDTO(contactMessagePage);
     }
 
+    // count(*) yapılmadan sayfalama
+    @Transactional(readOnly = true)
+    public Slice<ContactMessageDTO> getSlice(Pageable pageable){
+        Slice<ContactMessage> contactMessageSlice = contactMessageRepository.findSliceBy(pageable);
+        return contactMessageSlice.map(contactMessageMapper::contactMessageToDTO);
+    }
+
+    // keyset sayfalama, sayfa numarası yerine cursor
+    @Transactional(readOnly = true)
+    public KeysetPage<ContactMessageDTO> getAllByCursor(KeysetCursor cursor, int size){
+        Pageable pageable = cursor.toPageable(size);
+        Slice<ContactMessage> contactMessageSlice = cursor.isAscending() ?
+                contactMessageRepository.findByIdGreaterThan(cursor.boundary(), pageable) :
+                contactMessageRepository.findByIdLessThan(cursor.boundary(), pageable);
+        return cursor.next(contactMessageSlice, ContactMessage::getId, contactMessageMapper::contactMessageToDTO);
+    }
+
     private Page<ContactMessageDTO> getPageDTO(Page<ContactMessage> contactMessagePage){
 
         return contactMessagePage.map(
                 contactMessageMapper::contactMessageToDTO);
     }
 
+    @Transactional(readOnly = true)
     public ContactMessageDTO getMessage(Long id) {
             ContactMessage contactMessage = getContactMessageWithId(id);
             return contactMessageMapper.contactMessageToDTO(contactMessage);
     }
 
 
+    @Transactional
     public void deleteContactMessage(Long id) {
 
         ContactMessage contactMessage = getContactMessageWithId(id);
@@ -70,6 +101,7 @@ public class ContactMessageService {
     }
 
 
+    @Transactional
     public void updateContactMessage(Long id, ContactMessageRequest contactMessageRequest) {
 
         ContactMessage foundContactMessage = getContactMessageWithId(id);
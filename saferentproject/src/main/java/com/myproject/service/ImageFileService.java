@@ -1,77 +1,209 @@
 package com.myproject.service;
 
-import com.myproject.domain.ImageData;
 import com.myproject.domain.ImageFile;
 import com.myproject.dto.ImageFileDTO;
 import com.myproject.exception.ResourceNotFoundException;
 import com.myproject.exception.message.ErrorMessage;
+import com.myproject.lock.BlobLockRegistry;
 import com.myproject.repository.ImageFileRepository;
+import com.myproject.storage.BlobStore;
+import com.myproject.storage.StagedBlob;
+import com.myproject.streaming.EntityStreamer;
+import org.springframework.core.io.Resource;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
 import org.springframework.util.StringUtils;
 import org.springframework.web.multipart.MultipartFile;
-import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
 
+import java.io.ByteArrayInputStream;
 import java.io.IOException;
-import java.util.List;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.util.Collection;
 import java.util.Objects;
+import java.util.Set;
+import java.util.function.Consumer;
 import java.util.stream.Collectors;
 
 @Service
 public class ImageFileService {
 
     private final ImageFileRepository imageFileRepository;
+    private final BlobStore blobStore;
+    private final BlobLockRegistry blobLockRegistry;
+    private final TransactionTemplate transactionTemplate;
+    private final TransactionTemplate requiresNewTemplate;
+    private final EntityStreamer entityStreamer;
 
 
-    public ImageFileService(ImageFileRepository imageFileRepository) {
+    public ImageFileService(ImageFileRepository imageFileRepository, BlobStore blobStore,
+                            BlobLockRegistry blobLockRegistry, TransactionTemplate transactionTemplate,
+                            EntityStreamer entityStreamer) {
         this.imageFileRepository = imageFileRepository;
+        this.blobStore = blobStore;
+        this.blobLockRegistry = blobLockRegistry;
+        this.transactionTemplate = transactionTemplate;
+        this.requiresNewTemplate = new TransactionTemplate(transactionTemplate.getTransactionManager());
+        this.requiresNewTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.entityStreamer = entityStreamer;
     }
 
 
     public String saveImage(MultipartFile file) {
 
-        ImageFile imageFile = null;
         // name
         String fileName =
                 StringUtils.cleanPath(Objects.requireNonNull(file.getOriginalFilename()));
-        // Data
-        try {
-            ImageData imageData = new ImageData(file.getBytes());
-            imageFile = new ImageFile(fileName,file.getContentType(),imageData);
+        // Data : byte'lar DB yerine BlobStore'a yazılıyor, aynı icerik tekrar saklanmıyor.
+        // Icerik önce gecici dosyaya yazılıyor, yayınlama ve kayıt aynı icerigin silinmesiyle sıralı yapılıyor
+        try (InputStream in = file.getInputStream(); StagedBlob blob = blobStore.stage(in)) {
+            return blobLockRegistry.executeWithLock(blob.getContentHash(), () -> transactionTemplate.execute(status -> {
+                publish(blob);
+                ImageFile imageFile = new ImageFile(fileName,file.getContentType(),blob.getContentHash(),file.getSize());
+                imageFileRepository.save(imageFile);
+                return imageFile.getId();
+            }));
         } catch (IOException e) {
             throw new RuntimeException(e.getMessage());
         }
-        imageFileRepository.save(imageFile);
-        return imageFile.getId();
     }
 
+    // BlobStore kilidi ve transaction icinde cagrılmalı: bu cagrıyla olusan dosya rollback'te siliniyor
+    // (aynı icerik kilit bırakılana kadar baska bir kayıt tarafından kullanılamaz)
+    private void publish(StagedBlob blob) {
+        try {
+            if (blobStore.publish(blob)) {
+                String contentHash = blob.getContentHash();
+                TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                    @Override
+                    public void afterCompletion(int status) {
+                        if (status != STATUS_COMMITTED) {
+                            deleteBlob(contentHash);
+                        }
+                    }
+                });
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    @Transactional(readOnly = true)
     public ImageFile getImageById(String id) {
         ImageFile imageFile = imageFileRepository.findById(id).orElseThrow(()->
                 new ResourceNotFoundException(String.format(ErrorMessage.IMAGE_NOT_FOUND_MESSAGE,id)));
         return imageFile;
     }
 
+    // resmin icerigi dosya olarak okunuyor, byte'lar heap'e alınmıyor.
+    // readOnly degil: eski kayıtlar ilk okumada kendi transaction'ında BlobStore'a tasınıyor
+    public Resource getImageResource(ImageFile imageFile) {
+        String contentHash = imageFile.getContentHash();
+        if (contentHash == null) {
+            contentHash = moveToBlobStore(imageFile.getId());
+        }
+        return blobStore.load(contentHash);
+    }
+
+    // DB'de (t_imagedata) duran eski resim BlobStore'a tasınıyor
+    private String moveToBlobStore(String id) {
+        byte[] data = transactionTemplate.execute(status -> {
+            ImageFile imageFile = getImageById(id);
+            return imageFile.getContentHash() != null ? null : imageFile.getImageData().getData();
+        });
+        if (data == null) {
+            return getImageById(id).getContentHash();
+        }
+
+        try (StagedBlob blob = blobStore.stage(new ByteArrayInputStream(data))) {
+            return blobLockRegistry.executeWithLock(blob.getContentHash(), () -> transactionTemplate.execute(status -> {
+                ImageFile imageFile = getImageById(id);
+                if (imageFile.getContentHash() != null) {
+                    // eszamanlı bir okuma tarafından tasınmıs
+                    return imageFile.getContentHash();
+                }
+                publish(blob);
+                imageFile.setContentHash(blob.getContentHash());
+                imageFile.setImageData(null);
+                imageFileRepository.save(imageFile);
+                return blob.getContentHash();
+            }));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
 
-    public List<ImageFileDTO> getAllImages() {
-        List<ImageFile> imageFiles = imageFileRepository.findAll();
-        // image1 : localhost:8080/files/download/id
 
-        List<ImageFileDTO> imageFileDTOS = imageFiles.stream().map(imFile->{
-           // URL oluşturulmasını saglayacagız
-            String imageUri = ServletUriComponentsBuilder.
-                    fromCurrentContextPath(). // localhost:8080
-                    path("/files/download/"). // localhost:8080/files/download
-                    path(imFile.getId()).toUriString(); // localhost:8080/files/download/id
-            return new ImageFileDTO(imFile.getName(),imageUri,imFile.getType(),imFile.getLength());
-        }).collect(Collectors.toList());
-        return imageFileDTOS;
+    // image1 : localhost:8080/files/download/id
+    // stream response thread'inde request bilgisi olmadıgı icin downloadUrl (localhost:8080/files/download/)
+    // controller'da olusturulup veriliyor
+    @Transactional(readOnly = true)
+    public void streamAllImages(String downloadUrl, Consumer<ImageFileDTO> consumer) {
+        entityStreamer.forEach(imageFileRepository.streamAll(),
+                               imFile -> new ImageFileDTO(imFile.getName(), downloadUrl + imFile.getId(),
+                                                          imFile.getType(), imFile.getLength()),
+                               consumer);
     }
 
     public void removeById(String id) {
-        ImageFile imageFile = getImageById(id);
+        String contentHash = getImageById(id).getContentHash();
+        if (contentHash == null) {
+            transactionTemplate.executeWithoutResult(status -> imageFileRepository.delete(getImageById(id)));
+            return;
+        }
+
+        // icerik baska bir kayıt tarafından kullanılmıyorsa dosya da siliniyor. Kontrol kayıt silindikten
+        // (commit) sonra ve aynı icerigin yüklemeleriyle aynı kilit altında yapılıyor, rollback olursa dosya yerinde kalıyor
+        blobLockRegistry.executeWithLock(contentHash, () -> {
+            transactionTemplate.executeWithoutResult(status -> imageFileRepository.delete(getImageById(id)));
+            deleteBlobIfUnreferenced(contentHash);
+            return null;
+        });
+    }
+
+    // kayıtları baska bir yoldan (ör. aracla birlikte orphanRemoval ile) silinen resimlerin dosyaları,
+    // transaction commit edildikten sonra removeById ile aynı kilit ve kontrolle siliniyor
+    public void removeBlobsAfterCommit(Collection<ImageFile> imageFiles) {
+        Set<String> contentHashes = imageFiles.stream().
+                map(ImageFile::getContentHash).
+                filter(Objects::nonNull).
+                collect(Collectors.toSet());
+        if (contentHashes.isEmpty()) {
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                contentHashes.forEach(contentHash -> blobLockRegistry.executeWithLock(contentHash, () -> {
+                    deleteBlobIfUnreferenced(contentHash);
+                    return null;
+                }));
+            }
+        });
+    }
 
-        imageFileRepository.delete(imageFile);
+    // BlobStore kilidi altında cagrılmalı. Yeni transaction, read-only degil: kontrol replica'ya degil
+    // primary'e gidiyor (afterCommit icinden de cagrılabiliyor)
+    private void deleteBlobIfUnreferenced(String contentHash) {
+        Boolean referenced = requiresNewTemplate.execute(status -> imageFileRepository.existsByContentHash(contentHash));
+        if (!Boolean.TRUE.equals(referenced)) {
+            deleteBlob(contentHash);
+        }
+    }
+
+    private void deleteBlob(String contentHash) {
+        try {
+            blobStore.delete(contentHash);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
     }
 
+    @Transactional(readOnly = true)
     public ImageFile findImageById(String imageId) {
         return imageFileRepository.findImageById(imageId).orElseThrow(()->
                 new ResourceNotFoundException(String.format(ErrorMessage.IMAGE_NOT_FOUND_MESSAGE,imageId)));
@@ -0,0 +1,182 @@
+package com.myproject.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import com.github.benmanes.caffeine.cache.RemovalCause;
+import com.github.benmanes.caffeine.cache.Scheduler;
+import com.myproject.dto.request.ReservationReportFilter;
+import com.myproject.dto.response.ReportJobResponse;
+import com.myproject.exception.ConflictException;
+import com.myproject.exception.ResourceNotFoundException;
+import com.myproject.exception.message.ErrorMessage;
+import com.myproject.report.ReportJob;
+import com.myproject.report.ReportJobStatus;
+import com.myproject.report.ReportType;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Service;
+
+import javax.annotation.PreDestroy;
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Duration;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+@Service
+public class ReportJobService {
+
+    // Büyük excel raporları request thread'inde degil, sınırlı sayıda thread'i olan bir havuzda
+    // temp dosyaya yazılıyor. Client is id'si ile durumu sorgulayıp hazır olunca dosyayı indiriyor.
+    // Biten isler reportJobTtlMs süresince tutulur, süre dolunca is kaydı ve dosyası silinir.
+
+    private static final Logger logger = LoggerFactory.getLogger(ReportJobService.class);
+
+    private static final String FILE_PREFIX = "report-";
+    private static final String FILE_SUFFIX = ".xlsx";
+
+    private final ReportService reportService;
+
+    private final Path reportDir;
+
+    private final Duration jobTtl;
+
+    private final ThreadPoolExecutor executor;
+
+    private final Cache<String, ReportJob> jobs;
+
+    public ReportJobService(ReportService reportService,
+                            @Value("${saferentproject.app.reportDir}") String reportDir,
+                            @Value("${saferentproject.app.reportJobThreads:2}") int threads,
+                            @Value("${saferentproject.app.reportJobQueueSize:20}") int queueSize,
+                            @Value("${saferentproject.app.reportJobTtlMs:3600000}") long jobTtlMs) throws IOException {
+        this.reportService = reportService;
+        this.reportDir = Files.createDirectories(Paths.get(reportDir).toAbsolutePath().normalize());
+        this.jobTtl = Duration.ofMillis(jobTtlMs);
+        deleteLeftoverFiles();
+
+        // kuyruk dolunca yeni is reddediliyor (AbortPolicy)
+        this.executor = new ThreadPoolExecutor(threads, threads, 0, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueSize), new CustomizableThreadFactory("report-"));
+
+        // bekleyen/calısan isler silinmiyor, süre is bittiginde yeniden put edilince baslıyor
+        this.jobs = Caffeine.newBuilder().
+                expireAfter(new Expiry<String, ReportJob>() {
+                    @Override
+                    public long expireAfterCreate(String id, ReportJob job, long currentTime) {
+                        return job.isFinished() ? jobTtl.toNanos() : Long.MAX_VALUE;
+                    }
+
+                    @Override
+                    public long expireAfterUpdate(String id, ReportJob job, long currentTime, long currentDuration) {
+                        return expireAfterCreate(id, job, currentTime);
+                    }
+
+                    @Override
+                    public long expireAfterRead(String id, ReportJob job, long currentTime, long currentDuration) {
+                        return currentDuration;
+                    }
+                }).
+                scheduler(Scheduler.systemScheduler()).
+                removalListener((String id, ReportJob job, RemovalCause cause) -> {
+                    if (job != null && cause != RemovalCause.REPLACED) {
+                        deleteFile(job.getFile());
+                    }
+                }).
+                build();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    // filter : sadece rezervasyon raporu icin, null ise tüm kayıtlar
+    public ReportJobResponse submit(ReportType type, ReservationReportFilter filter) {
+        ReportJob job = new ReportJob(UUID.randomUUID().toString(), type, filter);
+        jobs.put(job.getId(), job);
+        try {
+            executor.execute(() -> run(job));
+        } catch (RejectedExecutionException e) {
+            jobs.invalidate(job.getId());
+            throw new ConflictException(ErrorMessage.REPORT_QUEUE_FULL_MESSAGE);
+        }
+        return toResponse(job);
+    }
+
+    public ReportJobResponse getJobStatus(String id) {
+        return toResponse(getJob(id));
+    }
+
+    // indirilebilir (DONE) rapor
+    public ReportJob getFinishedJob(String id) {
+        ReportJob job = getJob(id);
+        if (job.getStatus() != ReportJobStatus.DONE) {
+            throw new ConflictException(String.format(ErrorMessage.REPORT_JOB_NOT_READY_MESSAGE, id, job.getStatus()));
+        }
+        return job;
+    }
+
+    private ReportJob getJob(String id) {
+        ReportJob job = jobs.getIfPresent(id);
+        if (job == null) {
+            throw new ResourceNotFoundException(String.format(ErrorMessage.REPORT_JOB_NOT_FOUND_MESSAGE, id));
+        }
+        return job;
+    }
+
+    private void run(ReportJob job) {
+        Path file = null;
+        try {
+            job.started(reportService.countRows(job.getType(), job.getFilter()));
+            file = Files.createTempFile(reportDir, FILE_PREFIX, FILE_SUFFIX);
+            try (OutputStream out = new BufferedOutputStream(Files.newOutputStream(file))) {
+                reportService.writeReport(job.getType(), job.getFilter(), out, job::rowWritten);
+            }
+            job.done(file, Files.size(file));
+        } catch (Exception e) {
+            logger.error("Report job {} ({}) failed", job.getId(), job.getType(), e);
+            deleteFile(file);
+            job.failed(ErrorMessage.EXCEL_REPORT_ERROR_MESSAGE);
+        }
+        // TTL is bittigi andan itibaren sayılıyor
+        jobs.asMap().replace(job.getId(), job);
+    }
+
+    private ReportJobResponse toResponse(ReportJob job) {
+        return new ReportJobResponse(job.getId(), job.getType(), job.getStatus(), job.getProgress(),
+                job.getTotalRows(), job.getRowsWritten(), job.getCreatedAt(), job.getFinishedAt(),
+                job.getFinishedAt() == null ? null : job.getFinishedAt().plus(jobTtl),
+                job.getFilter() == null ? null : job.getFilter().getUpdatedUntil(), job.getErrorMessage());
+    }
+
+    // önceki calısmadan kalan (is kaydı artık olmayan) rapor dosyaları
+    private void deleteLeftoverFiles() throws IOException {
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(reportDir, FILE_PREFIX + "*" + FILE_SUFFIX)) {
+            files.forEach(this::deleteFile);
+        }
+    }
+
+    private void deleteFile(Path file) {
+        if (file == null) {
+            return;
+        }
+        try {
+            Files.deleteIfExists(file);
+        } catch (IOException e) {
+            logger.warn("Report file {} couldn't be deleted", file, e);
+        }
+    }
+
+}
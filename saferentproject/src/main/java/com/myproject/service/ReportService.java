@@ -3,64 +3,177 @@ package com.myproject.service;
 import com.myproject.domain.Car;
 import com.myproject.domain.Reservation;
 import com.myproject.domain.User;
+import com.myproject.dto.request.ReservationReportFilter;
+import com.myproject.exception.BadRequestException;
 import com.myproject.exception.message.ErrorMessage;
 import com.myproject.report.ExcelReporter;
+import com.myproject.report.ReportType;
+import org.hibernate.jpa.QueryHints;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
-import java.io.ByteArrayInputStream;
+import javax.persistence.EntityManager;
+import javax.persistence.criteria.CriteriaBuilder;
+import javax.persistence.criteria.CriteriaQuery;
+import javax.persistence.criteria.Predicate;
+import javax.persistence.criteria.Root;
 import java.io.IOException;
-import java.util.List;
+import java.io.OutputStream;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.function.IntConsumer;
+import java.util.stream.Stream;
+
+import static com.myproject.repository.ReservationSpecifications.*;
 
 @Service
 public class ReportService {
 
+    // raporlar DB cursor'undan okunup dogrudan response'a yazılıyor,
+    // persistence context belli aralıklarla temizlenerek bellek kullanımı sabit tutuluyor
+    private static final int CLEAR_INTERVAL = 500;
+
+    private static final int FETCH_SIZE = 500;
+
     private final UserService userService;
     private final CarService carService;
-    private final ReservationService reservationService;
+    private final EntityManager entityManager;
+
+    // artımlı export'ta bundan daha yeni degisiklikler bir sonraki export'a bırakılıyor:
+    // updatedAt flush anında set ediliyor, commit'i geciken transaction'ın kaydı watermark'ın gerisinde kalmasın
+    private final long watermarkLagMs;
 
 
-    public ReportService(UserService userService, CarService carService, ReservationService reservationService) {
+    public ReportService(UserService userService, CarService carService, EntityManager entityManager,
+                         @Value("${saferentproject.app.reportWatermarkLagMs:60000}") long watermarkLagMs) {
         this.userService = userService;
         this.carService = carService;
-        this.reservationService = reservationService;
+        this.entityManager = entityManager;
+        this.watermarkLagMs = watermarkLagMs;
     }
 
 
-    public ByteArrayInputStream getUserReport()  {
-
-        List<User> users =   userService.getUsers();
+    @Transactional(readOnly = true)
+    public void writeUserReport(OutputStream out)  {
+        writeReport(ReportType.USERS, null, out, rowCount -> { });
+    }
 
-        try {
-            return ExcelReporter.getUserExcelReport(users);
-        } catch (IOException e) {
-            throw new RuntimeException(ErrorMessage.EXCEL_REPORT_ERROR_MESSAGE);
-        }
+    @Transactional(readOnly = true)
+    public void writeCarReport(OutputStream out) {
+        writeReport(ReportType.CARS, null, out, rowCount -> { });
     }
 
-    public ByteArrayInputStream getCarReport() {
+    @Transactional(readOnly = true)
+    public void writeReservationReport(ReservationReportFilter filter, OutputStream out) {
+        writeReport(ReportType.RESERVATIONS, filter, out, rowCount -> { });
+    }
 
-        List<Car> cars = carService.getAllCar();
+    // filter : sadece rezervasyon raporu icin, null ise tüm kayıtlar
+    // rowWritten : her satırdan sonra o ana kadar yazılan satır sayısı ile cagrılır (rapor isinin ilerlemesi icin)
+    @Transactional(readOnly = true)
+    public void writeReport(ReportType type, ReservationReportFilter filter, OutputStream out, IntConsumer rowWritten) {
+        IntConsumer afterRow = rowCount -> {
+            rowWritten.accept(rowCount);
+            clearPeriodically(rowCount);
+        };
 
         try {
-            return ExcelReporter.getCarExcelReport(cars);
+            switch (type) {
+                case USERS:
+                    try (Stream<User> users = userService.getUserStream()) {
+                        ExcelReporter.writeUserExcelReport(users, out, afterRow);
+                    }
+                    break;
+                case CARS:
+                    try (Stream<Car> cars = carService.getCarStream()) {
+                        ExcelReporter.writeCarExcelReport(cars, out, afterRow);
+                    }
+                    break;
+                case RESERVATIONS:
+                    try (Stream<Reservation> reservations = streamReservations(filter)) {
+                        ExcelReporter.writeReservationExcelReport(reservations, out, afterRow);
+                    }
+                    break;
+            }
         } catch (IOException e) {
             throw new RuntimeException(ErrorMessage.EXCEL_REPORT_ERROR_MESSAGE);
         }
-
     }
 
-    public ByteArrayInputStream getReservationReport() {
-        List<Reservation> reservations = reservationService.getAll();
+    // raporda yer alacak satır sayısı
+    @Transactional(readOnly = true)
+    public long countRows(ReportType type, ReservationReportFilter filter) {
+        CriteriaBuilder criteriaBuilder = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Long> query = criteriaBuilder.createQuery(Long.class);
+        if (type == ReportType.RESERVATIONS) {
+            Root<Reservation> root = query.from(Reservation.class);
+            query.select(criteriaBuilder.count(root));
+            Predicate predicate = reservationSpecification(filter).toPredicate(root, query, criteriaBuilder);
+            if (predicate != null) {
+                query.where(predicate);
+            }
+        } else {
+            query.select(criteriaBuilder.count(query.from(type.getEntityClass())));
+        }
+        return entityManager.createQuery(query).getSingleResult();
+    }
 
-        try {
-            return ExcelReporter.getReservationExcelReport(reservations);
-        } catch (IOException e) {
-            throw new RuntimeException(ErrorMessage.EXCEL_REPORT_ERROR_MESSAGE);
+    // rapor üretilmeye baslamadan (stream acılmadan) kontrol ediliyor
+    public void checkReservationFilter(ReservationReportFilter filter) {
+        if (filter.getFrom() != null && filter.getTo() != null && !filter.getFrom().isBefore(filter.getTo())) {
+            throw new BadRequestException(ErrorMessage.REPORT_TIME_WINDOW_INCORRECT_MESSAGE);
         }
     }
 
+    // artımlı export'un üst sınırı, client bir sonraki export'ta bunu since olarak gönderiyor
+    public LocalDateTime currentWatermark() {
+        return LocalDateTime.now().minus(watermarkLagMs, ChronoUnit.MILLIS).truncatedTo(ChronoUnit.SECONDS);
+    }
 
+    // filtreler sorguya ekleniyor, car ve user aynı sorguda yükleniyor.
+    // Artımlı export (updated_at, id), normal rapor id sırasıyla okunuyor
+    private Stream<Reservation> streamReservations(ReservationReportFilter filter) {
+        CriteriaBuilder criteriaBuilder = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Reservation> query = criteriaBuilder.createQuery(Reservation.class);
+        Root<Reservation> root = query.from(Reservation.class);
+        root.fetch("car");
+        root.fetch("user");
+
+        Predicate predicate = reservationSpecification(filter).toPredicate(root, query, criteriaBuilder);
+        if (predicate != null) {
+            query.where(predicate);
+        }
+        if (filter != null && filter.isIncremental()) {
+            query.orderBy(criteriaBuilder.asc(root.get("updatedAt")), criteriaBuilder.asc(root.get("id")));
+        } else {
+            query.orderBy(criteriaBuilder.asc(root.get("id")));
+        }
 
+        return entityManager.createQuery(query).
+                setHint(QueryHints.HINT_FETCH_SIZE, FETCH_SIZE).
+                getResultStream();
+    }
+
+    private Specification<Reservation> reservationSpecification(ReservationReportFilter filter) {
+        if (filter == null) {
+            return Specification.where(null);
+        }
+        return Specification.where(dropOfAfter(filter.getFrom())).
+                and(pickUpBefore(filter.getTo())).
+                and(statusIn(filter.getStatus())).
+                and(carId(filter.getCarId())).
+                and(userId(filter.getUserId())).
+                and(updatedAfter(filter.getUpdatedSince())).
+                and(updatedUntil(filter.getUpdatedUntil()));
+    }
 
+    // yazılan entity'ler persistence context'ten atılıyor
+    private void clearPeriodically(int rowCount) {
+        if (rowCount % CLEAR_INTERVAL == 0) {
+            entityManager.clear();
+        }
+    }
 
 }
@@ -1,59 +1,252 @@
 package com.myproject.service;
 
+import com.myproject.analytics.ReservationStatRollup;
 import com.myproject.domain.Car;
 import com.myproject.domain.Reservation;
 import com.myproject.domain.User;
 import com.myproject.domain.enums.ReservationStatus;
 import com.myproject.dto.ReservationDTO;
+import com.myproject.dto.request.ReservationBatchItemRequest;
 import com.myproject.dto.request.ReservationRequest;
 import com.myproject.dto.request.ReservationUpdateRequest;
+import com.myproject.dto.response.CarCalendarDay;
+import com.myproject.dto.response.CarCalendarResponse;
+import com.myproject.dto.response.KeysetPage;
+import com.myproject.dto.response.ReservationBatchItemResponse;
+import com.myproject.dto.response.ResponseMessage;
 import com.myproject.exception.BadRequestException;
 import com.myproject.exception.ResourceNotFoundException;
 import com.myproject.exception.message.ErrorMessage;
+import com.myproject.index.CarOccupancy;
+import com.myproject.index.ReservationInterval;
+import com.myproject.index.ReservationIntervalIndex;
+import com.myproject.lock.CarLockRegistry;
 import com.myproject.mapper.ReservationMapper;
+import com.myproject.pagination.KeysetCursor;
 import com.myproject.repository.ReservationRepository;
+import com.myproject.streaming.EntityStreamer;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
 import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.function.Consumer;
 
 @Service
 public class ReservationService {
 
+    private static final DateTimeFormatter CALENDAR_MONTH_FORMAT = DateTimeFormatter.ofPattern("MM/yyyy");
+
     private final ReservationRepository reservationRepository;
     private final ReservationMapper reservationMapper;
-
-
-    public ReservationService(ReservationRepository reservationRepository, ReservationMapper reservationMapper) {
+    private final ReservationIntervalIndex reservationIntervalIndex;
+    private final CarLockRegistry carLockRegistry;
+    private final TransactionTemplate transactionTemplate;
+    // index hazır degilken DB'ye düsen musaitlik sorguları icin (index'ten cevaplanan sorgular connection almıyor)
+    private final TransactionTemplate readOnlyTransactionTemplate;
+    private final EntityStreamer entityStreamer;
+    private final ReservationStatRollup reservationStatRollup;
+
+
+    public ReservationService(ReservationRepository reservationRepository, ReservationMapper reservationMapper,
+                              ReservationIntervalIndex reservationIntervalIndex, CarLockRegistry carLockRegistry,
+                              TransactionTemplate transactionTemplate, EntityStreamer entityStreamer,
+                              ReservationStatRollup reservationStatRollup) {
         this.reservationRepository = reservationRepository;
         this.reservationMapper = reservationMapper;
+        this.reservationIntervalIndex = reservationIntervalIndex;
+        this.carLockRegistry = carLockRegistry;
+        this.transactionTemplate = transactionTemplate;
+        this.readOnlyTransactionTemplate = new TransactionTemplate(transactionTemplate.getTransactionManager());
+        this.readOnlyTransactionTemplate.setReadOnly(true);
+        this.entityStreamer = entityStreamer;
+        this.reservationStatRollup = reservationStatRollup;
     }
 
 
     public void createReservation(ReservationRequest reservationRequest, User user, Car car) {
 
         checkReservationTimeIsCorrect(reservationRequest.getPickUpTime(),reservationRequest.getDropOfTime());
-        boolean carStatus = checkCarAvailabity(car,reservationRequest.getPickUpTime(),reservationRequest.getDropOfTime());
 
-        Reservation reservation = reservationMapper.reservationRequestToReservation(reservationRequest);
+        // musaitlik kontrolü ve kayıt aynı arac icin sıralı, lock commit sonrasına kadar tutuluyor
+        carLockRegistry.executeWithLock(car.getId(), () -> transactionTemplate.execute(txStatus -> {
+            reservationRepository.lockCarForBooking(car.getId());
+
+            // kayıt öncesi musaitlik DB üzerinden dogrulanıyor
+            boolean carStatus = verifyCarAvailability(car,reservationRequest.getPickUpTime(),reservationRequest.getDropOfTime());
+
+            Reservation reservation = reservationMapper.reservationRequestToReservation(reservationRequest);
+
+            if (carStatus){
+                reservation.setStatus(ReservationStatus.CREATED);
+            }else {
+                throw new BadRequestException(ErrorMessage.CAR_NOT_AVAILABLE_MESSAGE);
+            }
+            reservation.setCar(car);
+            reservation.setUser(user);
+
+            Double totalPrice = getTotalPrice(car, reservationRequest.getPickUpTime(), reservationRequest.getDropOfTime());
 
-        if (carStatus){
-            reservation.setStatus(ReservationStatus.CREATED);
-        }else {
-            throw new BadRequestException(ErrorMessage.CAR_NOT_AVAILABLE_MESSAGE);
+            reservation.setTotalPrice(totalPrice);
+
+            reservationRepository.save(reservation);
+            reservationIntervalIndex.put(reservation);
+            reservationStatRollup.markDirty(reservation);
+            return reservation;
+        }));
+
+    }
+
+    // toplu rezervasyon (kurumsal müsteriler): tüm kalemler birlikte valide ediliyor, her arac icin
+    // tek bir cakısma sorgusu yapılıyor ve kayıtlar tek transaction'da batch insert ediliyor.
+    // atomic=true ise bir kalem bile hatalıysa hicbir rezervasyon olusturulmuyor.
+    public List<ReservationBatchItemResponse> createReservations(List<ReservationBatchItemRequest> items,
+                                                                 User user,
+                                                                 Map<Long, Car> cars,
+                                                                 boolean atomic) {
+        ReservationBatchItemResponse[] results = new ReservationBatchItemResponse[items.size()];
+
+        // arac id -> o araca ait kalemlerin sırası (TreeMap: kilitler artan arac id sırasıyla alınıyor)
+        Map<Long, List<Integer>> itemsByCar = new TreeMap<>();
+        for (int i = 0; i < items.size(); i++) {
+            ReservationBatchItemRequest item = items.get(i);
+            if (!cars.containsKey(item.getCarId())) {
+                results[i] = failedItem(i, item, String.format(ErrorMessage.RESOURCE_NOT_FOUND_EXCEPTION, item.getCarId()));
+                continue;
+            }
+            try {
+                checkReservationTimeIsCorrect(item.getPickUpTime(), item.getDropOfTime());
+            } catch (BadRequestException e) {
+                results[i] = failedItem(i, item, e.getMessage());
+                continue;
+            }
+            itemsByCar.computeIfAbsent(item.getCarId(), carId -> new ArrayList<>()).add(i);
         }
-        reservation.setCar(car);
-        reservation.setUser(user);
 
-        Double totalPrice = getTotalPrice(car, reservationRequest.getPickUpTime(), reservationRequest.getDropOfTime());
+        rejectOverlapsWithinBatch(items, itemsByCar, results);
+
+        if (!(atomic && hasFailedItem(results)) && !itemsByCar.isEmpty()) {
+            carLockRegistry.executeWithLocks(itemsByCar.keySet(), () -> transactionTemplate.execute(txStatus -> {
+                itemsByCar.keySet().forEach(reservationRepository::lockCarForBooking);
+
+                ReservationStatus[] status = {ReservationStatus.CANCELED, ReservationStatus.DONE};
+                List<Integer> accepted = new ArrayList<>();
+                for (Map.Entry<Long, List<Integer>> entry : itemsByCar.entrySet()) {
+                    List<Integer> carItems = entry.getValue();
+                    // arac basına tek sorgu: istenen tüm aralıkları kapsayan zaman dilimi
+                    LocalDateTime from = items.get(carItems.get(0)).getPickUpTime();
+                    LocalDateTime to = carItems.stream().
+                            map(i -> items.get(i).getDropOfTime()).
+                            max(LocalDateTime::compareTo).
+                            orElse(from);
+                    List<ReservationInterval> existing =
+                            reservationRepository.findActiveIntervalsByCar(entry.getKey(), from, to, status);
+
+                    for (Integer i : carItems) {
+                        ReservationBatchItemRequest item = items.get(i);
+                        boolean conflict = existing.stream().
+                                anyMatch(interval -> interval.overlaps(item.getPickUpTime(), item.getDropOfTime()));
+                        if (conflict) {
+                            results[i] = failedItem(i, item, ErrorMessage.CAR_NOT_AVAILABLE_MESSAGE);
+                        } else {
+                            accepted.add(i);
+                        }
+                    }
+                }
+
+                if (atomic && hasFailedItem(results)) {
+                    return null;
+                }
 
-        reservation.setTotalPrice(totalPrice);
+                List<Reservation> reservations = new ArrayList<>(accepted.size());
+                for (Integer i : accepted) {
+                    ReservationBatchItemRequest item = items.get(i);
+                    Car car = cars.get(item.getCarId());
+                    Reservation reservation = reservationMapper.reservationRequestToReservation(item);
+                    reservation.setStatus(ReservationStatus.CREATED);
+                    reservation.setCar(car);
+                    reservation.setUser(user);
+                    reservation.setTotalPrice(getTotalPrice(car, item.getPickUpTime(), item.getDropOfTime()));
+                    reservations.add(reservation);
+                }
 
-        reservationRepository.save(reservation);
+                // sequence id'leri sayesinde hibernate.jdbc.batch_size kadar insert tek seferde gönderiliyor
+                reservationRepository.saveAll(reservations);
+
+                for (int k = 0; k < accepted.size(); k++) {
+                    Reservation reservation = reservations.get(k);
+                    int i = accepted.get(k);
+                    reservationIntervalIndex.put(reservation);
+                    reservationStatRollup.markDirty(reservation);
+                    results[i] = new ReservationBatchItemResponse(i, reservation.getCar().getId(), true,
+                            reservation.getId(), reservation.getTotalPrice(),
+                            ResponseMessage.RESERVATION_CREATED_RESPONSE_MESSAGE);
+                }
+                return null;
+            }));
+        }
+
+        // atomic modda hatasız kalemler de olusturulmadı olarak işaretleniyor
+        if (atomic && hasFailedItem(results)) {
+            for (int i = 0; i < results.length; i++) {
+                if (results[i] == null || results[i].isSuccess()) {
+                    results[i] = failedItem(i, items.get(i), ErrorMessage.RESERVATION_BATCH_ABORTED_MESSAGE);
+                }
+            }
+        }
+        return Arrays.asList(results);
+    }
+
+    // aynı araca ait kalemler pickUpTime'a göre sıralanıp kendi aralarında cakısma kontrol ediliyor
+    private void rejectOverlapsWithinBatch(List<ReservationBatchItemRequest> items,
+                                           Map<Long, List<Integer>> itemsByCar,
+                                           ReservationBatchItemResponse[] results) {
+        Iterator<List<Integer>> groups = itemsByCar.values().iterator();
+        while (groups.hasNext()) {
+            List<Integer> carItems = groups.next();
+            carItems.sort(Comparator.comparing(i -> items.get(i).getPickUpTime()));
+
+            List<Integer> accepted = new ArrayList<>();
+            LocalDateTime lastDropOfTime = null;
+            for (Integer i : carItems) {
+                ReservationBatchItemRequest item = items.get(i);
+                if (lastDropOfTime != null && item.getPickUpTime().isBefore(lastDropOfTime)) {
+                    results[i] = failedItem(i, item, ErrorMessage.RESERVATION_BATCH_OVERLAP_MESSAGE);
+                } else {
+                    accepted.add(i);
+                    lastDropOfTime = item.getDropOfTime();
+                }
+            }
+            carItems.retainAll(accepted);
+            if (carItems.isEmpty()) {
+                groups.remove();
+            }
+        }
+    }
 
+    private static boolean hasFailedItem(ReservationBatchItemResponse[] results) {
+        return Arrays.stream(results).anyMatch(result -> result != null && !result.isSuccess());
+    }
+
+    private static ReservationBatchItemResponse failedItem(int index, ReservationBatchItemRequest item, String message) {
+        return new ReservationBatchItemResponse(index, item.getCarId(), false, null, null, message);
     }
 
     // istenen rezervasyon tarihleri dogrumu ??
@@ -77,13 +270,56 @@ public class ReservationService {
         }
     }
 
-    // araç musaitmi?
+    // araç musaitmi? (index yüklendiyse bellekten cevaplanır, transaction/connection acılmıyor)
     public boolean checkCarAvailabity(Car car,
                                       LocalDateTime pickUpTime,
                                       LocalDateTime dropOfTime){
-        List<Reservation> existReservations = getConflictReservations(car,pickUpTime,dropOfTime);
+        if (!reservationIntervalIndex.isReady()){
+            return readOnlyTransactionTemplate.execute(txStatus -> verifyCarAvailability(car,pickUpTime,dropOfTime));
+        }
+        if (pickUpTime.isAfter(dropOfTime)){
+            throw new BadRequestException(ErrorMessage.RESERVATION_TIME_INCORRECT_MESSAGE);
+        }
+        return !reservationIntervalIndex.hasConflict(car.getId(),pickUpTime,dropOfTime,null);
+    }
+
+    // aracın bir aylık takvimi, index yüklendiyse bellekteki saatlik doluluk bitmap'inden tek seferde okunur
+    public CarCalendarResponse getCarCalendar(Car car, String monthValue) {
+        YearMonth month = parseCalendarMonth(monthValue);
+        LocalDate firstDay = month.atDay(1);
+        int dayCount = month.lengthOfMonth();
+
+        int[] masks;
+        if (reservationIntervalIndex.isReady()) {
+            masks = reservationIntervalIndex.getDailyOccupancy(car.getId(), firstDay, dayCount);
+        } else {
+            ReservationStatus[] status = {ReservationStatus.CANCELED, ReservationStatus.DONE};
+            List<ReservationInterval> intervals = readOnlyTransactionTemplate.execute(txStatus ->
+                    reservationRepository.findActiveIntervalsByCar(car.getId(),
+                            firstDay.atStartOfDay(), firstDay.plusDays(dayCount).atStartOfDay(), status));
+            masks = CarOccupancy.of(firstDay, dayCount, intervals).dailyMasks(firstDay, dayCount);
+        }
 
-        return existReservations.isEmpty();
+        List<CarCalendarDay> days = new ArrayList<>(dayCount);
+        for (int i = 0; i < dayCount; i++) {
+            days.add(new CarCalendarDay(firstDay.plusDays(i), masks[i] == 0, masks[i] == CarOccupancy.FULL_DAY, masks[i]));
+        }
+        return new CarCalendarResponse(car.getId(), month, days);
+    }
+
+    private static YearMonth parseCalendarMonth(String month) {
+        try {
+            return YearMonth.parse(month, CALENDAR_MONTH_FORMAT);
+        } catch (DateTimeParseException e) {
+            throw new BadRequestException(String.format(ErrorMessage.CALENDAR_MONTH_INCORRECT_MESSAGE, month));
+        }
+    }
+
+    // araç musaitmi? (DB üzerinden)
+    private boolean verifyCarAvailability(Car car,
+                                          LocalDateTime pickUpTime,
+                                          LocalDateTime dropOfTime){
+        return !hasConflictReservation(car,pickUpTime,dropOfTime,null);
     }
 
 
@@ -99,40 +335,84 @@ public class ReservationService {
 
 
     // Rezervasyonlar arası cakısma var mı ????
-    public List<Reservation> getConflictReservations(Car car,
-                                                      LocalDateTime pickUpTime,
-                                                      LocalDateTime dropOfTime){
+    // excludeReservationId null degilse o rezervasyon cakısma sayılmaz (update islemi)
+    public boolean hasConflictReservation(Car car,
+                                          LocalDateTime pickUpTime,
+                                          LocalDateTime dropOfTime,
+                                          Long excludeReservationId){
         if (pickUpTime.isAfter(dropOfTime)){
             throw new BadRequestException(ErrorMessage.RESERVATION_TIME_INCORRECT_MESSAGE);
         }
 
         ReservationStatus[] status = {ReservationStatus.CANCELED,ReservationStatus.DONE};
 
-        List<Reservation> existReservation = reservationRepository.checkCarStatus(car.getId(),pickUpTime,dropOfTime,status);
-
-        return existReservation;
+        if (excludeReservationId == null){
+            return reservationRepository.existsConflict(car.getId(),pickUpTime,dropOfTime,status);
+        }
+        return reservationRepository.existsConflictExcluding(car.getId(),pickUpTime,dropOfTime,status,excludeReservationId);
     }
 
 
-    public List<ReservationDTO> getAllReservations() {
-        List<Reservation> reservations = reservationRepository.findAll();
-        return reservationMapper.map(reservations);
+    // tüm rezervasyonlar List'e doldurulmadan DB cursor'u üzerinden tek tek consumer'a veriliyor
+    @Transactional(readOnly = true)
+    public void streamAllReservations(Consumer<ReservationDTO> consumer) {
+        entityStreamer.forEach(reservationRepository.streamAll(),
+                               reservationMapper::reservationToReservationDTO,
+                               consumer);
     }
 
 
+    @Transactional(readOnly = true)
     public Page<ReservationDTO> getAllWithPage(Pageable pageable) {
         Page<Reservation> reservationPage = reservationRepository.findAll(pageable);
         return reservationPage.map(reservationMapper::reservationToReservationDTO);
     }
 
+    // count(*) yapılmadan sayfalama
+    @Transactional(readOnly = true)
+    public Slice<ReservationDTO> getAllWithSlice(Pageable pageable) {
+        Slice<Reservation> reservationSlice = reservationRepository.findSliceBy(pageable);
+        return reservationSlice.map(reservationMapper::reservationToReservationDTO);
+    }
+
+    // keyset sayfalama, derin sayfalar da ilk sayfa kadar hızlı
+    @Transactional(readOnly = true)
+    public KeysetPage<ReservationDTO> getAllByCursor(KeysetCursor cursor, int size) {
+        Pageable pageable = cursor.toPageable(size);
+        Slice<Reservation> reservationSlice = cursor.isAscending() ?
+                reservationRepository.findByIdGreaterThan(cursor.boundary(), pageable) :
+                reservationRepository.findByIdLessThan(cursor.boundary(), pageable);
+        return cursor.next(reservationSlice, Reservation::getId, reservationMapper::reservationToReservationDTO);
+    }
+
+    // rezervasyon baska araca tasınıyorsa hem eski hem yeni aracın kilidi alınıyor (index ve özet iki aracta da degisiyor).
+    // Kilitler alınırken rezervasyon baska bir araca tasınmıssa o aracla tekrar deneniyor.
     public void updateReservation(Car car, Long reservationId, ReservationUpdateRequest reservationUpdateRequest) {
-        Reservation reservation = getById(reservationId);
+        Long currentCarId = getCarIdOf(reservationId);
+        while (currentCarId != null) {
+            Set<Long> carIds = new TreeSet<>(Arrays.asList(currentCarId, car.getId()));
+            currentCarId = carLockRegistry.executeWithLocks(carIds, () -> transactionTemplate.execute(txStatus -> {
+                carIds.forEach(reservationRepository::lockCarForBooking);
+                Reservation reservation = getById(reservationId);
+                if (!carIds.contains(reservation.getCar().getId())) {
+                    return reservation.getCar().getId();
+                }
+                applyReservationUpdate(car, reservation, reservationUpdateRequest);
+                return null;
+            }));
+        }
+    }
+
+    private Reservation applyReservationUpdate(Car car, Reservation reservation, ReservationUpdateRequest reservationUpdateRequest) {
         // rezervasyon statusu "cancel" veya "done" ise update islemi yapılamasın
         if (reservation.getStatus().equals(ReservationStatus.CANCELED) ||
             reservation.getStatus().equals(ReservationStatus.DONE)){
             throw new BadRequestException(ErrorMessage.RESERVATION_STATUS_CANT_CHANGE_MESSAGE);
         }
 
+        // rezervasyonun eski gününe ait özet de yeniden hesaplanmalı
+        reservationStatRollup.markDirty(reservation);
+
         // !!! reservasyon update edilecekken statüsü create yapılmayacaksa pickUpTime ve
         //  DropOfTime kontrolü yapılamasın
         if (reservationUpdateRequest.getStatus() != null &&
@@ -140,15 +420,12 @@ public class ReservationService {
             checkReservationTimeIsCorrect(reservationUpdateRequest.getPickUpTime(),reservationUpdateRequest.getDropOfTime());
 
             //Conflict kontrolu
-            List<Reservation> conflictReservations =
-                    getConflictReservations(car,
-                                            reservationUpdateRequest.getPickUpTime(),
-                                            reservationUpdateRequest.getDropOfTime());
-            if (!conflictReservations.isEmpty()){
-                if (!(conflictReservations.size()==1 &&
-                      conflictReservations.get(0).getId().equals(reservationId))){
-                    throw new BadRequestException(ErrorMessage.CAR_NOT_AVAILABLE_MESSAGE);
-                }
+            boolean conflict = hasConflictReservation(car,
+                                                      reservationUpdateRequest.getPickUpTime(),
+                                                      reservationUpdateRequest.getDropOfTime(),
+                                                      reservation.getId());
+            if (conflict){
+                throw new BadRequestException(ErrorMessage.CAR_NOT_AVAILABLE_MESSAGE);
             }
 
             // fiyat hesaplaması
@@ -166,49 +443,68 @@ public class ReservationService {
         reservation.setStatus(reservationUpdateRequest.getStatus());
 
         reservationRepository.save(reservation);
+        reservationIntervalIndex.put(reservation);
+        reservationStatRollup.markDirty(reservation);
+        return reservation;
     }
 
+    @Transactional(readOnly = true)
     public Reservation getById(Long id){
         Reservation reservation = reservationRepository.findById(id).orElseThrow(()->
                 new ResourceNotFoundException(String.format(ErrorMessage.RESOURCE_NOT_FOUND_EXCEPTION,id)));
         return reservation;
     }
 
+    @Transactional(readOnly = true)
     public ReservationDTO getReservationDTO(Long id) {
         Reservation reservation= getById(id);
         return reservationMapper.reservationToReservationDTO(reservation);
     }
 
+    @Transactional(readOnly = true)
     public Page<ReservationDTO> findReservationPageByUser(User user, Pageable pageable) {
         Page<Reservation> reservationPage = reservationRepository.findAllByUser(user,pageable);
         return reservationPage.map(reservationMapper::reservationToReservationDTO);
     }
 
+    @Transactional(readOnly = true)
     public ReservationDTO findByIdAndUser(Long id, User user) {
         Reservation reservation = reservationRepository.findByIdAndUser(id,user).orElseThrow(()->
                 new ResourceNotFoundException(String.format(ErrorMessage.RESOURCE_NOT_FOUND_EXCEPTION,id)));
         return reservationMapper.reservationToReservationDTO(reservation);
     }
 
+    // silme de aracın kilidi altında yapılıyor, index güncellemesi aynı aracın rezervasyonlarıyla sıralı
     public void removeById(Long id) {
-        boolean exist = reservationRepository.existsById(id);
-        if (!exist){
-            throw new ResourceNotFoundException(String.format(ErrorMessage.RESOURCE_NOT_FOUND_EXCEPTION,id));
+        Long currentCarId = getCarIdOf(id);
+        while (currentCarId != null) {
+            Long lockedCarId = currentCarId;
+            currentCarId = carLockRegistry.executeWithLock(lockedCarId, () -> transactionTemplate.execute(txStatus -> {
+                reservationRepository.lockCarForBooking(lockedCarId);
+                Reservation reservation = getById(id);
+                if (!reservation.getCar().getId().equals(lockedCarId)) {
+                    return reservation.getCar().getId();
+                }
+                reservationRepository.delete(reservation);
+                reservationIntervalIndex.remove(id);
+                reservationStatRollup.markDirty(reservation);
+                return null;
+            }));
         }
+    }
 
-        reservationRepository.deleteById(id);
-
+    private Long getCarIdOf(Long reservationId) {
+        return reservationRepository.findCarIdById(reservationId).orElseThrow(()->
+                new ResourceNotFoundException(String.format(ErrorMessage.RESOURCE_NOT_FOUND_EXCEPTION,reservationId)));
     }
 
+    @Transactional(readOnly = true)
     public boolean existsByCar(Car car) {
         return reservationRepository.existsByCar(car);
     }
 
+    @Transactional(readOnly = true)
     public boolean existsByUser(User user) {
         return reservationRepository.existsByUser(user);
     }
-
-    public List<Reservation> getAll() {
-        return reservationRepository.findAllBy();
-    }
 }
@@ -8,23 +8,41 @@ import com.myproject.dto.request.AdminUserUpdateRequest;
 import com.myproject.dto.request.RegisterRequest;
 import com.myproject.dto.request.UpdatePasswordRequest;
 import com.myproject.dto.request.UserUpdateRequest;
+import com.myproject.dto.response.ImportResponse;
+import com.myproject.dto.response.ImportRowError;
+import com.myproject.dto.response.KeysetPage;
 import com.myproject.exception.BadRequestException;
 import com.myproject.exception.ConflictException;
 import com.myproject.exception.ResourceNotFoundException;
 import com.myproject.exception.message.ErrorMessage;
+import com.myproject.importer.BulkImporter;
+import com.myproject.importer.ImportRow;
+import com.myproject.importer.SourceRow;
 import com.myproject.mapper.UserMapper;
+import com.myproject.pagination.KeysetCursor;
 import com.myproject.repository.UserRepository;
 import com.myproject.security.SecurityUtils;
+import com.myproject.security.service.PrincipalCache;
+import com.myproject.security.service.TokenRevocationList;
+import com.myproject.streaming.EntityStreamer;
 import org.springframework.context.annotation.Lazy;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.web.multipart.MultipartFile;
 
+import java.util.ArrayList;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Set;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 @Service
 public class UserService {
@@ -37,22 +55,40 @@ public class UserService {
 
     private final UserMapper userMapper;
     private final ReservationService reservationService;
+    private final PrincipalCache principalCache;
+    private final TokenRevocationList tokenRevocationList;
+    private final EntityStreamer entityStreamer;
+    private final BulkImporter bulkImporter;
 
-    public UserService(UserRepository userRepository, RoleService roleService, @Lazy PasswordEncoder passwordEncoder, UserMapper userMapper, ReservationService reservationService) {
+    public UserService(UserRepository userRepository, RoleService roleService, @Lazy PasswordEncoder passwordEncoder, UserMapper userMapper, ReservationService reservationService, PrincipalCache principalCache, TokenRevocationList tokenRevocationList, EntityStreamer entityStreamer, BulkImporter bulkImporter) {
         this.userRepository = userRepository;
         this.roleService = roleService;
         this.passwordEncoder = passwordEncoder;
         this.userMapper = userMapper;
         this.reservationService = reservationService;
+        this.principalCache = principalCache;
+        this.tokenRevocationList = tokenRevocationList;
+        this.entityStreamer = entityStreamer;
+        this.bulkImporter = bulkImporter;
     }
 
+    @Transactional(readOnly = true)
     public User getUserByEmail(String email){
         User user = userRepository.findByEmail(email).orElseThrow(()->
                 new ResourceNotFoundException(String.format(ErrorMessage.USER_NOT_FOUND_EXCEPTION,email)));
         return user;
     }
 
+    // login ve JWT filtresi icin kullanıcı ve rolleri primary'den okunuyor (read-only degil).
+    // Filtre calısırken SecurityContext henüz bos oldugundan ReadYourWritesTracker istegi primary'ye
+    // yönlendiremiyor, replica'dan okunursa yetkisi degisen kullanıcının eski rolleri tekrar cache'e girer
+    @Transactional
+    public User getUserForAuthentication(String email){
+        return getUserByEmail(email);
+    }
+
 
+    @Transactional
     public void saveUser(RegisterRequest registerRequest) {
 
         // DTO dan gelen email DB' de daha önce varmı?
@@ -84,18 +120,80 @@ public class UserService {
 
     }
 
-    public List<UserDTO> getAllUsers() {
-        List<User> users = userRepository.findAll();
-        List<UserDTO> userDTOS = userMapper.map(users);
-        return userDTOS;
+    // CSV veya xlsx'ten toplu kullanıcı ekleme, tüm kullanıcılar Customer rolü ile kaydediliyor.
+    // Kolonlar: FirstName,LastName,Email,Password,PhoneNumber,Address,ZipCode
+    // Satırlar register ile aynı kurallarla dogrulanıyor. Import süresinin büyük kısmını satır basına
+    // bcrypt encode islemi olusturuyor, bu yüzden dönüsüm paralel yapılıyor
+    public ImportResponse importUsers(MultipartFile file) {
+        Role role = roleService.findByType(RoleType.ROLE_CUSTOMER);
+        // chunk'lar sırayla yazıldıgı icin dosya icindeki tekrarlar burada yakalanıyor,
+        // email'ler ancak chunk'ları commit edilince ekleniyor
+        Set<String> fileEmails = new HashSet<>();
+
+        return bulkImporter.importFile(file, this::sourceRowToRegisterRequest, registerRequest -> {
+            User user = new User();
+            user.setFirstName(registerRequest.getFirstName());
+            user.setLastName(registerRequest.getLastName());
+            user.setEmail(registerRequest.getEmail());
+            user.setPassword(passwordEncoder.encode(registerRequest.getPassword()));
+            user.setPhoneNumber(registerRequest.getPhoneNumber());
+            user.setAddress(registerRequest.getAddress());
+            user.setZipCode(registerRequest.getZipCode());
+            user.getRoles().add(role);
+            return user;
+        }, (chunk, errors) -> {
+            // DB'de zaten kayıtlı email'ler chunk basına tek sorguda bulunuyor
+            Set<String> existingEmails = userRepository.findExistingEmails(
+                    chunk.stream().map(row -> row.getValue().getEmail()).collect(Collectors.toList()));
+            Set<String> chunkEmails = new HashSet<>();
+            List<User> users = new ArrayList<>(chunk.size());
+            for (ImportRow<User> row : chunk) {
+                String email = row.getValue().getEmail();
+                if (existingEmails.contains(email) || fileEmails.contains(email) || !chunkEmails.add(email)) {
+                    errors.add(new ImportRowError(row.getRowNumber(),
+                            String.format(ErrorMessage.EMAIL_ALREADY_EXIST_MESSAGE, email)));
+                } else {
+                    users.add(row.getValue());
+                }
+            }
+            userRepository.saveAll(users);
+            // geri alınan chunk'ın email'leri sonraki satırları engellemesin
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    fileEmails.addAll(chunkEmails);
+                }
+            });
+            return users.size();
+        });
+    }
+
+    private RegisterRequest sourceRowToRegisterRequest(SourceRow row) {
+        RegisterRequest registerRequest = new RegisterRequest();
+        registerRequest.setFirstName(row.getOptional("firstName"));
+        registerRequest.setLastName(row.getOptional("lastName"));
+        registerRequest.setEmail(row.getOptional("email"));
+        registerRequest.setPassword(row.getOptional("password"));
+        registerRequest.setPhoneNumber(row.getOptional("phoneNumber"));
+        registerRequest.setAddress(row.getOptional("address"));
+        registerRequest.setZipCode(row.getOptional("zipCode"));
+        return registerRequest;
     }
 
+    // tüm kullanıcılar List'e doldurulmadan DB cursor'u üzerinden tek tek consumer'a veriliyor
+    @Transactional(readOnly = true)
+    public void streamAllUsers(Consumer<UserDTO> consumer) {
+        entityStreamer.forEach(userRepository.streamAll(), userMapper::userToUserDTO, consumer);
+    }
+
+    @Transactional(readOnly = true)
     public UserDTO getPrincipal() {
         User user = getCurrentUser();
         UserDTO userDTO = userMapper.userToUserDTO(user);
         return userDTO;
     }
 
+    @Transactional(readOnly = true)
     public User getCurrentUser(){
         String email = SecurityUtils.getCurrentLogin().orElseThrow(()->
                 new ResourceNotFoundException(ErrorMessage.PRINCIPAL_FOUND_MESSAGE));
@@ -103,17 +201,36 @@ public class UserService {
         return user;
     }
 
+    @Transactional(readOnly = true)
     public Page<UserDTO> getUserPage(Pageable pageable) {
         Page<User> userPage = userRepository.findAll(pageable);
         return getUserDTOPage(userPage);
     }
 
+    // count(*) yapılmadan sayfalama
+    @Transactional(readOnly = true)
+    public Slice<UserDTO> getUserSlice(Pageable pageable) {
+        Slice<User> userSlice = userRepository.findSliceBy(pageable);
+        return userSlice.map(userMapper::userToUserDTO);
+    }
+
+    // keyset sayfalama, sayfa numarası yerine cursor
+    @Transactional(readOnly = true)
+    public KeysetPage<UserDTO> getUsersByCursor(KeysetCursor cursor, int size) {
+        Pageable pageable = cursor.toPageable(size);
+        Slice<User> userSlice = cursor.isAscending() ?
+                userRepository.findByIdGreaterThan(cursor.boundary(), pageable) :
+                userRepository.findByIdLessThan(cursor.boundary(), pageable);
+        return cursor.next(userSlice, User::getId, userMapper::userToUserDTO);
+    }
+
     private Page<UserDTO> getUserDTOPage(Page<User> userPage){
         return userPage.map(
                 user-> userMapper.userToUserDTO(user));
     }
 
 
+    @Transactional(readOnly = true)
     public UserDTO getUserById(Long id) {
         User user = userRepository.findById(id).orElseThrow(()->
                 new ResourceNotFoundException(String.format(ErrorMessage.RESOURCE_NOT_FOUND_EXCEPTION,id)));
@@ -121,6 +238,7 @@ public class UserService {
     }
 
 
+    @Transactional
     public void updatePassword(UpdatePasswordRequest updatePasswordRequest) {
         User user = getCurrentUser();
 
@@ -144,6 +262,7 @@ public class UserService {
 
         user.setPassword(hashedPassword);
         userRepository.save(user);
+        invalidatePrincipal(user.getEmail());
     }
     @Transactional
     public void updateUser(UserUpdateRequest userUpdateRequest) {
@@ -164,14 +283,17 @@ public class UserService {
         userRepository.update(user.getId(),userUpdateRequest.getFirstName(),
                 userUpdateRequest.getLastName(),userUpdateRequest.getPhoneNumber(),userUpdateRequest.getEmail(),
                 userUpdateRequest.getAddress(), userUpdateRequest.getZipCode());
+        invalidatePrincipal(user.getEmail());
 
 
     }
+    @Transactional(readOnly = true)
     public User getById(Long id){
         User user = userRepository.findUserById(id).orElseThrow(()->
                 new ResourceNotFoundException(String.format(ErrorMessage.RESOURCE_NOT_FOUND_EXCEPTION,id)));
         return user;
     }
+    @Transactional
     public void updateUserAuth(Long id, AdminUserUpdateRequest adminUserUpdateRequest) {
 
         User user = getById(id);
@@ -201,6 +323,7 @@ public class UserService {
         Set<String> userStringRoles = adminUserUpdateRequest.getRoles();
 
         Set<Role> roles = convertRoles(userStringRoles);
+        String oldEmail = user.getEmail();
         user.setFirstName(adminUserUpdateRequest.getFirstName());
         user.setLastName(adminUserUpdateRequest.getLastName());
         user.setEmail(adminUserUpdateRequest.getEmail());
@@ -212,6 +335,7 @@ public class UserService {
         user.setRoles(roles);
 
         userRepository.save(user);
+        invalidatePrincipal(oldEmail);
 
     }
 
@@ -237,6 +361,7 @@ public class UserService {
     }
 
 
+    @Transactional
     public void removeUserById(Long id) {
         User user = getById(id);
 
@@ -252,10 +377,20 @@ public class UserService {
         }
 
        userRepository.deleteById(id);
+       invalidatePrincipal(user.getEmail());
+
+    }
 
+    // transaction icinde kullanılmalı, stream kapatılmalı
+    public Stream<User> getUserStream() {
+        return userRepository.streamAll();
     }
 
-    public List<User> getUsers() {
-        return userRepository.findAll();
+    // kullanıcının cache'teki bilgisi siliniyor, mevcut token'larındaki claim'ler de
+    // artık güvenilir olmadıgı icin revoke ediliyor
+    private void invalidatePrincipal(String email){
+        principalCache.evict(email);
+        tokenRevocationList.revoke(email);
     }
+
 }
@@ -0,0 +1,32 @@
+package com.myproject.storage;
+
+import org.springframework.core.io.Resource;
+
+import java.io.IOException;
+import java.io.InputStream;
+
+public interface BlobStore {
+
+    // Icerik adresli (SHA-256) dosya deposu. Aynı icerik bir kere saklanır,
+    // kayıtlar icerigin hash degeri ile okunur/silinir.
+
+    // icerigi kaydeder ve hex formatında SHA-256 degerini döner
+    default String store(InputStream content) throws IOException {
+        try (StagedBlob blob = stage(content)) {
+            publish(blob);
+            return blob.getContentHash();
+        }
+    }
+
+    // icerigi gecici olarak yazıp hash'ini hesaplar, publish edilene kadar load ile okunamaz
+    StagedBlob stage(InputStream content) throws IOException;
+
+    // aynı icerik yoksa yayınlar; icerik bu cagrıyla olusturulduysa true döner
+    boolean publish(StagedBlob blob) throws IOException;
+
+    // dönen Resource'un InputStream'i skip() ile ileri sarılabilir (range okumaları icin)
+    Resource load(String contentHash);
+
+    void delete(String contentHash) throws IOException;
+
+}
@@ -0,0 +1,142 @@
+package com.myproject.storage;
+
+import com.myproject.exception.ResourceNotFoundException;
+import com.myproject.exception.message.ErrorMessage;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.core.io.Resource;
+import org.springframework.stereotype.Component;
+
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.FileAlreadyExistsException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.security.DigestOutputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.regex.Pattern;
+
+@Component
+public class LocalFileSystemBlobStore implements BlobStore {
+
+    // dosyalar <root>/ab/cd/abcd... seklinde saklanıyor, yazma islemi önce tmp klasörüne yapılıp tasınıyor
+
+    private static final Pattern SHA_256_HEX = Pattern.compile("[0-9a-f]{64}");
+
+    private final Path root;
+
+    private final Path tmpDir;
+
+    public LocalFileSystemBlobStore(@Value("${saferentproject.app.blobStorePath:blobstore}") String rootPath)
+            throws IOException {
+        this.root = Paths.get(rootPath).toAbsolutePath().normalize();
+        this.tmpDir = root.resolve("tmp");
+        Files.createDirectories(tmpDir);
+    }
+
+    @Override
+    public StagedBlob stage(InputStream content) throws IOException {
+        Path tmpFile = Files.createTempFile(tmpDir, "upload-", ".blob");
+        try {
+            MessageDigest digest = sha256();
+            try (OutputStream out = new DigestOutputStream(Files.newOutputStream(tmpFile), digest)) {
+                content.transferTo(out);
+            }
+            return new StagedBlob(toHex(digest.digest()), tmpFile);
+        } catch (IOException | RuntimeException e) {
+            Files.deleteIfExists(tmpFile);
+            throw e;
+        }
+    }
+
+    @Override
+    public boolean publish(StagedBlob blob) throws IOException {
+        Path target = pathOf(blob.getContentHash());
+        if (Files.exists(target)) {
+            // aynı icerik daha önce kaydedilmis
+            return false;
+        }
+        Files.createDirectories(target.getParent());
+        try {
+            Files.move(blob.getFile(), target, StandardCopyOption.ATOMIC_MOVE);
+            return true;
+        } catch (FileAlreadyExistsException e) {
+            // aynı icerik eszamanlı olarak baska bir istekle kaydedildi
+            return false;
+        }
+    }
+
+    @Override
+    public Resource load(String contentHash) {
+        Path path = pathOf(contentHash);
+        if (!Files.isRegularFile(path)) {
+            throw new ResourceNotFoundException(String.format(ErrorMessage.IMAGE_NOT_FOUND_MESSAGE, contentHash));
+        }
+        return new SeekableFileResource(path);
+    }
+
+    @Override
+    public void delete(String contentHash) throws IOException {
+        Files.deleteIfExists(pathOf(contentHash));
+    }
+
+    private Path pathOf(String contentHash) {
+        if (contentHash == null || !SHA_256_HEX.matcher(contentHash).matches()) {
+            throw new IllegalArgumentException("Invalid content hash: " + contentHash);
+        }
+        return root.resolve(contentHash.substring(0, 2)).
+                resolve(contentHash.substring(2, 4)).
+                resolve(contentHash);
+    }
+
+    // skip() dosyayı okumak yerine FileChannel pozisyonunu ilerletiyor,
+    // range isteklerinde sadece istenen byte aralıgı okunuyor
+    private static class SeekableFileResource extends FileSystemResource {
+
+        SeekableFileResource(Path path) {
+            super(path);
+        }
+
+        @Override
+        public InputStream getInputStream() throws IOException {
+            FileChannel channel = FileChannel.open(getFile().toPath(), StandardOpenOption.READ);
+            return new FilterInputStream(Channels.newInputStream(channel)) {
+                @Override
+                public long skip(long n) throws IOException {
+                    if (n <= 0) {
+                        return 0;
+                    }
+                    long position = channel.position();
+                    long newPosition = Math.min(channel.size(), position + n);
+                    channel.position(newPosition);
+                    return newPosition - position;
+                }
+            };
+        }
+    }
+
+    private static MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static String toHex(byte[] bytes) {
+        StringBuilder sb = new StringBuilder(bytes.length * 2);
+        for (byte b : bytes) {
+            sb.append(Character.forDigit((b >> 4) & 0xF, 16)).append(Character.forDigit(b & 0xF, 16));
+        }
+        return sb.toString();
+    }
+
+}
@@ -0,0 +1,34 @@
+package com.myproject.storage;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+// BlobStore'a yazılmıs fakat henüz yayınlanmamıs (okunamayan) icerik.
+// Hash belli oldugu icin yayınlama aynı icerigi silen islemlerle sıraya sokulabilir (bkz. ImageFileService).
+// close() yayınlanmamıs gecici dosyayı siliyor.
+public final class StagedBlob implements Closeable {
+
+    private final String contentHash;
+
+    private final Path file;
+
+    StagedBlob(String contentHash, Path file) {
+        this.contentHash = contentHash;
+        this.file = file;
+    }
+
+    public String getContentHash() {
+        return contentHash;
+    }
+
+    Path getFile() {
+        return file;
+    }
+
+    @Override
+    public void close() throws IOException {
+        Files.deleteIfExists(file);
+    }
+}
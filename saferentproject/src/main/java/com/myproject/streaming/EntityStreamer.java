@@ -0,0 +1,38 @@
+package com.myproject.streaming;
+
+import org.springframework.stereotype.Component;
+
+import javax.persistence.EntityManager;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.stream.Stream;
+
+@Component
+public class EntityStreamer {
+
+    // DB cursor'undan okunan entity'ler DTO'ya cevrilip consumer'a veriliyor.
+    // Okunan entity'ler persistence context'te birikmesin diye belli aralıklarla temizleniyor,
+    // böylece tablo ne kadar büyük olursa olsun heap kullanımı sabit kalıyor.
+    // Transaction icinde cagrılmalı.
+
+    private static final int CLEAR_INTERVAL = 500;
+
+    private final EntityManager entityManager;
+
+    public EntityStreamer(EntityManager entityManager) {
+        this.entityManager = entityManager;
+    }
+
+    public <E, D> void forEach(Stream<E> entities, Function<E, D> mapper, Consumer<D> consumer) {
+        int[] count = {0};
+        try (Stream<E> stream = entities) {
+            stream.forEach(entity -> {
+                consumer.accept(mapper.apply(entity));
+                if (++count[0] % CLEAR_INTERVAL == 0) {
+                    entityManager.clear();
+                }
+            });
+        }
+    }
+
+}
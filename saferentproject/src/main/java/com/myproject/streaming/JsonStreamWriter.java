@@ -0,0 +1,74 @@
+package com.myproject.streaming;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.function.Consumer;
+
+@Component
+public class JsonStreamWriter {
+
+    // Tüm tabloyu List'e doldurmadan, kayıtlar okundukca response'a yazılıyor.
+    // Accept: application/x-ndjson ise her satırda bir JSON, degilse tek bir JSON array.
+
+    private static final int FLUSH_INTERVAL = 100;
+
+    private final ObjectMapper objectMapper;
+    private final ObjectWriter objectWriter;
+
+    public JsonStreamWriter(ObjectMapper objectMapper) {
+        this.objectMapper = objectMapper;
+        // her kayıttan sonra flush yapılmasın, FLUSH_INTERVAL ile yapılıyor
+        this.objectWriter = objectMapper.writer().without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+    }
+
+    public static boolean isNdjson(String accept) {
+        return accept != null && accept.contains(MediaType.APPLICATION_NDJSON_VALUE);
+    }
+
+    // source, verilen consumer'a kayıtları tek tek gönderen method (ör. service::streamAll)
+    public <T> ResponseEntity<StreamingResponseBody> stream(String accept, Consumer<Consumer<T>> source) {
+        boolean ndjson = isNdjson(accept);
+
+        StreamingResponseBody body = outputStream -> {
+            try (JsonGenerator generator = objectMapper.getFactory().createGenerator(outputStream)) {
+                if (ndjson) {
+                    // satırlar arasında varsayılan " " ayracı olmasın
+                    generator.setRootValueSeparator(null);
+                } else {
+                    generator.writeStartArray();
+                }
+                int[] count = {0};
+                source.accept(item -> {
+                    try {
+                        objectWriter.writeValue(generator, item);
+                        if (ndjson) {
+                            generator.writeRaw('\n');
+                        }
+                        if (++count[0] % FLUSH_INTERVAL == 0) {
+                            generator.flush();
+                        }
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                });
+                if (!ndjson) {
+                    generator.writeEndArray();
+                }
+            }
+        };
+
+        return ResponseEntity.ok().
+                contentType(ndjson ? MediaType.APPLICATION_NDJSON : MediaType.APPLICATION_JSON).
+                body(body);
+    }
+
+}
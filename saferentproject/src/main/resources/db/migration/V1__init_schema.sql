@@ -0,0 +1,104 @@
+-- Baslangic semasi (entity'ler ile birebir). ddl-auto=update ile olusmus mevcut veritabanlarında da
+-- calısabilmesi icin tüm ifadeler IF NOT EXISTS ile yazıldı.
+
+CREATE SEQUENCE IF NOT EXISTS t_car_seq START WITH 1 INCREMENT BY 50;
+CREATE SEQUENCE IF NOT EXISTS t_user_seq START WITH 1 INCREMENT BY 50;
+CREATE SEQUENCE IF NOT EXISTS t_reservation_seq START WITH 1 INCREMENT BY 50;
+CREATE SEQUENCE IF NOT EXISTS t_imagedata_seq START WITH 1 INCREMENT BY 50;
+CREATE SEQUENCE IF NOT EXISTS tbl_cmessage_seq START WITH 1 INCREMENT BY 50;
+
+CREATE TABLE IF NOT EXISTS t_role (
+    id   SERIAL       NOT NULL,
+    type VARCHAR(255),
+    PRIMARY KEY (id)
+);
+
+CREATE TABLE IF NOT EXISTS t_user (
+    id           INT8         NOT NULL,
+    first_name   VARCHAR(50)  NOT NULL,
+    last_name    VARCHAR(50)  NOT NULL,
+    email        VARCHAR(50)  NOT NULL,
+    password     VARCHAR(120) NOT NULL,
+    phone_number VARCHAR(14)  NOT NULL,
+    address      VARCHAR(15)  NOT NULL,
+    zip_code     VARCHAR(15)  NOT NULL,
+    built_in     BOOLEAN      NOT NULL,
+    PRIMARY KEY (id),
+    CONSTRAINT uk_user_email UNIQUE (email)
+);
+
+CREATE TABLE IF NOT EXISTS t_user_role (
+    user_id INT8 NOT NULL,
+    role_id INT4 NOT NULL,
+    PRIMARY KEY (user_id, role_id),
+    CONSTRAINT fk_user_role_user FOREIGN KEY (user_id) REFERENCES t_user (id),
+    CONSTRAINT fk_user_role_role FOREIGN KEY (role_id) REFERENCES t_role (id)
+);
+
+CREATE TABLE IF NOT EXISTS t_car (
+    id               INT8        NOT NULL,
+    model            VARCHAR(30) NOT NULL,
+    doors            INT4        NOT NULL,
+    seats            INT4        NOT NULL,
+    luggage          INT4        NOT NULL,
+    transmission     VARCHAR(30) NOT NULL,
+    air_conditioning BOOLEAN     NOT NULL,
+    age              INT4        NOT NULL,
+    price_per_hour   FLOAT8      NOT NULL,
+    fuel_type        VARCHAR(30) NOT NULL,
+    built_in         BOOLEAN,
+    PRIMARY KEY (id)
+);
+
+CREATE TABLE IF NOT EXISTS t_imagedata (
+    id   INT8 NOT NULL,
+    data OID,
+    PRIMARY KEY (id)
+);
+
+CREATE TABLE IF NOT EXISTS t_imagefile (
+    id            VARCHAR(255) NOT NULL,
+    name          VARCHAR(255),
+    type          VARCHAR(255),
+    length        INT8         NOT NULL,
+    content_hash  VARCHAR(64),
+    image_data_id INT8,
+    car_id        INT8,
+    PRIMARY KEY (id),
+    CONSTRAINT fk_imagefile_imagedata FOREIGN KEY (image_data_id) REFERENCES t_imagedata (id),
+    CONSTRAINT fk_imagefile_car FOREIGN KEY (car_id) REFERENCES t_car (id)
+);
+
+-- ddl-auto=update ile olusmus tablolarda CREATE TABLE IF NOT EXISTS bir sey yapmıyor,
+-- sonradan eklenen kolonlar ayrıca ekleniyor (resimler BlobStore'a tasınmadan önce content_hash yoktu)
+ALTER TABLE t_imagefile ADD COLUMN IF NOT EXISTS content_hash VARCHAR(64);
+
+CREATE TABLE IF NOT EXISTS t_reservation (
+    id               INT8         NOT NULL,
+    car_id           INT8,
+    user_id          INT8,
+    pick_up_time     TIMESTAMP    NOT NULL,
+    drop_of_time     TIMESTAMP    NOT NULL,
+    pick_up_location VARCHAR(150) NOT NULL,
+    drop_of_location VARCHAR(150) NOT NULL,
+    status           VARCHAR(30)  NOT NULL,
+    total_price      FLOAT8       NOT NULL,
+    PRIMARY KEY (id),
+    CONSTRAINT fk_reservation_car FOREIGN KEY (car_id) REFERENCES t_car (id),
+    CONSTRAINT fk_reservation_user FOREIGN KEY (user_id) REFERENCES t_user (id)
+);
+
+CREATE TABLE IF NOT EXISTS tbl_cmessage (
+    id      INT8         NOT NULL,
+    name    VARCHAR(50)  NOT NULL,
+    subject VARCHAR(50)  NOT NULL,
+    body    VARCHAR(200) NOT NULL,
+    email   VARCHAR(50)  NOT NULL,
+    PRIMARY KEY (id)
+);
+
+-- register islemi Customer rolünü DB'de arıyor
+INSERT INTO t_role (type)
+SELECT 'ROLE_CUSTOMER' WHERE NOT EXISTS (SELECT 1 FROM t_role WHERE type = 'ROLE_CUSTOMER');
+INSERT INTO t_role (type)
+SELECT 'ROLE_ADMIN' WHERE NOT EXISTS (SELECT 1 FROM t_role WHERE type = 'ROLE_ADMIN');
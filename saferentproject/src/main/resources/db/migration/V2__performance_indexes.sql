@@ -0,0 +1,28 @@
+-- Sık calısan sorgular icin index'ler
+
+-- ReservationRepository.existsConflict / findActiveIntervalsByCar (arac + status + zaman aralıgı)
+-- ve existsByCar (car_id ön eki)
+CREATE INDEX IF NOT EXISTS idx_reservation_car_status_time
+    ON t_reservation (car_id, status, pick_up_time, drop_of_time);
+
+-- ReservationRepository.findAllByUser / findByIdAndUser / existsByUser
+CREATE INDEX IF NOT EXISTS idx_reservation_user_id ON t_reservation (user_id);
+
+-- arac listelerinde fiyata göre sıralama
+CREATE INDEX IF NOT EXISTS idx_car_price_per_hour ON t_car (price_per_hour);
+
+-- primary key (user_id, role_id) kullanıcıdan role gidisi karsılıyor, ters yön icin
+CREATE INDEX IF NOT EXISTS idx_user_role_role_id ON t_user_role (role_id);
+
+-- Car.image (@OneToMany, @BatchSize) yüklemesi ve CarRepository.findCarCountByImageId join'i
+CREATE INDEX IF NOT EXISTS idx_imagefile_car_id ON t_imagefile (car_id);
+
+-- ImageFileRepository.existsByContentHash
+CREATE INDEX IF NOT EXISTS idx_imagefile_content_hash ON t_imagefile (content_hash);
+
+-- IDENTITY ile olusmus eski kayıtlar sequence'lerin önünde kalmasın
+SELECT setval('t_car_seq', (SELECT COALESCE(MAX(id), 0) + 1 FROM t_car), false);
+SELECT setval('t_user_seq', (SELECT COALESCE(MAX(id), 0) + 1 FROM t_user), false);
+SELECT setval('t_reservation_seq', (SELECT COALESCE(MAX(id), 0) + 1 FROM t_reservation), false);
+SELECT setval('t_imagedata_seq', (SELECT COALESCE(MAX(id), 0) + 1 FROM t_imagedata), false);
+SELECT setval('tbl_cmessage_seq', (SELECT COALESCE(MAX(id), 0) + 1 FROM tbl_cmessage), false);
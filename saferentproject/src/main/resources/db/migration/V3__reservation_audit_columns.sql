@@ -0,0 +1,18 @@
+-- Rezervasyonların olusturulma/güncellenme zamanı (Reservation.createdAt / updatedAt)
+
+ALTER TABLE t_reservation ADD COLUMN IF NOT EXISTS created_at TIMESTAMP;
+ALTER TABLE t_reservation ADD COLUMN IF NOT EXISTS updated_at TIMESTAMP;
+
+-- eski kayıtların gercek zamanı bilinmiyor, migration zamanı veriliyor
+-- (ilk artımlı export mevcut tüm rezervasyonları bir kez getirir)
+UPDATE t_reservation SET created_at = now() WHERE created_at IS NULL;
+UPDATE t_reservation SET updated_at = created_at WHERE updated_at IS NULL;
+
+ALTER TABLE t_reservation ALTER COLUMN created_at SET NOT NULL;
+ALTER TABLE t_reservation ALTER COLUMN updated_at SET NOT NULL;
+
+-- artımlı rapor export'u: updated_at > watermark, (updated_at, id) sırasıyla okunuyor
+CREATE INDEX IF NOT EXISTS idx_reservation_updated_at_id ON t_reservation (updated_at, id);
+
+-- rapor zaman aralıgı filtresi (arac filtresi olmadan)
+CREATE INDEX IF NOT EXISTS idx_reservation_pick_up_time ON t_reservation (pick_up_time);
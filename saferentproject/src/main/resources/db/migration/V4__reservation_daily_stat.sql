@@ -0,0 +1,45 @@
+-- Analytics özet tablosu: arac ve pickUp günü bazında rezervasyon toplamları (ReservationDailyStat)
+-- uygulama rezervasyon yazarken ilgili satırları aynı transaction icinde yeniden hesaplıyor
+
+CREATE TABLE IF NOT EXISTS t_reservation_daily_stat (
+    stat_date          DATE             NOT NULL,
+    car_id             BIGINT           NOT NULL,
+    reservation_count  BIGINT           NOT NULL,
+    canceled_count     BIGINT           NOT NULL,
+    revenue            DOUBLE PRECISION NOT NULL,
+    rented_minutes     BIGINT           NOT NULL,
+    lead_time_minutes  BIGINT           NOT NULL,
+    lead_time_count    BIGINT           NOT NULL,
+    PRIMARY KEY (stat_date, car_id)
+);
+
+-- mevcut rezervasyonlardan ilk doldurma: her rezervasyon kapsadıgı günlere açılıyor,
+-- kiralama süresi güne düsen kısmı kadar, sayılar/gelir/lead time pickUp gününe yazılıyor
+-- (V3 ile created_at'i migration zamanı verilen eski kayıtlar V7'de lead time'dan cıkarılıyor)
+INSERT INTO t_reservation_daily_stat (stat_date, car_id, reservation_count, canceled_count, revenue,
+                                      rented_minutes, lead_time_minutes, lead_time_count)
+WITH RECURSIVE reservation_day (stat_date, car_id, status, total_price, pick_up_time, drop_of_time, created_at) AS (
+    SELECT CAST(pick_up_time AS DATE), car_id, status, total_price, pick_up_time, drop_of_time, created_at
+    FROM t_reservation
+    UNION ALL
+    SELECT CAST(CAST(stat_date AS DATE) + INTERVAL '1' DAY AS DATE), car_id, status, total_price, pick_up_time, drop_of_time, created_at
+    FROM reservation_day
+    WHERE CAST(stat_date AS DATE) + INTERVAL '1' DAY < drop_of_time
+)
+SELECT stat_date,
+       car_id,
+       count(*) FILTER (WHERE CAST(pick_up_time AS DATE) = stat_date),
+       count(*) FILTER (WHERE CAST(pick_up_time AS DATE) = stat_date AND status = 'CANCELED'),
+       coalesce(sum(total_price) FILTER (WHERE CAST(pick_up_time AS DATE) = stat_date AND status <> 'CANCELED'), 0),
+       coalesce(sum(floor(extract(EPOCH FROM least(drop_of_time, stat_date + INTERVAL '1' DAY) -
+                                              greatest(pick_up_time, CAST(stat_date AS TIMESTAMP))) / 60))
+                FILTER (WHERE status <> 'CANCELED'), 0),
+       coalesce(sum(floor(extract(EPOCH FROM pick_up_time - created_at) / 60))
+                FILTER (WHERE CAST(pick_up_time AS DATE) = stat_date AND created_at <= pick_up_time), 0),
+       count(*) FILTER (WHERE CAST(pick_up_time AS DATE) = stat_date AND created_at <= pick_up_time)
+FROM reservation_day
+WHERE NOT EXISTS (SELECT 1 FROM t_reservation_daily_stat)
+GROUP BY stat_date, car_id;
+
+-- arac bazında utilization raporu (group by car_id, tarih aralıgı)
+CREATE INDEX IF NOT EXISTS idx_reservation_daily_stat_car ON t_reservation_daily_stat (car_id, stat_date);
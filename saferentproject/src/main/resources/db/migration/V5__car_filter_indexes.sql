@@ -0,0 +1,6 @@
+-- Musait arac aramasındaki büyük/kücük harf duyarsız filtreler (CarSpecifications.transmission / fuelType)
+-- lower(kolon) = ? seklinde calıstıgı icin kolon index'i degil ifade index'i gerekiyor
+
+CREATE INDEX IF NOT EXISTS idx_car_lower_transmission ON t_car (lower(transmission));
+
+CREATE INDEX IF NOT EXISTS idx_car_lower_fuel_type ON t_car (lower(fuel_type));
@@ -0,0 +1,11 @@
+-- Stateless JWT modunda revoke edilen token'lar (TokenRevocation): tüm instance'lar bu tabloyu
+-- okuyarak kendi revocation listesini güncelliyor. revoked_at epoch ms, bu zamandan önce
+-- üretilmiş token'lar artık claim'lerine güvenilmeden DB'den dogrulanıyor.
+
+CREATE TABLE IF NOT EXISTS t_token_revocation (
+    email      VARCHAR(80) NOT NULL PRIMARY KEY,
+    revoked_at BIGINT      NOT NULL
+);
+
+-- instance'ların periyodik okuması ve süresi dolan kayıtların silinmesi icin
+CREATE INDEX IF NOT EXISTS idx_token_revocation_revoked_at ON t_token_revocation (revoked_at);
@@ -0,0 +1,23 @@
+-- V3 eski rezervasyonlara created_at olarak migration zamanını vermisti. Bu kayıtların gercek
+-- olusturulma zamanı bilinmiyor, pickUp'ı migration'dan sonra olanlar analytics'te sahte lead time
+-- üretiyordu. Bu kayıtlarda created_at null yapılıyor ve lead time hesabına alınmıyor.
+-- V3'ün verdigi zaman, V3'ün flyway_schema_history'e kaydedildigi zamandan sonra olamaz;
+-- uygulamanın yazdıgı kayıtlar ise migration bittikten sonra olusuyor.
+
+ALTER TABLE t_reservation ALTER COLUMN created_at DROP NOT NULL;
+
+UPDATE t_reservation SET created_at = NULL
+WHERE created_at <= (SELECT installed_on FROM flyway_schema_history WHERE version = '3' AND success);
+
+-- V4'te bu kayıtlarla doldurulan lead time toplamları yeniden hesaplanıyor
+UPDATE t_reservation_daily_stat s
+SET lead_time_minutes = (SELECT coalesce(sum(floor(extract(EPOCH FROM r.pick_up_time - r.created_at) / 60)), 0)
+                         FROM t_reservation r
+                         WHERE r.car_id = s.car_id
+                           AND CAST(r.pick_up_time AS DATE) = s.stat_date
+                           AND r.created_at <= r.pick_up_time),
+    lead_time_count   = (SELECT count(*)
+                         FROM t_reservation r
+                         WHERE r.car_id = s.car_id
+                           AND CAST(r.pick_up_time AS DATE) = s.stat_date
+                           AND r.created_at <= r.pick_up_time);
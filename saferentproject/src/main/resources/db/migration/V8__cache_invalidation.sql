@@ -0,0 +1,13 @@
+-- Node'lardaki yerel cache'lerin (CacheConfig) birlikte temizlenmesi icin: bir node'da cache eviction'ı
+-- yapıldıgında ilgili satırın version'ı arttırılıyor, diger node'lar tabloyu periyodik okuyup
+-- version'ı degisen cache'leri kendi belleklerinde temizliyor (bkz. CacheInvalidationBus)
+
+CREATE TABLE IF NOT EXISTS t_cache_invalidation (
+    cache_name VARCHAR(64) NOT NULL PRIMARY KEY,
+    version    BIGINT      NOT NULL
+);
+
+INSERT INTO t_cache_invalidation (cache_name, version)
+SELECT cache_name, 0
+FROM (VALUES ('carCatalog'), ('carPages'), ('carById')) AS cache_names(cache_name)
+WHERE NOT EXISTS (SELECT 1 FROM t_cache_invalidation i WHERE i.cache_name = cache_names.cache_name);
@@ -0,0 +1,248 @@
+package com.myproject;
+
+import com.myproject.domain.Car;
+import com.myproject.domain.Reservation;
+import com.myproject.domain.User;
+import com.myproject.domain.enums.ReservationStatus;
+import com.myproject.domain.enums.RoleType;
+import com.myproject.dto.request.ReservationRequest;
+import com.myproject.dto.request.ReservationUpdateRequest;
+import com.myproject.repository.CarRepository;
+import com.myproject.repository.ReservationDailyStatRepository;
+import com.myproject.repository.ReservationRepository;
+import com.myproject.repository.RoleRepository;
+import com.myproject.repository.UserRepository;
+import com.myproject.service.ReservationService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.cache.CacheManager;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+
+import static com.myproject.TestFixtures.car;
+import static com.myproject.TestFixtures.role;
+import static com.myproject.TestFixtures.user;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.hamcrest.Matchers.closeTo;
+import static org.hamcrest.Matchers.greaterThan;
+import static org.hamcrest.Matchers.hasSize;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+// rezervasyon yazma islemleri özet tabloyu (t_reservation_daily_stat) güncellemeli, analytics endpoint'leri bu tablodan okuyor
+@SpringBootTest
+@ActiveProfiles("h2")
+@AutoConfigureMockMvc
+@WithMockUser(roles = "ADMIN")
+class AnalyticsControllerTest {
+
+    private static final DateTimeFormatter DATE_FORMAT = DateTimeFormatter.ofPattern("MM/dd/yyyy");
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private CacheManager cacheManager;
+
+    @Autowired
+    private ReservationService reservationService;
+
+    @Autowired
+    private RoleRepository roleRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private CarRepository carRepository;
+
+    @Autowired
+    private ReservationRepository reservationRepository;
+
+    @Autowired
+    private ReservationDailyStatRepository reservationDailyStatRepository;
+
+    private User user;
+    private Car busyCar;
+    private Car idleCar;
+    private LocalDate day;
+
+    @BeforeEach
+    void setUp() {
+        // H2'de PostgreSQL advisory lock'u yok, rezervasyon kilidi yerine etkisiz bir fonksiyon tanımlanıyor
+        jdbcTemplate.execute("CREATE ALIAS IF NOT EXISTS PG_ADVISORY_XACT_LOCK FOR '" +
+                AdvisoryLock.class.getName() + ".lock'");
+
+        transactionTemplate.executeWithoutResult(txStatus -> {
+            reservationRepository.deleteAll();
+            reservationDailyStatRepository.deleteAll();
+            carRepository.deleteAll();
+            userRepository.deleteAll();
+        });
+        cacheManager.getCacheNames().forEach(name -> cacheManager.getCache(name).clear());
+
+        transactionTemplate.executeWithoutResult(txStatus -> {
+            user = userRepository.save(user("Analytics", "Test", "analytics@saferent.com",
+                    role(roleRepository, RoleType.ROLE_CUSTOMER)));
+
+            busyCar = carRepository.save(car("Busy"));
+            idleCar = carRepository.save(car("Idle"));
+        });
+
+        day = LocalDate.now().plusDays(10);
+    }
+
+    @Test
+    void reservationWritesUpdateDailySummary() throws Exception {
+        // busyCar: 10 saat + ertesi gün 2 saat, idleCar: iptal edilen 4 saat
+        reservationService.createReservation(request(day.atTime(10, 0), day.atTime(20, 0)), user, busyCar);
+        reservationService.createReservation(request(day.plusDays(1).atTime(10, 0), day.plusDays(1).atTime(12, 0)), user, busyCar);
+        reservationService.createReservation(request(day.atTime(8, 0), day.atTime(12, 0)), user, idleCar);
+
+        Reservation canceled = reservationRepository.findAll().stream().
+                filter(r -> r.getCar().getId().equals(idleCar.getId())).
+                findFirst().orElseThrow(IllegalStateException::new);
+        reservationService.updateReservation(idleCar, canceled.getId(), new ReservationUpdateRequest(
+                canceled.getPickUpTime(), canceled.getDropOfTime(), "pick up", "drop off", ReservationStatus.CANCELED));
+
+        assertThat(reservationDailyStatRepository.count()).isEqualTo(3);
+
+        mockMvc.perform(get("/analytics/revenue").
+                        param("from", DATE_FORMAT.format(day)).
+                        param("to", DATE_FORMAT.format(day.plusDays(1)))).
+                andExpect(status().isOk()).
+                andExpect(jsonPath("$", hasSize(2))).
+                andExpect(jsonPath("$[0].periodStart").value(DATE_FORMAT.format(day))).
+                andExpect(jsonPath("$[0].reservationCount").value(2)).
+                andExpect(jsonPath("$[0].canceledCount").value(1)).
+                andExpect(jsonPath("$[0].cancellationRate").value(0.5)).
+                andExpect(jsonPath("$[0].revenue").value(100.0)).
+                andExpect(jsonPath("$[0].averageLeadTimeHours", greaterThan(9 * 24.0))).
+                andExpect(jsonPath("$[1].reservationCount").value(1)).
+                andExpect(jsonPath("$[1].revenue").value(20.0));
+
+        mockMvc.perform(get("/analytics/utilization").
+                        param("from", DATE_FORMAT.format(day)).
+                        param("to", DATE_FORMAT.format(day))).
+                andExpect(status().isOk()).
+                andExpect(jsonPath("$", hasSize(2))).
+                andExpect(jsonPath("$[0].model").value("Busy")).
+                andExpect(jsonPath("$[0].rentedHours").value(10.0)).
+                andExpect(jsonPath("$[0].availableHours").value(24)).
+                andExpect(jsonPath("$[0].utilization", closeTo(10 / 24.0, 0.0001))).
+                andExpect(jsonPath("$[1].model").value("Idle")).
+                andExpect(jsonPath("$[1].rentedHours").value(0.0)).
+                andExpect(jsonPath("$[1].canceledCount").value(1));
+
+        // silinen rezervasyonun günü özetten düsüyor
+        Reservation nextDay = reservationRepository.findAll().stream().
+                filter(r -> r.getPickUpTime().toLocalDate().equals(day.plusDays(1))).
+                findFirst().orElseThrow(IllegalStateException::new);
+        reservationService.removeById(nextDay.getId());
+
+        assertThat(reservationDailyStatRepository.count()).isEqualTo(2);
+        mockMvc.perform(get("/analytics/revenue").
+                        param("from", DATE_FORMAT.format(day)).
+                        param("to", DATE_FORMAT.format(day.plusDays(1))).
+                        param("period", "MONTH")).
+                andExpect(status().isOk()).
+                andExpect(jsonPath("$[0].periodStart").value(DATE_FORMAT.format(day.withDayOfMonth(1)))).
+                andExpect(jsonPath("$[0].reservationCount").value(2)).
+                andExpect(jsonPath("$[0].revenue").value(100.0));
+    }
+
+    @Test
+    void rentedHoursAreSplitAcrossTheDaysARentalCovers() throws Exception {
+        // 3 günlük kiralama: ilk gün 12 saat, ikinci gün 24 saat, son gün 6 saat
+        reservationService.createReservation(request(day.atTime(12, 0), day.plusDays(2).atTime(6, 0)), user, busyCar);
+
+        mockMvc.perform(get("/analytics/utilization").
+                        param("from", DATE_FORMAT.format(day)).
+                        param("to", DATE_FORMAT.format(day))).
+                andExpect(status().isOk()).
+                andExpect(jsonPath("$[0].reservationCount").value(1)).
+                andExpect(jsonPath("$[0].rentedHours").value(12.0)).
+                andExpect(jsonPath("$[0].utilization").value(0.5));
+
+        // pickUp'ı aralıktan önce olan kiralama da aralıga düsen saatleri kadar sayılıyor
+        mockMvc.perform(get("/analytics/utilization").
+                        param("from", DATE_FORMAT.format(day.plusDays(1))).
+                        param("to", DATE_FORMAT.format(day.plusDays(2)))).
+                andExpect(status().isOk()).
+                andExpect(jsonPath("$[0].reservationCount").value(0)).
+                andExpect(jsonPath("$[0].rentedHours").value(30.0)).
+                andExpect(jsonPath("$[0].availableHours").value(48));
+
+        // tarihleri degisen rezervasyonun eski günleri de yeniden hesaplanıyor
+        Reservation reservation = reservationRepository.findAll().get(0);
+        reservationService.updateReservation(busyCar, reservation.getId(), new ReservationUpdateRequest(
+                day.atTime(12, 0), day.atTime(18, 0), "pick up", "drop off", reservation.getStatus()));
+
+        assertThat(reservationDailyStatRepository.findAll()).
+                singleElement().
+                satisfies(stat -> assertThat(stat.getRentedMinutes()).isEqualTo(6 * 60));
+    }
+
+    @Test
+    void reservationsWithUnknownCreationTimeAreLeftOutOfLeadTime() throws Exception {
+        reservationService.createReservation(request(day.atTime(10, 0), day.atTime(12, 0)), user, busyCar);
+        reservationService.createReservation(request(day.atTime(10, 0), day.atTime(12, 0)), user, idleCar);
+
+        // V3 öncesi kayıtlar gibi olusturulma zamanı bilinmiyor, güncellemede özet yeniden hesaplanıyor
+        Reservation legacy = reservationRepository.findAll().stream().
+                filter(r -> r.getCar().getId().equals(idleCar.getId())).
+                findFirst().orElseThrow(IllegalStateException::new);
+        jdbcTemplate.update("UPDATE t_reservation SET created_at = NULL WHERE id = ?", legacy.getId());
+        reservationService.updateReservation(idleCar, legacy.getId(), new ReservationUpdateRequest(
+                legacy.getPickUpTime(), legacy.getDropOfTime(), "pick up", "drop off", legacy.getStatus()));
+
+        assertThat(reservationDailyStatRepository.findAll()).
+                filteredOn(stat -> stat.getCarId().equals(idleCar.getId())).
+                singleElement().
+                satisfies(stat -> {
+                    assertThat(stat.getReservationCount()).isEqualTo(1);
+                    assertThat(stat.getLeadTimeCount()).isZero();
+                    assertThat(stat.getLeadTimeMinutes()).isZero();
+                });
+        assertThat(reservationDailyStatRepository.findAll()).
+                filteredOn(stat -> stat.getCarId().equals(busyCar.getId())).
+                singleElement().
+                satisfies(stat -> assertThat(stat.getLeadTimeCount()).isEqualTo(1));
+    }
+
+    @Test
+    void rejectsReversedDateRange() throws Exception {
+        mockMvc.perform(get("/analytics/revenue").
+                        param("from", DATE_FORMAT.format(day)).
+                        param("to", DATE_FORMAT.format(day.minusDays(1)))).
+                andExpect(status().isBadRequest());
+    }
+
+    private ReservationRequest request(LocalDateTime pickUpTime, LocalDateTime dropOfTime) {
+        return new ReservationRequest(pickUpTime, dropOfTime, "pick up", "drop off");
+    }
+
+    public static class AdvisoryLock {
+
+        public static long lock(long key) {
+            return key;
+        }
+    }
+}
@@ -0,0 +1,120 @@
+package com.myproject;
+
+import org.flywaydb.core.Flyway;
+import org.h2.jdbcx.JdbcDataSource;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.init.ScriptUtils;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// Migration'lar hem bos veritabanında hem de Flyway öncesi ddl-auto=update ile olusmus semada
+// (baseline-on-migrate, bkz. application.yml) calısabilmeli. PostgreSQL yerine PostgreSQL modunda H2
+// kullanılıyor, H2'nin desteklemedigi ifadeler script'ler kopyalanırken karsılıklarıyla degistiriliyor:
+// lower(kolon) ifade index'i kolon index'i olarak, setval ise Java fonksiyonu olarak tanımlanıyor
+class FlywayMigrationTest {
+
+    private static final String MIGRATIONS = "src/main/resources/db/migration";
+
+    @TempDir
+    Path migrationDir;
+
+    private JdbcDataSource dataSource;
+
+    private JdbcTemplate jdbcTemplate;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        try (DirectoryStream<Path> scripts = Files.newDirectoryStream(Paths.get(MIGRATIONS), "*.sql")) {
+            for (Path script : scripts) {
+                String sql = new String(Files.readAllBytes(script), StandardCharsets.UTF_8).
+                        replaceAll("\\(lower\\((\\w+)\\)\\)", "($1)");
+                Files.write(migrationDir.resolve(script.getFileName()), sql.getBytes(StandardCharsets.UTF_8));
+            }
+        }
+
+        dataSource = new JdbcDataSource();
+        dataSource.setURL("jdbc:h2:mem:" + UUID.randomUUID() + ";MODE=PostgreSQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1");
+        jdbcTemplate = new JdbcTemplate(dataSource);
+        jdbcTemplate.execute("CREATE ALIAS setval FOR '" + Sequences.class.getName() + ".setval'");
+    }
+
+    @Test
+    void migratesEmptyDatabase() {
+        migrate();
+
+        assertThat(jdbcTemplate.queryForList("SELECT type FROM t_role", String.class)).
+                containsExactlyInAnyOrder("ROLE_CUSTOMER", "ROLE_ADMIN");
+        assertThat(jdbcTemplate.queryForList("SELECT cache_name FROM t_cache_invalidation", String.class)).
+                containsExactlyInAnyOrder("carCatalog", "carPages", "carById");
+    }
+
+    @Test
+    void migratesSchemaCreatedByHibernate() {
+        jdbcTemplate.execute((Connection connection) -> {
+            ScriptUtils.executeSqlScript(connection, new ClassPathResource("db/baseline-schema.sql"));
+            return null;
+        });
+
+        migrate();
+
+        // resim BlobStore'a ilk okumada tasınıyor
+        Map<String, Object> image = jdbcTemplate.queryForMap("SELECT content_hash, image_data_id FROM t_imagefile");
+        assertThat(image.get("content_hash")).isNull();
+        assertThat(image.get("image_data_id")).isEqualTo(1L);
+
+        // eski rezervasyonun olusturulma zamanı bilinmiyor, lead time'a sayılmıyor
+        assertThat(jdbcTemplate.queryForList("SELECT created_at FROM t_reservation", Object.class)).containsOnlyNulls();
+        assertThat(jdbcTemplate.queryForList("SELECT updated_at FROM t_reservation", Object.class)).doesNotContainNull();
+        Map<String, Object> stat = jdbcTemplate.queryForMap(
+                "SELECT reservation_count, lead_time_count FROM t_reservation_daily_stat WHERE stat_date < DATE '2030-01-01'");
+        assertThat(stat.get("reservation_count")).isEqualTo(1L);
+        assertThat(stat.get("lead_time_count")).isEqualTo(0L);
+
+        // kiralama süresi kapsadıgı günlere bölünüyor, rezervasyon pickUp gününe sayılıyor
+        assertThat(jdbcTemplate.queryForList("SELECT reservation_count, rented_minutes FROM t_reservation_daily_stat " +
+                        "WHERE stat_date >= DATE '2030-01-01' ORDER BY stat_date")).
+                extracting(row -> row.get("reservation_count") + "/" + row.get("rented_minutes")).
+                containsExactly("1/120", "0/1440", "0/60");
+
+        // yeni id'ler mevcut kayıtlarla cakısmıyor
+        assertThat(jdbcTemplate.queryForObject("SELECT nextval('t_car_seq')", Long.class)).isGreaterThan(1L);
+        assertThat(jdbcTemplate.queryForList("SELECT type FROM t_role", String.class)).
+                containsExactlyInAnyOrder("ROLE_CUSTOMER", "ROLE_ADMIN");
+    }
+
+    private void migrate() {
+        Flyway.configure().
+                dataSource(dataSource).
+                locations("filesystem:" + migrationDir).
+                baselineOnMigrate(true).
+                baselineVersion("0").
+                load().
+                migrate();
+    }
+
+    public static class Sequences {
+
+        public static long setval(Connection connection, String sequence, long value, boolean called) throws SQLException {
+            try (Statement statement = connection.createStatement()) {
+                statement.execute("ALTER SEQUENCE " + sequence + " RESTART WITH " + (called ? value + 1 : value));
+            }
+            return value;
+        }
+    }
+}
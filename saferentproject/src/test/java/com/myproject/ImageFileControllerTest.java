@@ -0,0 +1,45 @@
+package com.myproject;
+
+import com.myproject.domain.ImageFile;
+import com.myproject.repository.ImageFileRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+// "If-None-Match: *" sadece var olan resim icin 304 döndürmeli
+@SpringBootTest
+@ActiveProfiles("h2")
+@AutoConfigureMockMvc
+class ImageFileControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ImageFileRepository imageFileRepository;
+
+    @Test
+    void wildcardIfNoneMatchDoesNotHideMissingImage() throws Exception {
+        mockMvc.perform(get("/files/display/{id}", "missing-image").header(HttpHeaders.IF_NONE_MATCH, "*")).
+                andExpect(status().isNotFound());
+        mockMvc.perform(get("/files/download/{id}", "missing-image").header(HttpHeaders.IF_NONE_MATCH, "*")).
+                andExpect(status().isNotFound());
+    }
+
+    @Test
+    void wildcardIfNoneMatchMatchesExistingImage() throws Exception {
+        ImageFile imageFile = imageFileRepository.save(new ImageFile("car.jpg", "image/jpeg", null, 0));
+
+        mockMvc.perform(get("/files/display/{id}", imageFile.getId()).header(HttpHeaders.IF_NONE_MATCH, "*")).
+                andExpect(status().isNotModified()).
+                andExpect(header().string(HttpHeaders.ETAG, "\"" + imageFile.getId() + "\""));
+    }
+}
@@ -0,0 +1,202 @@
+package com.myproject;
+
+import com.myproject.domain.Car;
+import com.myproject.domain.ContactMessage;
+import com.myproject.domain.ImageFile;
+import com.myproject.domain.Reservation;
+import com.myproject.domain.User;
+import com.myproject.domain.enums.ReservationStatus;
+import com.myproject.domain.enums.RoleType;
+import com.myproject.repository.CarRepository;
+import com.myproject.repository.ContactMessageRepository;
+import com.myproject.repository.ImageFileRepository;
+import com.myproject.repository.ReservationRepository;
+import com.myproject.repository.RoleRepository;
+import com.myproject.repository.UserRepository;
+import com.myproject.service.CarService;
+import com.myproject.service.UserService;
+import org.hibernate.LazyInitializationException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.HashSet;
+import java.util.Set;
+
+import static com.myproject.TestFixtures.car;
+import static com.myproject.TestFixtures.role;
+import static com.myproject.TestFixtures.user;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.hamcrest.Matchers.hasItem;
+import static org.hamcrest.Matchers.hasSize;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+// open-in-view kapalıyken controller'lar sadece servis transaction'ları icinde olusturulmus DTO'ları
+// serialize etmeli. Lazy iliskiler transaction disında okunursa LazyInitializationException atılır.
+// PostgreSQL yerine bellekte H2 kullanılıyor (bkz. application-h2.yml)
+@SpringBootTest
+@ActiveProfiles("h2")
+@AutoConfigureMockMvc
+@WithMockUser(username = OpenSessionInViewDisabledTest.EMAIL, roles = "ADMIN")
+class OpenSessionInViewDisabledTest {
+
+    static final String EMAIL = "osiv@saferent.com";
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private CarService carService;
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private RoleRepository roleRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private CarRepository carRepository;
+
+    @Autowired
+    private ImageFileRepository imageFileRepository;
+
+    @Autowired
+    private ReservationRepository reservationRepository;
+
+    @Autowired
+    private ContactMessageRepository contactMessageRepository;
+
+    private Long userId;
+    private Long carId;
+    private Long reservationId;
+    private String imageId;
+
+    @BeforeEach
+    void setUp() {
+        transactionTemplate.executeWithoutResult(txStatus -> {
+            reservationRepository.deleteAll();
+            carRepository.deleteAll();
+            imageFileRepository.deleteAll();
+            userRepository.deleteAll();
+            contactMessageRepository.deleteAll();
+        });
+
+        transactionTemplate.executeWithoutResult(txStatus -> {
+            User user = userRepository.save(user("Osiv", "Test", EMAIL, role(roleRepository, RoleType.ROLE_ADMIN)));
+            userId = user.getId();
+
+            ImageFile imageFile = imageFileRepository.save(new ImageFile("car.jpg", "image/jpeg", null, 0));
+            imageId = imageFile.getId();
+
+            Car car = car("Model");
+            Set<ImageFile> images = new HashSet<>();
+            images.add(imageFile);
+            car.setImage(images);
+            carRepository.save(car);
+            carId = car.getId();
+
+            Reservation reservation = new Reservation();
+            reservation.setCar(car);
+            reservation.setUser(user);
+            reservation.setPickUpTime(LocalDateTime.now().plusDays(1).withNano(0));
+            reservation.setDropOfTime(LocalDateTime.now().plusDays(2).withNano(0));
+            reservation.setPickUpLocation("pick up");
+            reservation.setDropOfLocation("drop off");
+            reservation.setStatus(ReservationStatus.CREATED);
+            reservation.setTotalPrice(240.0);
+            reservationRepository.save(reservation);
+            reservationId = reservation.getId();
+
+            ContactMessage contactMessage = new ContactMessage();
+            contactMessage.setName("name");
+            contactMessage.setSubject("subject");
+            contactMessage.setBody("body of the contact message");
+            contactMessage.setEmail(EMAIL);
+            contactMessageRepository.save(contactMessage);
+        });
+    }
+
+    @Test
+    void entitiesReturnedFromServicesAreDetached() {
+        assertThat(TransactionSynchronizationManager.isActualTransactionActive()).isFalse();
+
+        Car car = carService.getCarById(carId);
+        User user = userService.getById(userId);
+
+        // transaction bittikten sonra lazy iliski yüklenemiyor (OSIV ile gizlenmiyor)
+        assertThatThrownBy(() -> car.getImage().size()).isInstanceOf(LazyInitializationException.class);
+        assertThatThrownBy(() -> user.getRoles().size()).isInstanceOf(LazyInitializationException.class);
+    }
+
+    @Test
+    void carEndpointsSerializeInitializedDtos() throws Exception {
+        mockMvc.perform(get("/car/visitors/{id}", carId)).
+                andExpect(status().isOk()).
+                andExpect(jsonPath("$.image", hasItem(imageId)));
+
+        mockMvc.perform(get("/car/visitors/pages").param("page", "0").param("size", "10").param("sort", "id")).
+                andExpect(status().isOk()).
+                andExpect(jsonPath("$.content[0].image", hasItem(imageId)));
+    }
+
+    @Test
+    void userEndpointsSerializeInitializedDtos() throws Exception {
+        mockMvc.perform(get("/user")).
+                andExpect(status().isOk()).
+                andExpect(jsonPath("$.roles", hasItem(RoleType.ROLE_ADMIN.getName())));
+
+        mockMvc.perform(get("/user/{id}/auth", userId)).
+                andExpect(status().isOk()).
+                andExpect(jsonPath("$.roles", hasItem(RoleType.ROLE_ADMIN.getName())));
+
+        mockMvc.perform(get("/user/auth/pages").param("page", "0").param("size", "10").param("sort", "id")).
+                andExpect(status().isOk()).
+                andExpect(jsonPath("$.content[0].roles", hasItem(RoleType.ROLE_ADMIN.getName())));
+    }
+
+    @Test
+    void reservationEndpointsSerializeInitializedDtos() throws Exception {
+        mockMvc.perform(get("/reservations/{id}/admin", reservationId)).
+                andExpect(status().isOk()).
+                andExpect(jsonPath("$.car.image", hasItem(imageId)));
+
+        mockMvc.perform(get("/reservations/{id}/auth", reservationId)).
+                andExpect(status().isOk()).
+                andExpect(jsonPath("$.userId").value(userId));
+
+        mockMvc.perform(get("/reservations/admin/auth/all").param("userId", userId.toString()).
+                        param("page", "0").param("size", "10").param("sort", "id")).
+                andExpect(status().isOk()).
+                andExpect(jsonPath("$.content", hasSize(1))).
+                andExpect(jsonPath("$.content[0].car.image", hasItem(imageId)));
+
+        mockMvc.perform(get("/reservations/admin/all/pages").param("page", "0").param("size", "10").param("sort", "id")).
+                andExpect(status().isOk()).
+                andExpect(jsonPath("$.content[0].car.image", hasItem(imageId)));
+    }
+
+    @Test
+    void contactMessageEndpointsSerializeInitializedDtos() throws Exception {
+        mockMvc.perform(get("/contactmessage/pages").param("page", "0").param("size", "10").param("sort", "id")).
+                andExpect(status().isOk()).
+                andExpect(jsonPath("$.content", hasSize(1)));
+    }
+
+}
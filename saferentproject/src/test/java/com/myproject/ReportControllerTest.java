@@ -0,0 +1,214 @@
+package com.myproject;
+
+import com.myproject.domain.Car;
+import com.myproject.domain.Reservation;
+import com.myproject.domain.User;
+import com.myproject.domain.enums.ReservationStatus;
+import com.myproject.domain.enums.RoleType;
+import com.myproject.dto.response.ReportJobResponse;
+import com.myproject.report.ReportJobStatus;
+import com.myproject.repository.CarRepository;
+import com.myproject.repository.ReservationRepository;
+import com.myproject.repository.RoleRepository;
+import com.myproject.repository.UserRepository;
+import com.myproject.security.jwt.JwtUtils;
+import com.myproject.security.service.UserDetailsImpl;
+import org.apache.poi.ss.usermodel.Sheet;
+import org.apache.poi.xssf.usermodel.XSSFWorkbook;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.ByteArrayInputStream;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.List;
+
+import static com.myproject.TestFixtures.car;
+import static com.myproject.TestFixtures.role;
+import static com.myproject.TestFixtures.user;
+import static org.assertj.core.api.Assertions.assertThat;
+
+// raporlar gercek Tomcat üzerinden indiriliyor (sendfile yolu da test ediliyor)
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@ActiveProfiles("h2")
+class ReportControllerTest {
+
+    private static final int CAR_COUNT = 1200;
+
+    @Autowired
+    private TestRestTemplate restTemplate;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private JwtUtils jwtUtils;
+
+    @Autowired
+    private RoleRepository roleRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private CarRepository carRepository;
+
+    @Autowired
+    private ReservationRepository reservationRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private HttpHeaders headers;
+
+    private User admin;
+
+    private List<Car> cars;
+
+    @BeforeEach
+    void setUp() {
+        transactionTemplate.executeWithoutResult(txStatus -> {
+            reservationRepository.deleteAll();
+            carRepository.deleteAll();
+            userRepository.deleteAll();
+        });
+        admin = transactionTemplate.execute(txStatus -> {
+            User user = userRepository.save(user("Report", "Admin", "report@saferent.com",
+                    role(roleRepository, RoleType.ROLE_ADMIN)));
+
+            cars = new ArrayList<>();
+            for (int i = 0; i < CAR_COUNT; i++) {
+                cars.add(car("Model " + i));
+            }
+            carRepository.saveAll(cars);
+            return user;
+        });
+
+        headers = new HttpHeaders();
+        headers.setBearerAuth(jwtUtils.generateJwtToken(UserDetailsImpl.build(admin)));
+    }
+
+    @Test
+    void reportIsGeneratedInBackgroundAndDownloaded() throws Exception {
+        ResponseEntity<ReportJobResponse> submitted =
+                restTemplate.exchange("/excel/jobs/cars", HttpMethod.POST, new HttpEntity<>(headers), ReportJobResponse.class);
+        assertThat(submitted.getStatusCode()).isEqualTo(HttpStatus.ACCEPTED);
+        String id = submitted.getBody().getId();
+
+        ReportJobResponse job = submitted.getBody();
+        long deadline = System.currentTimeMillis() + 30_000;
+        while (job.getStatus() != ReportJobStatus.DONE && job.getStatus() != ReportJobStatus.FAILED
+                && System.currentTimeMillis() < deadline) {
+            Thread.sleep(100);
+            job = restTemplate.exchange("/excel/jobs/" + id, HttpMethod.GET, new HttpEntity<>(headers),
+                    ReportJobResponse.class).getBody();
+        }
+        assertThat(job.getStatus()).isEqualTo(ReportJobStatus.DONE);
+        assertThat(job.getProgress()).isEqualTo(100);
+        assertThat(job.getTotalRows()).isEqualTo(CAR_COUNT);
+        assertThat(job.getRowsWritten()).isEqualTo(CAR_COUNT);
+        assertThat(job.getExpiresAt()).isAfter(job.getFinishedAt());
+
+        ResponseEntity<byte[]> file =
+                restTemplate.exchange("/excel/jobs/" + id + "/download", HttpMethod.GET, new HttpEntity<>(headers), byte[].class);
+        assertThat(file.getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(file.getHeaders().getContentLength()).isEqualTo(file.getBody().length);
+        try (XSSFWorkbook workbook = new XSSFWorkbook(new ByteArrayInputStream(file.getBody()))) {
+            Sheet sheet = workbook.getSheetAt(0);
+            assertThat(sheet.getLastRowNum()).isEqualTo(CAR_COUNT);
+        }
+    }
+
+    @Test
+    void reservationReportFiltersArePushedIntoQuery() throws Exception {
+        Reservation january = saveReservation(cars.get(0), ReservationStatus.CREATED, "2023-01-10T10:00:00", Duration.ofHours(2));
+        Reservation february = saveReservation(cars.get(1), ReservationStatus.DONE, "2023-02-01T10:00:00", Duration.ofHours(2));
+        saveReservation(cars.get(0), ReservationStatus.CANCELED, "2023-03-01T10:00:00", Duration.ofHours(2));
+
+        assertThat(reservationIds("/excel/download/reservations")).hasSize(3);
+        assertThat(reservationIds("/excel/download/reservations?from=01/01/2023 00:00:00&to=01/31/2023 00:00:00")).
+                containsExactly(january.getId());
+        assertThat(reservationIds("/excel/download/reservations?status=DONE&status=CREATED&carId=" + cars.get(1).getId())).
+                containsExactly(february.getId());
+        assertThat(reservationIds("/excel/download/reservations?userId=" + admin.getId() + "&status=CANCELED")).hasSize(1);
+
+        ResponseEntity<String> invalidWindow = restTemplate.exchange(
+                "/excel/download/reservations?from=02/01/2023 00:00:00&to=01/01/2023 00:00:00",
+                HttpMethod.GET, new HttpEntity<>(headers), String.class);
+        assertThat(invalidWindow.getStatusCode()).isEqualTo(HttpStatus.BAD_REQUEST);
+    }
+
+    @Test
+    void incrementalExportReturnsRowsChangedSinceWatermark() throws Exception {
+        Reservation old = saveReservation(cars.get(0), ReservationStatus.DONE, "2023-01-10T10:00:00", Duration.ofHours(3));
+        Reservation recent = saveReservation(cars.get(1), ReservationStatus.CREATED, "2023-01-10T10:00:00", Duration.ofMinutes(30));
+        // watermark'tan (now - reportWatermarkLagMs) yeni, henüz export edilmiyor
+        saveReservation(cars.get(2), ReservationStatus.CREATED, "2023-01-10T10:00:00", Duration.ZERO);
+
+        ResponseEntity<byte[]> first = restTemplate.exchange("/excel/download/reservations/changes",
+                HttpMethod.GET, new HttpEntity<>(headers), byte[].class);
+        assertThat(idsOf(first.getBody())).containsExactly(old.getId(), recent.getId());
+        String watermark = first.getHeaders().getFirst("X-Report-Watermark");
+        assertThat(watermark).isNotNull();
+
+        // watermark'a kadar olan degisiklikler bir daha gelmiyor
+        String since = LocalDateTime.now().minusHours(1).format(DateTimeFormatter.ofPattern("MM/dd/yyyy HH:mm:ss"));
+        assertThat(reservationIds("/excel/download/reservations/changes?since=" + since)).containsExactly(recent.getId());
+        assertThat(reservationIds("/excel/download/reservations/changes?since=" + watermark)).isEmpty();
+    }
+
+    @Test
+    void unknownJobIsNotFound() {
+        ResponseEntity<String> response =
+                restTemplate.exchange("/excel/jobs/unknown", HttpMethod.GET, new HttpEntity<>(headers), String.class);
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.NOT_FOUND);
+    }
+
+    // updatedAt entity'den degistirilemiyor (@UpdateTimestamp), zaman gecmise DB'de cekiliyor
+    private Reservation saveReservation(Car car, ReservationStatus status, String pickUpTime, Duration updatedAgo) {
+        Reservation reservation = new Reservation();
+        reservation.setCar(car);
+        reservation.setUser(admin);
+        reservation.setPickUpTime(LocalDateTime.parse(pickUpTime));
+        reservation.setDropOfTime(LocalDateTime.parse(pickUpTime).plusDays(2));
+        reservation.setPickUpLocation("pick up");
+        reservation.setDropOfLocation("drop off");
+        reservation.setStatus(status);
+        reservation.setTotalPrice(480.0);
+        reservationRepository.save(reservation);
+        jdbcTemplate.update("update t_reservation set updated_at = ? where id = ?",
+                LocalDateTime.now().minus(updatedAgo), reservation.getId());
+        return reservation;
+    }
+
+    private List<Long> reservationIds(String url) throws Exception {
+        ResponseEntity<byte[]> file = restTemplate.exchange(url, HttpMethod.GET, new HttpEntity<>(headers), byte[].class);
+        assertThat(file.getStatusCode()).isEqualTo(HttpStatus.OK);
+        return idsOf(file.getBody());
+    }
+
+    private List<Long> idsOf(byte[] excel) throws Exception {
+        List<Long> ids = new ArrayList<>();
+        try (XSSFWorkbook workbook = new XSSFWorkbook(new ByteArrayInputStream(excel))) {
+            Sheet sheet = workbook.getSheetAt(0);
+            for (int i = 1; i <= sheet.getLastRowNum(); i++) {
+                ids.add((long) sheet.getRow(i).getCell(0).getNumericCellValue());
+            }
+        }
+        return ids;
+    }
+
+}
@@ -0,0 +1,52 @@
+package com.myproject;
+
+import com.myproject.domain.Car;
+import com.myproject.domain.Role;
+import com.myproject.domain.User;
+import com.myproject.domain.enums.RoleType;
+import com.myproject.repository.RoleRepository;
+
+// H2 ile calısan testlerin ortak kullandıgı rol, kullanıcı ve arac kayıtları.
+// Kullanıcı ve arac kaydedilmeden dönüyor, testler ihtiyacına göre degistirip kaydediyor
+public final class TestFixtures {
+
+    private TestFixtures() {
+    }
+
+    // roller testler arasında silinmiyor, yoksa olusturuluyor
+    public static Role role(RoleRepository roleRepository, RoleType type) {
+        return roleRepository.findByType(type).orElseGet(() -> {
+            Role role = new Role();
+            role.setType(type);
+            return roleRepository.save(role);
+        });
+    }
+
+    public static User user(String firstName, String lastName, String email, Role role) {
+        User user = new User();
+        user.setFirstName(firstName);
+        user.setLastName(lastName);
+        user.setEmail(email);
+        user.setPassword("password");
+        user.setPhoneNumber("(555) 555-5555");
+        user.setAddress("address");
+        user.setZipCode("12345");
+        user.getRoles().add(role);
+        return user;
+    }
+
+    public static Car car(String model) {
+        Car car = new Car();
+        car.setModel(model);
+        car.setDoors(4);
+        car.setSeats(5);
+        car.setLuggage(2);
+        car.setTransmission("Automatic");
+        car.setAirConditioning(true);
+        car.setAge(1);
+        car.setPricePerHour(10.0);
+        car.setFuelType("Diesel");
+        return car;
+    }
+
+}
@@ -0,0 +1,65 @@
+package com.myproject.cache;
+
+import com.myproject.repository.CacheInvalidationRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.concurrent.ConcurrentMapCache;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import static com.myproject.service.CarService.CAR_BY_ID_CACHE;
+import static org.assertj.core.api.Assertions.assertThat;
+
+// Bir node'da yapılan eviction, aynı tabloyu okuyan diger node'ların yerel cache'lerini de temizlemeli.
+// Ikinci node aynı DB'ye baglı ayrı bir CacheInvalidationBus ve yerel cache ile temsil ediliyor.
+@SpringBootTest
+@ActiveProfiles("h2")
+class CacheInvalidationBusTest {
+
+    @Autowired
+    private CacheManager cacheManager;
+
+    @Autowired
+    private CacheInvalidationRepository cacheInvalidationRepository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    private Cache otherNodeCache;
+
+    private CacheInvalidationBus otherNode;
+
+    @BeforeEach
+    void setUp() {
+        otherNodeCache = new ConcurrentMapCache(CAR_BY_ID_CACHE);
+        otherNode = new CacheInvalidationBus(0, cacheInvalidationRepository, transactionTemplate);
+        otherNode.register(otherNodeCache);
+        otherNode.refresh();
+        otherNodeCache.put(1L, "car");
+    }
+
+    @Test
+    void evictionIsSeenByOtherNodes() {
+        transactionTemplate.executeWithoutResult(status -> cacheManager.getCache(CAR_BY_ID_CACHE).evict(1L));
+        assertThat(otherNodeCache.get(1L)).isNotNull();
+
+        otherNode.refresh();
+        assertThat(otherNodeCache.get(1L)).isNull();
+    }
+
+    @Test
+    void rolledBackEvictionIsNotShared() {
+        transactionTemplate.executeWithoutResult(status -> {
+            cacheManager.getCache(CAR_BY_ID_CACHE).evict(1L);
+            status.setRollbackOnly();
+        });
+
+        otherNode.refresh();
+        assertThat(otherNodeCache.get(1L)).isNotNull();
+    }
+
+}
@@ -0,0 +1,164 @@
+package com.myproject.datasource;
+
+import org.h2.jdbcx.JdbcDataSource;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.security.authentication.TestingAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ReplicaRoutingDataSourceTest {
+
+    // primary ve replica yerine iki ayrı bellek ici H2 veritabanı kullanılıyor.
+    // Her birindeki node tablosunda kendi adı yazılı, sorgunun nereye gittigi buradan okunuyor.
+    // Replica gecikmesi replica_lag tablosundan okunuyor (Postgres'teki pg_last_xact_replay_timestamp yerine)
+
+    private static final long MAX_LAG_MS = 60_000;
+
+    private final List<JdbcTemplate> databases = new ArrayList<>();
+
+    private JdbcTemplate replica;
+
+    private ReplicaLagMonitor monitor;
+
+    private JdbcTemplate jdbcTemplate;
+
+    private TransactionTemplate writeTransaction;
+
+    private TransactionTemplate readOnlyTransaction;
+
+    @BeforeEach
+    void setUp() {
+        JdbcDataSource primaryDataSource = database("primary");
+        JdbcDataSource replicaDataSource = database("replica");
+        replica = new JdbcTemplate(replicaDataSource);
+        replica.execute("create table replica_lag (lag_ms bigint)");
+        replica.update("insert into replica_lag values (0)");
+
+        List<ReplicaDataSource> replicas = new ArrayList<>();
+        replicas.add(new ReplicaDataSource("replica", replicaDataSource));
+        ReplicaRoutingDataSource routingDataSource =
+                new ReplicaRoutingDataSource(primaryDataSource, replicas, new ReadYourWritesTracker(MAX_LAG_MS, 100));
+        routingDataSource.afterPropertiesSet();
+        monitor = new ReplicaLagMonitor(replicas, "select lag_ms from replica_lag", MAX_LAG_MS);
+
+        LazyConnectionDataSourceProxy dataSource = new LazyConnectionDataSourceProxy(routingDataSource);
+        jdbcTemplate = new JdbcTemplate(dataSource);
+        DataSourceTransactionManager transactionManager = new DataSourceTransactionManager(dataSource);
+        writeTransaction = new TransactionTemplate(transactionManager);
+        readOnlyTransaction = new TransactionTemplate(transactionManager);
+        readOnlyTransaction.setReadOnly(true);
+
+        login("alice");
+    }
+
+    @AfterEach
+    void tearDown() {
+        monitor.shutdown();
+        databases.forEach(database -> database.execute("drop all objects"));
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void readOnlyTransactionsGoToCheckedReplica() {
+        // lag henüz ölcülmedi
+        assertThat(readOnlyNode()).isEqualTo("primary");
+
+        monitor.checkAll();
+
+        assertThat(readOnlyNode()).isEqualTo("replica");
+        String writeNode = writeTransaction.execute(status -> currentNode());
+        assertThat(writeNode).isEqualTo("primary");
+        assertThat(currentNode()).isEqualTo("primary");
+    }
+
+    @Test
+    void laggingReplicaFallsBackToPrimary() {
+        replica.update("update replica_lag set lag_ms = ?", MAX_LAG_MS + 1);
+        monitor.checkAll();
+
+        assertThat(readOnlyNode()).isEqualTo("primary");
+
+        replica.update("update replica_lag set lag_ms = 0");
+        monitor.checkAll();
+
+        assertThat(readOnlyNode()).isEqualTo("replica");
+    }
+
+    @Test
+    void unreachableReplicaFallsBackToPrimary() {
+        monitor.checkAll();
+        replica.execute("drop table replica_lag");
+        monitor.checkAll();
+
+        assertThat(readOnlyNode()).isEqualTo("primary");
+    }
+
+    @Test
+    void readsOwnWritesFromPrimaryUntilReplicaCatchesUp() {
+        // replica 30 sn geride ama kabul edilebilir sınırda
+        replica.update("update replica_lag set lag_ms = 30000");
+        monitor.checkAll();
+
+        writeTransaction.executeWithoutResult(status -> jdbcTemplate.update("insert into booking values (1)"));
+
+        assertThat(readOnlyNode()).isEqualTo("primary");
+        Integer bookings = readOnlyTransaction.execute(status -> jdbcTemplate.queryForObject("select count(*) from booking", Integer.class));
+        assertThat(bookings).isEqualTo(1);
+
+        // baska kullanıcının okumaları replica'dan devam ediyor
+        login("bob");
+        assertThat(readOnlyNode()).isEqualTo("replica");
+
+        login("alice");
+        replica.update("update replica_lag set lag_ms = 0");
+        monitor.checkAll();
+        assertThat(readOnlyNode()).isEqualTo("replica");
+    }
+
+    @Test
+    void rolledBackWriteDoesNotPinReadsToPrimary() {
+        replica.update("update replica_lag set lag_ms = 30000");
+        monitor.checkAll();
+
+        writeTransaction.executeWithoutResult(status -> {
+            jdbcTemplate.update("insert into booking values (1)");
+            status.setRollbackOnly();
+        });
+
+        assertThat(readOnlyNode()).isEqualTo("replica");
+    }
+
+    private JdbcDataSource database(String name) {
+        JdbcDataSource dataSource = new JdbcDataSource();
+        dataSource.setURL("jdbc:h2:mem:" + name + ";DB_CLOSE_DELAY=-1");
+        JdbcTemplate database = new JdbcTemplate(dataSource);
+        database.execute("create table node (name varchar(20))");
+        database.update("insert into node values (?)", name);
+        database.execute("create table booking (id bigint)");
+        databases.add(database);
+        return dataSource;
+    }
+
+    private String readOnlyNode() {
+        return readOnlyTransaction.execute(status -> currentNode());
+    }
+
+    private String currentNode() {
+        return jdbcTemplate.queryForObject("select name from node", String.class);
+    }
+
+    private void login(String username) {
+        SecurityContextHolder.getContext().setAuthentication(new TestingAuthenticationToken(username, null));
+    }
+
+}
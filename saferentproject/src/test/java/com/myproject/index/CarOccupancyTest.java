@@ -0,0 +1,99 @@
+package com.myproject.index;
+
+import com.myproject.domain.Car;
+import com.myproject.domain.Reservation;
+import com.myproject.domain.enums.ReservationStatus;
+import com.myproject.repository.ReservationRepository;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.Collections;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class CarOccupancyTest {
+
+    private static final LocalDate DAY = LocalDate.of(2023, 5, 10);
+
+    @Test
+    void reservationHoursAreRoundedToWholeSlots() {
+        // 10:30 - 12:15 -> 10, 11 ve 12. saatler; 22:00 - ertesi gün 02:00 -> 22, 23 ve 0, 1
+        CarOccupancy occupancy = CarOccupancy.of(DAY, 3, Arrays.asList(
+                new ReservationInterval(1L, 1L, DAY.atTime(10, 30), DAY.atTime(12, 15)),
+                new ReservationInterval(2L, 1L, DAY.atTime(22, 0), DAY.plusDays(1).atTime(2, 0))));
+
+        int[] masks = occupancy.dailyMasks(DAY, 3);
+
+        assertThat(masks[0]).isEqualTo((1 << 10) | (1 << 11) | (1 << 12) | (1 << 22) | (1 << 23));
+        assertThat(masks[1]).isEqualTo((1 << 0) | (1 << 1));
+        assertThat(masks[2]).isZero();
+    }
+
+    @Test
+    void reservationsOutsideTheBitmapAreClipped() {
+        CarOccupancy occupancy = CarOccupancy.of(DAY, 2, Collections.singletonList(
+                new ReservationInterval(1L, 1L, DAY.minusDays(5).atTime(9, 0), DAY.plusDays(10).atTime(9, 0))));
+
+        assertThat(occupancy.dailyMasks(DAY, 2)).containsExactly(CarOccupancy.FULL_DAY, CarOccupancy.FULL_DAY);
+        assertThat(occupancy.covers(DAY.plusDays(1), 1)).isTrue();
+        assertThat(occupancy.covers(DAY.plusDays(1), 2)).isFalse();
+        assertThat(occupancy.covers(DAY.minusDays(1), 1)).isFalse();
+    }
+
+    @Test
+    void indexKeepsOccupancyInSyncWithReservationWrites() {
+        LocalDate today = LocalDate.now();
+        ReservationRepository reservationRepository = mock(ReservationRepository.class);
+        when(reservationRepository.findActiveIntervals(any())).thenReturn(Collections.singletonList(
+                new ReservationInterval(1L, 7L, today.plusDays(1).atTime(8, 0), today.plusDays(1).atTime(10, 0))));
+
+        ReservationIntervalIndex index = new ReservationIntervalIndex(reservationRepository, 30);
+        index.reload();
+
+        assertThat(index.getDailyOccupancy(7L, today, 3)).containsExactly(0, (1 << 8) | (1 << 9), 0);
+
+        // transaction dısında put/remove hemen uygulanıyor
+        index.put(reservation(2L, 7L, today.plusDays(2).atTime(0, 0), today.plusDays(3).atTime(0, 0)));
+        assertThat(index.getDailyOccupancy(7L, today, 3)).containsExactly(0, (1 << 8) | (1 << 9), CarOccupancy.FULL_DAY);
+
+        // horizon sonrası aylar interval'lardan hesaplanıyor
+        index.put(reservation(3L, 7L, today.plusDays(100).atTime(23, 0), today.plusDays(101).atTime(1, 0)));
+        assertThat(index.getDailyOccupancy(7L, today.plusDays(100), 2)).containsExactly(1 << 23, 1);
+
+        index.remove(1L);
+        assertThat(index.getDailyOccupancy(7L, today, 2)).containsExactly(0, 0);
+        assertThat(index.getDailyOccupancy(8L, today, 2)).containsExactly(0, 0);
+    }
+
+    @Test
+    void currentMonthIsServedFromThePrecomputedBitmap() {
+        LocalDate firstDay = LocalDate.now().withDayOfMonth(1);
+        int dayCount = firstDay.lengthOfMonth();
+        ReservationRepository reservationRepository = mock(ReservationRepository.class);
+        when(reservationRepository.findActiveIntervals(any())).thenReturn(Collections.singletonList(
+                new ReservationInterval(1L, 7L, firstDay.atTime(8, 0), firstDay.atTime(10, 0))));
+
+        ReservationIntervalIndex index = new ReservationIntervalIndex(reservationRepository, 400);
+        index.reload();
+
+        assertThat(index.getOccupancy(7L).covers(firstDay, dayCount)).isTrue();
+        assertThat(index.getDailyOccupancy(7L, firstDay, dayCount)[0]).isEqualTo((1 << 8) | (1 << 9));
+    }
+
+    private Reservation reservation(Long id, Long carId, LocalDateTime pickUpTime, LocalDateTime dropOfTime) {
+        Car car = new Car();
+        car.setId(carId);
+        Reservation reservation = new Reservation();
+        reservation.setId(id);
+        reservation.setCar(car);
+        reservation.setPickUpTime(pickUpTime);
+        reservation.setDropOfTime(dropOfTime);
+        reservation.setStatus(ReservationStatus.CREATED);
+        return reservation;
+    }
+}
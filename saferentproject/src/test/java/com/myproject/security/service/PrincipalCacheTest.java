@@ -0,0 +1,66 @@
+package com.myproject.security.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.security.core.userdetails.UserDetails;
+
+import java.util.Collections;
+import java.util.Date;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+// Kullanıcı baska bir instance'ta degistirildiginde bu instance'taki evict cagrılmıyor,
+// cache'teki bilgi revoke listesine göre eskimis sayılıp tekrar yükleniyor
+class PrincipalCacheTest {
+
+    private static final String EMAIL = "principal@saferent.com";
+
+    private final TokenRevocationList tokenRevocationList = mock(TokenRevocationList.class);
+
+    private final PrincipalCache principalCache = new PrincipalCache(100, 300_000, new SimpleMeterRegistry(), tokenRevocationList);
+
+    private final AtomicInteger loads = new AtomicInteger();
+
+    private final Function<String, UserDetails> loader = email -> {
+        loads.incrementAndGet();
+        return new User(email, "password", Collections.emptyList());
+    };
+
+    @Test
+    void cachedPrincipalIsReusedUntilRevoked() {
+        Date issuedAt = new Date();
+
+        UserDetails first = principalCache.get(EMAIL, issuedAt, loader);
+        assertThat(principalCache.get(EMAIL, issuedAt, loader)).isSameAs(first);
+        assertThat(loads).hasValue(1);
+
+        // baska bir instance'ta revoke edildi, bilgi yüklendikten sonraki bir zamanda
+        long revokedAt = System.currentTimeMillis() + 1;
+        when(tokenRevocationList.isRevoked(anyString(), any(Date.class))).
+                thenAnswer(invocation -> invocation.<Date>getArgument(1).getTime() <= revokedAt);
+
+        assertThat(principalCache.get(EMAIL, issuedAt, loader)).isNotSameAs(first);
+        assertThat(loads).hasValue(2);
+    }
+
+    @Test
+    void principalLoadedAfterRevocationStaysCached() throws InterruptedException {
+        long revokedAt = System.currentTimeMillis();
+        when(tokenRevocationList.isRevoked(anyString(), any(Date.class))).
+                thenAnswer(invocation -> invocation.<Date>getArgument(1).getTime() <= revokedAt);
+        Thread.sleep(5);
+
+        Date issuedAt = new Date();
+        UserDetails first = principalCache.get(EMAIL, issuedAt, loader);
+        assertThat(principalCache.get(EMAIL, issuedAt, loader)).isSameAs(first);
+        assertThat(loads).hasValue(1);
+    }
+
+}
@@ -0,0 +1,58 @@
+package com.myproject.security.service;
+
+import com.myproject.repository.TokenRevocationRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.Date;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// Bir instance'ta yapılan revoke, aynı tabloyu okuyan diger instance'larda da gecerli olmalı.
+// Ikinci instance aynı DB'ye baglı ayrı bir TokenRevocationList ile temsil ediliyor.
+@SpringBootTest
+@ActiveProfiles("h2")
+class TokenRevocationListTest {
+
+    private static final long TTL_MS = 86400000;
+
+    @Autowired
+    private TokenRevocationList tokenRevocationList;
+
+    @Autowired
+    private TokenRevocationRepository tokenRevocationRepository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Test
+    void revocationIsSeenByOtherInstances() {
+        TokenRevocationList otherNode = new TokenRevocationList(TTL_MS, 0, tokenRevocationRepository, transactionTemplate);
+        Date issuedAt = new Date(System.currentTimeMillis() - 1000);
+
+        transactionTemplate.executeWithoutResult(status -> tokenRevocationList.revoke("shared@saferent.com"));
+        assertThat(otherNode.isRevoked("shared@saferent.com", issuedAt)).isFalse();
+
+        otherNode.refresh();
+        assertThat(otherNode.isRevoked("shared@saferent.com", issuedAt)).isTrue();
+        assertThat(otherNode.isRevoked("shared@saferent.com", new Date(System.currentTimeMillis() + 1000))).isFalse();
+        assertThat(otherNode.isRevoked("other@saferent.com", issuedAt)).isFalse();
+    }
+
+    @Test
+    void rolledBackRevocationIsNotShared() {
+        TokenRevocationList otherNode = new TokenRevocationList(TTL_MS, 0, tokenRevocationRepository, transactionTemplate);
+
+        transactionTemplate.executeWithoutResult(status -> {
+            tokenRevocationList.revoke("rollback@saferent.com");
+            status.setRollbackOnly();
+        });
+
+        otherNode.refresh();
+        assertThat(otherNode.isRevoked("rollback@saferent.com", new Date(System.currentTimeMillis() - 1000))).isFalse();
+    }
+
+}
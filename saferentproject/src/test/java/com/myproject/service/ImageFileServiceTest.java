@@ -0,0 +1,199 @@
+package com.myproject.service;
+
+import com.myproject.domain.ImageFile;
+import com.myproject.lock.BlobLockRegistry;
+import com.myproject.repository.ImageFileRepository;
+import com.myproject.storage.LocalFileSystemBlobStore;
+import com.myproject.streaming.EntityStreamer;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.mock.web.MockMultipartFile;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.AbstractPlatformTransactionManager;
+import org.springframework.transaction.support.DefaultTransactionStatus;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Collections;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class ImageFileServiceTest {
+
+    private static final byte[] CONTENT = "same image bytes".getBytes(StandardCharsets.UTF_8);
+
+    @TempDir
+    Path blobRoot;
+
+    // DB yerine kullanılan, kayıtları tutan map
+    private final Map<String, ImageFile> rows = new ConcurrentHashMap<>();
+
+    private ImageFileRepository imageFileRepository;
+    private LocalFileSystemBlobStore blobStore;
+    private ImageFileService imageFileService;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        imageFileRepository = mock(ImageFileRepository.class);
+        when(imageFileRepository.save(any(ImageFile.class))).thenAnswer(invocation -> {
+            ImageFile imageFile = invocation.getArgument(0);
+            imageFile.setId(UUID.randomUUID().toString());
+            rows.put(imageFile.getId(), imageFile);
+            return imageFile;
+        });
+        when(imageFileRepository.findById(anyString())).thenAnswer(invocation ->
+                Optional.ofNullable(rows.get(invocation.<String>getArgument(0))));
+        when(imageFileRepository.existsByContentHash(anyString())).thenAnswer(invocation ->
+                rows.values().stream().anyMatch(row -> row.getContentHash().equals(invocation.getArgument(0))));
+        doAnswer(invocation -> rows.remove(invocation.<ImageFile>getArgument(0).getId())).
+                when(imageFileRepository).delete(any(ImageFile.class));
+
+        blobStore = new LocalFileSystemBlobStore(blobRoot.toString());
+        imageFileService = new ImageFileService(imageFileRepository, blobStore, new BlobLockRegistry(16),
+                new TransactionTemplate(new NoOpTransactionManager()), mock(EntityStreamer.class));
+    }
+
+    @Test
+    void sameContentIsStoredOnceAndDeletedWithItsLastReference() throws Exception {
+        String first = imageFileService.saveImage(image());
+        String second = imageFileService.saveImage(image());
+        String contentHash = rows.get(first).getContentHash();
+        assertThat(rows.get(second).getContentHash()).isEqualTo(contentHash);
+        assertThat(blobFiles()).hasSize(1);
+
+        imageFileService.removeById(first);
+        assertThat(blobStore.load(contentHash).exists()).isTrue();
+
+        imageFileService.removeById(second);
+        assertThat(blobFiles()).isEmpty();
+    }
+
+    @Test
+    void failedInsertRemovesTheBlobItWrote() throws Exception {
+        when(imageFileRepository.save(any(ImageFile.class))).thenThrow(new IllegalStateException("insert failed"));
+
+        assertThatThrownBy(() -> imageFileService.saveImage(image())).isInstanceOf(IllegalStateException.class);
+
+        assertThat(blobFiles()).isEmpty();
+    }
+
+    @Test
+    void failedInsertKeepsContentReferencedByAnotherImage() throws Exception {
+        String existing = imageFileService.saveImage(image());
+        when(imageFileRepository.save(any(ImageFile.class))).thenThrow(new IllegalStateException("insert failed"));
+
+        assertThatThrownBy(() -> imageFileService.saveImage(image())).isInstanceOf(IllegalStateException.class);
+
+        assertThat(blobStore.load(rows.get(existing).getContentHash()).exists()).isTrue();
+    }
+
+    @Test
+    void blobsOfImagesDeletedWithTheirCarAreRemovedAfterCommit() throws Exception {
+        String carImage = imageFileService.saveImage(image());
+        String contentHash = rows.get(carImage).getContentHash();
+        TransactionTemplate transactionTemplate = new TransactionTemplate(new NoOpTransactionManager());
+
+        // arac silme rollback oldu, resim kaydı ve dosyası yerinde kalıyor
+        transactionTemplate.executeWithoutResult(status -> {
+            imageFileService.removeBlobsAfterCommit(Collections.singleton(rows.get(carImage)));
+            status.setRollbackOnly();
+        });
+        assertThat(blobStore.load(contentHash).exists()).isTrue();
+
+        // resim kaydı orphanRemoval ile aracla birlikte siliniyor
+        transactionTemplate.executeWithoutResult(status -> {
+            ImageFile imageFile = rows.remove(carImage);
+            imageFileService.removeBlobsAfterCommit(Collections.singleton(imageFile));
+            assertThat(blobStore.load(contentHash).exists()).isTrue();
+        });
+        assertThat(blobFiles()).isEmpty();
+    }
+
+    @Test
+    void blobSharedWithAnotherImageSurvivesCarDeletion() throws Exception {
+        String carImage = imageFileService.saveImage(image());
+        String other = imageFileService.saveImage(image());
+
+        new TransactionTemplate(new NoOpTransactionManager()).executeWithoutResult(status ->
+                imageFileService.removeBlobsAfterCommit(Collections.singleton(rows.remove(carImage))));
+
+        assertThat(blobStore.load(rows.get(other).getContentHash()).exists()).isTrue();
+    }
+
+    @Test
+    void concurrentUploadOfDeletedContentNeverLosesItsBlob() throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            Future<?>[] workers = new Future<?>[4];
+            for (int t = 0; t < workers.length; t++) {
+                workers[t] = executor.submit(() -> {
+                    for (int i = 0; i < 200; i++) {
+                        String id = imageFileService.saveImage(image());
+                        // kayıt durdugu sürece dosya okunabilmeli
+                        assertThat(blobStore.load(rows.get(id).getContentHash()).exists()).isTrue();
+                        imageFileService.removeById(id);
+                    }
+                    return null;
+                });
+            }
+            for (Future<?> worker : workers) {
+                worker.get(60, TimeUnit.SECONDS);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+        assertThat(rows).isEmpty();
+        assertThat(blobFiles()).isEmpty();
+    }
+
+    private static MockMultipartFile image() {
+        return new MockMultipartFile("file", "car.jpg", "image/jpeg", CONTENT);
+    }
+
+    private Object[] blobFiles() throws Exception {
+        try (Stream<Path> files = Files.walk(blobRoot)) {
+            return files.filter(Files::isRegularFile).
+                    filter(path -> !path.startsWith(blobRoot.resolve("tmp"))).
+                    toArray();
+        }
+    }
+
+    // transaction synchronization (afterCompletion) calıssın diye DB'siz transaction manager
+    private static class NoOpTransactionManager extends AbstractPlatformTransactionManager {
+
+        @Override
+        protected Object doGetTransaction() {
+            return new Object();
+        }
+
+        @Override
+        protected void doBegin(Object transaction, TransactionDefinition definition) {
+        }
+
+        @Override
+        protected void doCommit(DefaultTransactionStatus status) {
+        }
+
+        @Override
+        protected void doRollback(DefaultTransactionStatus status) {
+        }
+    }
+}
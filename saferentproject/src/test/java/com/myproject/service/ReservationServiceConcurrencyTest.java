@@ -0,0 +1,346 @@
+package com.myproject.service;
+
+import com.myproject.analytics.ReservationStatRollup;
+import com.myproject.domain.Car;
+import com.myproject.domain.Reservation;
+import com.myproject.domain.User;
+import com.myproject.domain.enums.ReservationStatus;
+import com.myproject.dto.request.ReservationBatchItemRequest;
+import com.myproject.dto.request.ReservationRequest;
+import com.myproject.dto.request.ReservationUpdateRequest;
+import com.myproject.dto.response.ReservationBatchItemResponse;
+import com.myproject.exception.BadRequestException;
+import com.myproject.exception.message.ErrorMessage;
+import com.myproject.index.ReservationInterval;
+import com.myproject.index.ReservationIntervalIndex;
+import com.myproject.lock.CarLockRegistry;
+import com.myproject.mapper.ReservationMapperImpl;
+import com.myproject.repository.ReservationRepository;
+import com.myproject.streaming.EntityStreamer;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.SimpleTransactionStatus;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Random;
+import java.util.TreeSet;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.spy;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class ReservationServiceConcurrencyTest {
+
+    private static final int CAR_COUNT = 8;
+    private static final int THREAD_COUNT = 16;
+    private static final int BOOKINGS_PER_THREAD = 150;
+
+    // DB yerine kullanılan, kayıtları tutan liste
+    private final List<Reservation> savedReservations = new CopyOnWriteArrayList<>();
+    private final AtomicLong idSequence = new AtomicLong();
+
+    private ReservationService reservationService;
+    private ReservationIntervalIndex reservationIntervalIndex;
+    private PlatformTransactionManager transactionManager;
+    private CarLockRegistry carLockRegistry;
+
+    @BeforeEach
+    void setUp() {
+        ReservationRepository reservationRepository = mock(ReservationRepository.class);
+
+        when(reservationRepository.lockCarForBooking(anyLong())).thenReturn(1L);
+        when(reservationRepository.existsConflict(anyLong(), any(), any(), any())).thenAnswer(invocation -> {
+            Long carId = invocation.getArgument(0);
+            LocalDateTime pickUpTime = invocation.getArgument(1);
+            LocalDateTime dropOfTime = invocation.getArgument(2);
+            return savedReservations.stream().
+                    filter(r -> r.getCar().getId().equals(carId)).
+                    anyMatch(r -> overlaps(r, pickUpTime, dropOfTime));
+        });
+        when(reservationRepository.save(any(Reservation.class))).thenAnswer(invocation -> {
+            Reservation reservation = invocation.getArgument(0);
+            // check-then-insert arasındaki pencereyi büyütüyoruz
+            Thread.yield();
+            if (reservation.getId() == null) {
+                reservation.setId(idSequence.incrementAndGet());
+                savedReservations.add(reservation);
+            }
+            return reservation;
+        });
+
+        when(reservationRepository.findActiveIntervalsByCar(anyLong(), any(), any(), any())).thenAnswer(invocation -> {
+            Long carId = invocation.getArgument(0);
+            LocalDateTime pickUpTime = invocation.getArgument(1);
+            LocalDateTime dropOfTime = invocation.getArgument(2);
+            return savedReservations.stream().
+                    filter(r -> r.getCar().getId().equals(carId)).
+                    filter(r -> overlaps(r, pickUpTime, dropOfTime)).
+                    map(r -> new ReservationInterval(r.getId(), carId, r.getPickUpTime(), r.getDropOfTime())).
+                    collect(Collectors.toList());
+        });
+        when(reservationRepository.saveAll(anyList())).thenAnswer(invocation -> {
+            List<Reservation> reservations = invocation.getArgument(0);
+            reservations.forEach(reservation -> {
+                reservation.setId(idSequence.incrementAndGet());
+                savedReservations.add(reservation);
+            });
+            return reservations;
+        });
+
+        when(reservationRepository.findCarIdById(anyLong())).thenAnswer(invocation ->
+                findSaved(invocation.getArgument(0)).map(r -> r.getCar().getId()));
+        when(reservationRepository.findById(anyLong())).thenAnswer(invocation -> findSaved(invocation.getArgument(0)));
+
+        transactionManager = mock(PlatformTransactionManager.class);
+        when(transactionManager.getTransaction(any())).thenAnswer(invocation -> new SimpleTransactionStatus());
+
+        reservationIntervalIndex = new ReservationIntervalIndex(reservationRepository, 400);
+        carLockRegistry = spy(new CarLockRegistry(64));
+        reservationService = new ReservationService(reservationRepository,
+                new ReservationMapperImpl(),
+                reservationIntervalIndex,
+                carLockRegistry,
+                new TransactionTemplate(transactionManager),
+                mock(EntityStreamer.class),
+                mock(ReservationStatRollup.class));
+    }
+
+    @Test
+    void concurrentBookingsNeverOverlapForTheSameCar() throws Exception {
+        List<Car> cars = new ArrayList<>();
+        for (long i = 1; i <= CAR_COUNT; i++) {
+            Car car = new Car();
+            car.setId(i);
+            car.setPricePerHour(10.0);
+            cars.add(car);
+        }
+        User user = new User();
+        user.setId(1L);
+
+        LocalDateTime base = LocalDateTime.now().plusDays(1).withNano(0);
+        AtomicInteger rejected = new AtomicInteger();
+
+        ExecutorService executor = Executors.newFixedThreadPool(THREAD_COUNT);
+        List<Future<?>> futures = new ArrayList<>();
+        for (int t = 0; t < THREAD_COUNT; t++) {
+            long seed = t;
+            futures.add(executor.submit(() -> {
+                Random random = new Random(seed);
+                for (int i = 0; i < BOOKINGS_PER_THREAD; i++) {
+                    Car car = cars.get(random.nextInt(CAR_COUNT));
+                    LocalDateTime pickUpTime = base.plusHours(random.nextInt(500));
+                    LocalDateTime dropOfTime = pickUpTime.plusHours(1 + random.nextInt(12));
+                    ReservationRequest request =
+                            new ReservationRequest(pickUpTime, dropOfTime, "pick up", "drop off");
+                    try {
+                        reservationService.createReservation(request, user, car);
+                    } catch (BadRequestException e) {
+                        rejected.incrementAndGet();
+                    }
+                }
+            }));
+        }
+        for (Future<?> future : futures) {
+            future.get(60, TimeUnit.SECONDS);
+        }
+        executor.shutdown();
+
+        assertThat(savedReservations).isNotEmpty();
+        assertThat(rejected.get()).isPositive();
+        assertThat(savedReservations.size() + rejected.get()).isEqualTo(THREAD_COUNT * BOOKINGS_PER_THREAD);
+
+        Map<Long, List<Reservation>> byCar = savedReservations.stream().
+                collect(Collectors.groupingBy(r -> r.getCar().getId()));
+        byCar.forEach((carId, reservations) -> {
+            for (int i = 0; i < reservations.size(); i++) {
+                for (int j = i + 1; j < reservations.size(); j++) {
+                    Reservation a = reservations.get(i);
+                    Reservation b = reservations.get(j);
+                    assertThat(overlaps(a, b.getPickUpTime(), b.getDropOfTime())).
+                            as("reservations %s and %s of car %s overlap", a.getId(), b.getId(), carId).
+                            isFalse();
+                }
+            }
+        });
+    }
+
+    @Test
+    void differentCarsDoNotShareALock() throws Exception {
+        CarLockRegistry carLockRegistry = new CarLockRegistry(1024);
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+
+        // 1 numaralı aracın lock'u tutulurken 2 numaralı arac beklemeden islem yapabilmeli
+        Boolean otherCarLocked = carLockRegistry.executeWithLock(1L, () -> {
+            try {
+                return executor.submit(() -> carLockRegistry.executeWithLock(2L, () -> true)).
+                        get(5, TimeUnit.SECONDS);
+            } catch (Exception e) {
+                return false;
+            }
+        });
+        executor.shutdown();
+
+        assertThat(otherCarLocked).isTrue();
+    }
+
+    @Test
+    void atomicBatchCreatesNothingWhenOneItemFails() {
+        Map<Long, Car> cars = batchCars();
+        LocalDateTime base = LocalDateTime.now().plusDays(1).withNano(0);
+
+        List<ReservationBatchItemRequest> items = new ArrayList<>();
+        items.add(batchItem(1L, base, base.plusHours(2)));
+        items.add(batchItem(2L, base, base.plusHours(2)));
+        // aynı batch icinde 1 numaralı araca cakısan kalem
+        items.add(batchItem(1L, base.plusHours(1), base.plusHours(3)));
+
+        List<ReservationBatchItemResponse> results = reservationService.createReservations(items, new User(), cars, true);
+
+        assertThat(savedReservations).isEmpty();
+        assertThat(results).hasSize(3).noneMatch(ReservationBatchItemResponse::isSuccess);
+        assertThat(results.get(2).getMessage()).isEqualTo(ErrorMessage.RESERVATION_BATCH_OVERLAP_MESSAGE);
+        assertThat(results.get(0).getMessage()).isEqualTo(ErrorMessage.RESERVATION_BATCH_ABORTED_MESSAGE);
+    }
+
+    @Test
+    void bestEffortBatchCreatesValidItemsOnly() {
+        Map<Long, Car> cars = batchCars();
+        LocalDateTime base = LocalDateTime.now().plusDays(1).withNano(0);
+        reservationService.createReservation(
+                new ReservationRequest(base, base.plusHours(2), "pick up", "drop off"), new User(), cars.get(2L));
+
+        List<ReservationBatchItemRequest> items = new ArrayList<>();
+        items.add(batchItem(1L, base, base.plusHours(2)));
+        items.add(batchItem(1L, base.plusHours(3), base.plusHours(5)));
+        // daha önce kaydedilmis rezervasyonla cakısıyor
+        items.add(batchItem(2L, base.plusHours(1), base.plusHours(4)));
+        // olmayan arac
+        items.add(batchItem(99L, base, base.plusHours(1)));
+
+        List<ReservationBatchItemResponse> results = reservationService.createReservations(items, new User(), cars, false);
+
+        assertThat(results).extracting(ReservationBatchItemResponse::isSuccess).containsExactly(true, true, false, false);
+        assertThat(results.get(2).getMessage()).isEqualTo(ErrorMessage.CAR_NOT_AVAILABLE_MESSAGE);
+        assertThat(results.get(0).getReservationId()).isNotNull();
+        assertThat(results.get(0).getTotalPrice()).isEqualTo(20.0);
+        assertThat(savedReservations).hasSize(3);
+    }
+
+    @Test
+    void adjacentReservationsDoNotConflict() {
+        Car car = batchCars().get(1L);
+        LocalDateTime base = LocalDateTime.now().plusDays(1).withNano(0);
+        reservationService.createReservation(
+                new ReservationRequest(base, base.plusHours(2), "pick up", "drop off"), new User(), car);
+
+        // önceki rezervasyonun bittigi saatte baslayan rezervasyon kabul ediliyor
+        reservationService.createReservation(
+                new ReservationRequest(base.plusHours(2), base.plusHours(4), "pick up", "drop off"), new User(), car);
+        // mevcut rezervasyonu tamamen kapsayan aralık reddediliyor
+        assertThatThrownBy(() -> reservationService.createReservation(
+                new ReservationRequest(base.minusHours(1), base.plusHours(5), "pick up", "drop off"), new User(), car)).
+                isInstanceOf(BadRequestException.class);
+
+        List<ReservationBatchItemRequest> items = new ArrayList<>();
+        items.add(batchItem(1L, base.plusHours(4), base.plusHours(6)));
+        items.add(batchItem(1L, base.plusHours(6), base.plusHours(8)));
+
+        List<ReservationBatchItemResponse> results =
+                reservationService.createReservations(items, new User(), batchCars(), true);
+
+        assertThat(results).allMatch(ReservationBatchItemResponse::isSuccess);
+        assertThat(savedReservations).hasSize(4);
+    }
+
+    @Test
+    void availabilityCheckFromIndexOpensNoTransaction() {
+        Car car = batchCars().get(1L);
+        LocalDateTime base = LocalDateTime.now().plusDays(1).withNano(0);
+
+        // index yüklenmeden once DB'ye read-only transaction ile gidiliyor
+        assertThat(reservationService.checkCarAvailabity(car, base, base.plusHours(2))).isTrue();
+        verify(transactionManager, times(1)).getTransaction(any());
+
+        reservationIntervalIndex.reload();
+        assertThat(reservationService.checkCarAvailabity(car, base, base.plusHours(2))).isTrue();
+        verify(transactionManager, times(1)).getTransaction(any());
+    }
+
+    @Test
+    void movingOrDeletingAReservationLocksEveryCarItTouches() {
+        Map<Long, Car> cars = batchCars();
+        LocalDateTime base = LocalDateTime.now().plusDays(1).withNano(0);
+        reservationService.createReservation(
+                new ReservationRequest(base, base.plusHours(2), "pick up", "drop off"), new User(), cars.get(1L));
+        Long reservationId = savedReservations.get(0).getId();
+
+        // rezervasyon 1 numaralı aractan 2 numaralıya tasınıyor: iki aracın da kilidi alınmalı
+        reservationService.updateReservation(cars.get(2L), reservationId, new ReservationUpdateRequest(
+                base, base.plusHours(2), "pick up", "drop off", ReservationStatus.CREATED));
+
+        verify(carLockRegistry).executeWithLocks(eq(new TreeSet<>(Arrays.asList(1L, 2L))), any());
+        assertThat(reservationIntervalIndex.hasConflict(1L, base, base.plusHours(2), null)).isFalse();
+        assertThat(reservationIntervalIndex.hasConflict(2L, base, base.plusHours(2), null)).isTrue();
+
+        reservationService.removeById(reservationId);
+
+        verify(carLockRegistry).executeWithLock(eq(2L), any());
+        assertThat(reservationIntervalIndex.hasConflict(2L, base, base.plusHours(2), null)).isFalse();
+    }
+
+    private Optional<Reservation> findSaved(Long id) {
+        return savedReservations.stream().filter(r -> r.getId().equals(id)).findFirst();
+    }
+
+    private static Map<Long, Car> batchCars() {
+        Map<Long, Car> cars = new HashMap<>();
+        for (long i = 1; i <= 2; i++) {
+            Car car = new Car();
+            car.setId(i);
+            car.setPricePerHour(10.0);
+            cars.put(i, car);
+        }
+        return cars;
+    }
+
+    private static ReservationBatchItemRequest batchItem(Long carId, LocalDateTime pickUpTime, LocalDateTime dropOfTime) {
+        ReservationBatchItemRequest item = new ReservationBatchItemRequest();
+        item.setCarId(carId);
+        item.setPickUpTime(pickUpTime);
+        item.setDropOfTime(dropOfTime);
+        item.setPickUpLocation("pick up");
+        item.setDropOfLocation("drop off");
+        return item;
+    }
+
+    private static boolean overlaps(Reservation reservation, LocalDateTime pickUpTime, LocalDateTime dropOfTime) {
+        return reservation.getStatus() == ReservationStatus.CREATED &&
+               reservation.getPickUpTime().isBefore(dropOfTime) &&
+               reservation.getDropOfTime().isAfter(pickUpTime);
+    }
+
+}
@@ -0,0 +1,84 @@
+package com.myproject.service;
+
+import com.myproject.domain.enums.RoleType;
+import com.myproject.dto.response.ImportResponse;
+import com.myproject.dto.response.ImportRowError;
+import com.myproject.repository.RoleRepository;
+import com.myproject.repository.UserRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.mock.web.MockMultipartFile;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+import static com.myproject.TestFixtures.role;
+import static org.assertj.core.api.Assertions.assertThat;
+
+// Kaydedilemeyen chunk satır satır tekrar yazılıyor: gecerli satırlar import ediliyor ve
+// sadece DB'nin reddettigi satır raporlanıyor. Adres kolonu (15) request'teki sınırdan (50) kısa
+// oldugu icin uzun adres validation'dan gecip insert'te hata veriyor.
+@SpringBootTest
+@ActiveProfiles("h2")
+class UserImportTest {
+
+    private static final String HEADER = "FirstName,LastName,Email,Password,PhoneNumber,Address,ZipCode\n";
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private RoleRepository roleRepository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @BeforeEach
+    void setUp() {
+        transactionTemplate.executeWithoutResult(txStatus -> {
+            userRepository.deleteAll();
+            role(roleRepository, RoleType.ROLE_CUSTOMER);
+        });
+    }
+
+    @Test
+    void failedChunkIsRetriedRowByRow() {
+        ImportResponse response = userService.importUsers(csv(
+                row("ok1@saferent.com", "Main St"),
+                row("bad@saferent.com", "A very long street name"),
+                row("ok2@saferent.com", "Side St")));
+
+        assertThat(response.getImportedCount()).isEqualTo(2);
+        assertThat(response.getErrors()).extracting(ImportRowError::getRow).containsExactly(3L);
+        assertThat(userRepository.findExistingEmails(Arrays.asList("ok1@saferent.com", "ok2@saferent.com", "bad@saferent.com")))
+                .containsExactlyInAnyOrder("ok1@saferent.com", "ok2@saferent.com");
+    }
+
+    @Test
+    void emailOfRolledBackRowDoesNotBlockLaterRows() {
+        ImportResponse response = userService.importUsers(csv(
+                row("same@saferent.com", "A very long street name"),
+                row("same@saferent.com", "Main St")));
+
+        assertThat(response.getImportedCount()).isEqualTo(1);
+        assertThat(response.getErrors()).extracting(ImportRowError::getRow).containsExactly(2L);
+        assertThat(response.getErrors().get(0).getMessage()).doesNotContain("already");
+    }
+
+    private static String row(String email, String address) {
+        return "Jane,Doe," + email + ",secret1,(541) 317-8828," + address + ",12345\n";
+    }
+
+    private static MockMultipartFile csv(String... rows) {
+        return new MockMultipartFile("file", "users.csv", "text/csv",
+                (HEADER + String.join("", rows)).getBytes(StandardCharsets.UTF_8));
+    }
+
+}
@@ -0,0 +1,42 @@
+-- Flyway'den önce ddl-auto=update ile olusan sema (ilk sürümün entity'leri, PostgreSQL dialect'i ile)
+-- ve bu semada tutulan örnek kayıtlar. FlywayMigrationTest migration'ları bu sema üzerinde calıstırıyor.
+
+create table t_role (id serial not null, type varchar(255), primary key (id));
+create table t_user (id bigserial not null, address varchar(15) not null, built_in boolean not null,
+    email varchar(50) not null, first_name varchar(50) not null, last_name varchar(50) not null,
+    password varchar(120) not null, phone_number varchar(14) not null, zip_code varchar(15) not null, primary key (id));
+alter table t_user add constraint uk_i6qjjoe560mee5ajdg7v1o6mi unique (email);
+create table t_user_role (user_id int8 not null, role_id int4 not null, primary key (user_id, role_id));
+create table t_car (id bigserial not null, age int4 not null, air_conditioning boolean not null, built_in boolean,
+    doors int4 not null, fuel_type varchar(30) not null, luggage int4 not null, model varchar(30) not null,
+    price_per_hour float8 not null, seats int4 not null, transmission varchar(30) not null, primary key (id));
+create table t_imagedata (id bigserial not null, data oid, primary key (id));
+create table t_imagefile (id varchar(255) not null, length int8 not null, name varchar(255), type varchar(255),
+    image_data_id int8, car_id int8, primary key (id));
+create table t_reservation (id bigserial not null, drop_of_location varchar(150) not null, drop_of_time timestamp not null,
+    pick_up_location varchar(150) not null, pick_up_time timestamp not null, status varchar(30) not null,
+    total_price float8 not null, car_id int8, user_id int8, primary key (id));
+create table tbl_cmessage (id bigserial not null, body varchar(200) not null, email varchar(50) not null,
+    name varchar(50) not null, subject varchar(50) not null, primary key (id));
+alter table t_user_role add constraint fkq5vgg8e4u0s2cs8qmp7rdkfjx foreign key (role_id) references t_role;
+alter table t_user_role add constraint fk4n7qfxyxkpq8ivhhk5s7f8ug1 foreign key (user_id) references t_user;
+alter table t_imagefile add constraint fkq4y3h2ud2m9d5sxhsyxqjwrgm foreign key (image_data_id) references t_imagedata;
+alter table t_imagefile add constraint fk8gb3q8xwx7k5v5n5v2ul4q1pb foreign key (car_id) references t_car;
+alter table t_reservation add constraint fk2o1t5b1p5g0yx9kqv3bsv6k5h foreign key (car_id) references t_car;
+alter table t_reservation add constraint fk7q9fc3ab0k2lr9u3ofrj6r1qc foreign key (user_id) references t_user;
+
+insert into t_role (type) values ('ROLE_CUSTOMER');
+insert into t_user (address, built_in, email, first_name, last_name, password, phone_number, zip_code)
+    values ('address', false, 'baseline@saferent.com', 'Base', 'Line', 'password', '(555) 555-5555', '12345');
+insert into t_user_role (user_id, role_id) values (1, 1);
+insert into t_car (age, air_conditioning, built_in, doors, fuel_type, luggage, model, price_per_hour, seats, transmission)
+    values (1, true, false, 4, 'Diesel', 2, 'Baseline', 10.0, 5, 'Automatic');
+insert into t_imagedata (data) values (null);
+insert into t_imagefile (id, length, name, type, image_data_id, car_id)
+    values ('baseline-image', 0, 'car.jpg', 'image/jpeg', 1, 1);
+-- pickUp'ı ileride olan eski rezervasyon, olusturulma zamanı bilinmiyor
+insert into t_reservation (drop_of_location, drop_of_time, pick_up_location, pick_up_time, status, total_price, car_id, user_id)
+    values ('drop off', now() + interval '10' day + interval '2' hour, 'pick up', now() + interval '10' day, 'CREATED', 20.0, 1, 1);
+-- gece yarısını iki kez gecen rezervasyon: 2 saat + 24 saat + 1 saat
+insert into t_reservation (drop_of_location, drop_of_time, pick_up_location, pick_up_time, status, total_price, car_id, user_id)
+    values ('drop off', timestamp '2030-01-03 01:00:00', 'pick up', timestamp '2030-01-01 22:00:00', 'CREATED', 270.0, 1, 1);